@@ -0,0 +1,75 @@
+package com.example.dataclientservice.config;
+
+import io.micronaut.context.annotation.Bean;
+import io.micronaut.context.annotation.Factory;
+import io.micronaut.context.annotation.Property;
+import jakarta.inject.Named;
+import jakarta.inject.Singleton;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Executor for controller methods that block (toBlocking() calls to data-query-service, the token acquisition
+// wait loop). By default a bounded platform pool that rejects work beyond its queue; virtual threads are opt-in
+// and resolved reflectively because the build targets Java 17, so older runtimes fall back to the bounded pool.
+@Factory
+public class RequestExecutorFactory {
+    
+    private static final Logger LOG = LoggerFactory.getLogger(RequestExecutorFactory.class);
+    
+    public static final String REQUEST_EXECUTOR = "request-executor";
+    
+    @Singleton
+    @Named(REQUEST_EXECUTOR)
+    @Bean(preDestroy = "shutdown")
+    public ExecutorService requestExecutor(@Property(name = "client.execution.virtual-threads", defaultValue = "false") boolean virtualThreads,
+                                           @Property(name = "client.execution.platform-threads", defaultValue = "200") int platformThreads,
+                                           @Property(name = "client.execution.queue-capacity", defaultValue = "10000") int queueCapacity) {
+        return create(virtualThreads, platformThreads, queueCapacity);
+    }
+    
+    public static ExecutorService create(boolean virtualThreads, int platformThreads, int queueCapacity) {
+        if (virtualThreads) {
+            ExecutorService virtual = newVirtualThreadExecutor("request-vt-");
+            if (virtual != null) {
+                LOG.info("Request executor running on virtual threads");
+                return virtual;
+            }
+            LOG.warn("Virtual threads need JDK 21+, running on {}, falling back to a platform pool of {} threads",
+                    Runtime.version(), platformThreads);
+        }
+        
+        AtomicInteger threadCount = new AtomicInteger();
+        ThreadFactory threadFactory = r -> {
+            Thread thread = new Thread(r, "request-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(platformThreads, platformThreads, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(queueCapacity), threadFactory, new ThreadPoolExecutor.AbortPolicy());
+        executor.allowCoreThreadTimeOut(true);
+        LOG.info("Request executor running on {} platform threads, queue capacity: {}", platformThreads, queueCapacity);
+        return executor;
+    }
+    
+    // Thread.ofVirtual().name(prefix, 0).factory() + Executors.newThreadPerTaskExecutor(factory), or null before JDK 21
+    static ExecutorService newVirtualThreadExecutor(String namePrefix) {
+        try {
+            Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            builder = builderType.getMethod("name", String.class, long.class).invoke(builder, namePrefix, 0L);
+            ThreadFactory factory = (ThreadFactory) builderType.getMethod("factory").invoke(builder);
+            return (ExecutorService) Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class)
+                    .invoke(null, factory);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+}
@@ -1,29 +1,52 @@
 package com.example.dataclientservice.controller;
 
+import com.example.dataclientservice.config.RequestExecutorFactory;
 import com.example.dataclientservice.dto.TokenResponse;
 import com.example.dataclientservice.service.TokenService;
+import io.micronaut.core.annotation.Nullable;
 import io.micronaut.http.HttpResponse;
 import io.micronaut.http.annotation.Body;
 import io.micronaut.http.annotation.Controller;
 import io.micronaut.http.annotation.Get;
+import io.micronaut.http.annotation.Header;
 import io.micronaut.http.annotation.Post;
+import io.micronaut.scheduling.annotation.ExecuteOn;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 @Controller
 public class CallbackController {
     
     private static final Logger LOG = LoggerFactory.getLogger(CallbackController.class);
+    private static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    // token-service redelivers with the same key until its token expires, so a short window of recent keys is enough
+    private static final int MAX_RECENT_KEYS = 4096;
     private final TokenService tokenService;
+    private final Map<String, Boolean> recentKeys = Collections.synchronizedMap(
+            new LinkedHashMap<>(16, 0.75f, false) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+                    return size() > MAX_RECENT_KEYS;
+                }
+            });
     
     public CallbackController(TokenService tokenService) {
         this.tokenService = tokenService;
     }
     
     @Post("/callback")
-    public HttpResponse<String> receiveToken(@Body TokenResponse tokenResponse) {
+    public HttpResponse<String> receiveToken(@Body TokenResponse tokenResponse,
+                                             @Nullable @Header(IDEMPOTENCY_KEY_HEADER) String idempotencyKey) {
         try {
+            if (isDuplicate(idempotencyKey)) {
+                LOG.info("Duplicate token callback ignored, idempotency key: {}", idempotencyKey);
+                return HttpResponse.ok("Token received successfully");
+            }
+            
             LOG.info("Token received via callback: {}", tokenResponse.getAccessToken().substring(0, 50));
             LOG.info("Token type: {}", tokenResponse.getTokenType());
             LOG.info("Expires in: {} seconds", tokenResponse.getExpiresIn());
@@ -31,6 +54,7 @@ public class CallbackController {
             
             // Store the token in the TokenService
             tokenService.storeTokenFromCallback(tokenResponse);
+            remember(idempotencyKey);
             
             return HttpResponse.ok("Token received successfully");
         } catch (Exception e) {
@@ -39,7 +63,51 @@ public class CallbackController {
         }
     }
     
+    @Post("/callback/batch")
+    public HttpResponse<String> receiveTokens(@Body List<TokenResponse> tokenResponses,
+                                              @Nullable @Header(IDEMPOTENCY_KEY_HEADER) String idempotencyKeys) {
+        try {
+            LOG.info("Token batch received via callback: {} tokens", tokenResponses.size());
+            
+            // one key per array element, in order; a list that does not line up is ignored rather than guessed at
+            String[] keys = idempotencyKeys == null ? null : idempotencyKeys.split(",", -1);
+            if (keys != null && keys.length != tokenResponses.size()) {
+                LOG.warn("Ignoring {} idempotency keys for a batch of {} tokens", keys.length, tokenResponses.size());
+                keys = null;
+            }
+            for (int i = 0; i < tokenResponses.size(); i++) {
+                if (keys != null && isDuplicate(keys[i].trim())) {
+                    LOG.debug("Duplicate token in batch callback ignored, idempotency key: {}", keys[i]);
+                    continue;
+                }
+                tokenService.storeTokenFromCallback(tokenResponses.get(i));
+                if (keys != null) {
+                    remember(keys[i].trim());
+                }
+            }
+            
+            return HttpResponse.ok("Tokens received successfully");
+        } catch (Exception e) {
+            LOG.error("Error processing token batch callback", e);
+            return HttpResponse.serverError("Error processing token batch callback");
+        }
+    }
+    
+    // keyless callbacks are never duplicates
+    private boolean isDuplicate(String idempotencyKey) {
+        return idempotencyKey != null && recentKeys.containsKey(idempotencyKey);
+    }
+    
+    // only after the token is stored, so a delivery that failed here is accepted when it is retried
+    private void remember(String idempotencyKey) {
+        if (idempotencyKey != null && !idempotencyKey.isEmpty()) {
+            recentKeys.put(idempotencyKey, Boolean.TRUE);
+        }
+    }
+    
+    // a cache miss fetches a token with toBlocking() and may wait for the callback, so it stays off the event loop
     @Get("/api/v1/token")
+    @ExecuteOn(RequestExecutorFactory.REQUEST_EXECUTOR)
     public HttpResponse<Map<String, String>> getStoredToken() {
         try {
             String accessToken = tokenService.getAccessToken();
@@ -1,10 +1,12 @@
 package com.example.dataclientservice.controller;
 
+import com.example.dataclientservice.config.RequestExecutorFactory;
 import com.example.dataclientservice.dto.PagedResponse;
 import com.example.dataclientservice.dto.User;
 import com.example.dataclientservice.service.DataQueryServiceClient;
 import io.micronaut.http.HttpResponse;
 import io.micronaut.http.annotation.*;
+import io.micronaut.scheduling.annotation.ExecuteOn;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -18,6 +20,7 @@ import java.util.UUID;
 
 @Controller("/api/v1/users")
 @Tag(name = "Client Users", description = "Client-side user endpoints with circuit breaker and retry")
+@ExecuteOn(RequestExecutorFactory.REQUEST_EXECUTOR)
 public class ClientUserController {
     
     private static final Logger LOG = LoggerFactory.getLogger(ClientUserController.class);
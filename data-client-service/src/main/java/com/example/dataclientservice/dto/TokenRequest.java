@@ -9,6 +9,8 @@ public class TokenRequest {
     private String clientSecret;
     private String grantType;
     private String scope;
+    private String responseMode;
+    private String refreshToken;
     
     public TokenRequest() {
     }
@@ -51,4 +53,20 @@ public class TokenRequest {
     public void setScope(String scope) {
         this.scope = scope;
     }
+    
+    public String getResponseMode() {
+        return responseMode;
+    }
+    
+    public void setResponseMode(String responseMode) {
+        this.responseMode = responseMode;
+    }
+    
+    public String getRefreshToken() {
+        return refreshToken;
+    }
+    
+    public void setRefreshToken(String refreshToken) {
+        this.refreshToken = refreshToken;
+    }
 }
@@ -65,10 +65,24 @@ public class TokenService {
                     return tokenInfo.getAccessToken();
                 }
                 
-                // Initiate token request (will be delivered via callback)
-                fetchNewToken(traceId);
+                // renewing with the refresh token still authenticates the client, it only skips the callback cycle
+                if (tokenInfo != null && tokenInfo.getRefreshToken() != null) {
+                    TokenResponse refreshedToken = refreshToken(tokenInfo.getRefreshToken(), traceId);
+                    if (refreshedToken != null && refreshedToken.getAccessToken() != null) {
+                        storeRenewedToken(refreshedToken);
+                        LOG.info("Token renewed with refresh token for client: {}, traceId: {}", clientId, traceId);
+                        return refreshedToken.getAccessToken();
+                    }
+                }
+                
+                TokenResponse inlineToken = fetchNewToken(traceId);
+                if (inlineToken != null && inlineToken.getAccessToken() != null) {
+                    storeTokenFromCallback(inlineToken);
+                    LOG.info("Token received inline for client: {}, traceId: {}", clientId, traceId);
+                    return inlineToken.getAccessToken();
+                }
                 
-                // Wait a short time for callback to arrive
+                // Older token services ignore the inline mode and deliver via callback, so wait for it
                 // This is a simplified approach for testing
                 // In a production environment, you might want to use a more robust mechanism
                 int maxWaitAttempts = 10;
@@ -114,15 +128,14 @@ public class TokenService {
     private TokenResponse fetchNewToken(String traceId) {
         try {
             TokenRequest tokenRequest = new TokenRequest(clientId, clientSecret, "client_credentials", scope);
+            tokenRequest.setResponseMode("inline");
             
             HttpRequest<TokenRequest> request = HttpRequest.POST("/oauth/token", tokenRequest);
-            HttpResponse<String> response = tokenServiceClient.toBlocking().exchange(request, String.class);
+            HttpResponse<TokenResponse> response = tokenServiceClient.toBlocking().exchange(request, TokenResponse.class);
             
             if (response.getStatus().getCode() >= 200 && response.getStatus().getCode() < 300) {
-                LOG.info("Token request initiated successfully, token will be delivered via callback, traceId: {}", traceId);
-                // Token will be delivered via callback, return null for now
-                // The actual token will be stored via storeTokenFromCallback method
-                return null;
+                LOG.info("Token request completed successfully, traceId: {}", traceId);
+                return response.body();
             } else {
                 LOG.error("Failed to initiate token request, status: {}, traceId: {}", response.getStatus().getCode(), traceId);
                 return null;
@@ -133,6 +146,21 @@ public class TokenService {
         }
     }
     
+    private TokenResponse refreshToken(String refreshToken, String traceId) {
+        try {
+            TokenRequest tokenRequest = new TokenRequest(clientId, clientSecret, "refresh_token", scope);
+            tokenRequest.setRefreshToken(refreshToken);
+            tokenRequest.setResponseMode("inline");
+            
+            HttpRequest<TokenRequest> request = HttpRequest.POST("/oauth/token", tokenRequest);
+            HttpResponse<TokenResponse> response = tokenServiceClient.toBlocking().exchange(request, TokenResponse.class);
+            return response.body();
+        } catch (Exception e) {
+            LOG.warn("Refresh token rejected, falling back to client credentials, traceId: {}", traceId, e);
+            return null;
+        }
+    }
+    
     public void invalidateToken() {
         String traceId = UUID.randomUUID().toString();
         MDC.put("traceId", traceId);
@@ -151,8 +179,9 @@ public class TokenService {
         
         try {
             long expirationTime = System.currentTimeMillis() + (tokenResponse.getExpiresIn() * 1000);
-            TokenInfo tokenInfo = new TokenInfo(tokenResponse.getAccessToken(), expirationTime);
-            tokenCache.put(clientId, tokenInfo);
+            TokenInfo tokenInfo = new TokenInfo(tokenResponse.getAccessToken(), expirationTime, tokenResponse.getRefreshToken());
+            // redelivered callbacks can arrive after a newer token, so keep whichever lives longer
+            tokenCache.merge(clientId, tokenInfo, TokenInfo::newer);
             LOG.info("Token stored from callback for client: {}, expires at: {}, traceId: {}", 
                     clientId, expirationTime, traceId);
         } catch (Exception e) {
@@ -162,13 +191,42 @@ public class TokenService {
         }
     }
     
+    // the refresh token that paid for this renewal is spent, so it is replaced even when no successor came back
+    private void storeRenewedToken(TokenResponse tokenResponse) {
+        long expirationTime = System.currentTimeMillis() + (tokenResponse.getExpiresIn() * 1000);
+        TokenInfo tokenInfo = new TokenInfo(tokenResponse.getAccessToken(), expirationTime, tokenResponse.getRefreshToken());
+        tokenCache.merge(clientId, tokenInfo, TokenInfo::renewed);
+    }
+    
     public static class TokenInfo {
         private final String accessToken;
         private final long expirationTime;
+        private final String refreshToken;
         
         public TokenInfo(String accessToken, long expirationTime) {
+            this(accessToken, expirationTime, null);
+        }
+        
+        public TokenInfo(String accessToken, long expirationTime, String refreshToken) {
             this.accessToken = accessToken;
             this.expirationTime = expirationTime;
+            this.refreshToken = refreshToken;
+        }
+        
+        // pushed tokens carry no refresh token, so the newest one we were handed is kept alongside
+        static TokenInfo newer(TokenInfo current, TokenInfo received) {
+            TokenInfo winner = received.expirationTime >= current.expirationTime ? received : current;
+            String refreshToken = received.refreshToken != null ? received.refreshToken : current.refreshToken;
+            return winner.refreshToken == refreshToken ? winner 
+                    : new TokenInfo(winner.accessToken, winner.expirationTime, refreshToken);
+        }
+        
+        // a renewal response without a refresh token means the token service could not store one; the spent token
+        // would only trip reuse detection on the next renewal, so it is dropped rather than kept
+        static TokenInfo renewed(TokenInfo current, TokenInfo received) {
+            TokenInfo winner = received.expirationTime >= current.expirationTime ? received : current;
+            return winner.refreshToken == received.refreshToken ? winner
+                    : new TokenInfo(winner.accessToken, winner.expirationTime, received.refreshToken);
         }
         
         public String getAccessToken() {
@@ -178,5 +236,9 @@ public class TokenService {
         public long getExpirationTime() {
             return expirationTime;
         }
+        
+        public String getRefreshToken() {
+            return refreshToken;
+        }
     }
 }
@@ -0,0 +1,84 @@
+package com.example.dataclientservice.controller;
+
+import com.example.dataclientservice.dto.Product;
+import com.example.dataclientservice.service.DataQueryServiceClient;
+import com.example.dataclientservice.service.TokenService;
+import io.micronaut.http.HttpRequest;
+import io.micronaut.http.HttpResponse;
+import io.micronaut.http.HttpStatus;
+import io.micronaut.http.client.HttpClient;
+import io.micronaut.http.client.annotation.Client;
+import io.micronaut.test.annotation.MockBean;
+import io.micronaut.test.extensions.junit5.annotation.MicronautTest;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.mockito.Mockito;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@MicronautTest
+class BlockingPathExecutorTest {
+
+    // static, since the mock beans may be built on a different test instance than the one running
+    private static final AtomicReference<String> BLOCKING_THREAD = new AtomicReference<>();
+
+    @Inject
+    @Client("/")
+    private HttpClient httpClient;
+
+    @MockBean(DataQueryServiceClient.class)
+    DataQueryServiceClient dataQueryServiceClient() {
+        DataQueryServiceClient client = Mockito.mock(DataQueryServiceClient.class);
+        when(client.getProductById(anyLong())).thenAnswer(invocation -> {
+            BLOCKING_THREAD.set(Thread.currentThread().getName());
+            Product product = new Product();
+            product.setId(invocation.getArgument(0));
+            product.setName("product");
+            return product;
+        });
+        return client;
+    }
+
+    @MockBean(TokenService.class)
+    TokenService tokenService() {
+        TokenService tokenService = Mockito.mock(TokenService.class);
+        when(tokenService.getAccessToken()).thenAnswer(invocation -> {
+            BLOCKING_THREAD.set(Thread.currentThread().getName());
+            return "a".repeat(64);
+        });
+        return tokenService;
+    }
+
+    @Test
+    @DisplayName("Should call data-query-service through toBlocking() on the bounded request pool, not the event loop")
+    void testDataQueryCallOnRequestExecutor() {
+        HttpResponse<Product> response = httpClient.toBlocking().exchange(
+                HttpRequest.GET("/api/v1/products/7"), Product.class);
+
+        assertEquals(HttpStatus.OK, response.getStatus());
+        assertRequestPoolThread(BLOCKING_THREAD.get());
+    }
+
+    @Test
+    @DisplayName("Should run the token acquisition wait on the bounded request pool, not the event loop")
+    @SuppressWarnings("rawtypes")
+    void testTokenAcquisitionOnRequestExecutor() {
+        HttpResponse<Map> response = httpClient.toBlocking().exchange(HttpRequest.GET("/api/v1/token"), Map.class);
+
+        assertEquals(HttpStatus.OK, response.getStatus());
+        assertRequestPoolThread(BLOCKING_THREAD.get());
+    }
+
+    // virtual threads are opt-in, so the default configuration runs on the platform pool
+    private static void assertRequestPoolThread(String threadName) {
+        assertNotNull(threadName);
+        assertTrue(threadName.startsWith("request-"), threadName);
+        assertFalse(threadName.startsWith("request-vt-"), threadName);
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.dataclientservice.controller;
+
+import com.example.dataclientservice.dto.TokenResponse;
+import com.example.dataclientservice.service.TokenService;
+import io.micronaut.http.HttpRequest;
+import io.micronaut.http.HttpResponse;
+import io.micronaut.http.HttpStatus;
+import io.micronaut.http.client.HttpClient;
+import io.micronaut.http.client.annotation.Client;
+import io.micronaut.test.extensions.junit5.annotation.MicronautTest;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@MicronautTest
+class CallbackControllerTest {
+
+    @Inject
+    @Client("/")
+    private HttpClient httpClient;
+
+    @Inject
+    private TokenService tokenService;
+
+    @BeforeEach
+    void setUp() {
+        tokenService.invalidateToken();
+    }
+
+    @Test
+    @DisplayName("Should store every token of a batch callback and keep the longest-lived one")
+    void testReceiveTokenBatch() {
+        List<TokenResponse> batch = List.of(token("batch-token-short", 900L), token("batch-token-long", 3600L));
+
+        HttpResponse<String> response = httpClient.toBlocking().exchange(
+                HttpRequest.POST("/callback/batch", batch), String.class);
+
+        assertEquals(HttpStatus.OK, response.getStatus());
+        assertEquals("Tokens received successfully", response.body());
+        // served from the cache, so no token-service request is needed
+        assertEquals("batch-token-long", tokenService.getAccessToken());
+    }
+
+    @Test
+    @DisplayName("Should skip batch tokens whose positional idempotency key was already delivered")
+    void testBatchDeduplicatesByKey() {
+        String redelivered = UUID.randomUUID().toString();
+        httpClient.toBlocking().exchange(HttpRequest.POST("/callback/batch", 
+                        List.of(token("batch-token-first", 900L), token("batch-token-other", 900L)))
+                .header("Idempotency-Key", redelivered + "," + UUID.randomUUID()), String.class);
+        tokenService.invalidateToken();
+
+        // the redelivered key sits first, so only the second token is new
+        HttpResponse<String> response = httpClient.toBlocking().exchange(HttpRequest.POST("/callback/batch", 
+                        List.of(token("batch-token-duplicate", 3600L), token("batch-token-fresh", 900L)))
+                .header("Idempotency-Key", redelivered + "," + UUID.randomUUID()), String.class);
+
+        assertEquals(HttpStatus.OK, response.getStatus());
+        assertEquals("batch-token-fresh", tokenService.getAccessToken());
+    }
+
+    private static TokenResponse token(String accessToken, long expiresIn) {
+        TokenResponse token = new TokenResponse();
+        token.setAccessToken(accessToken);
+        token.setTokenType("Bearer");
+        token.setExpiresIn(expiresIn);
+        token.setScope("read write");
+        return token;
+    }
+}
@@ -103,4 +103,23 @@ class TokenServiceTest {
         assertEquals(token1, token2);
         verify(tokenServiceClient.toBlocking(), times(1)).exchange(any(HttpRequest.class), any(Class.class));
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Should keep the refresh token across pushed tokens but drop a spent one after renewal")
+    void testRenewalDropsSpentRefreshToken() {
+        TokenService.TokenInfo current = new TokenService.TokenInfo("old-access", 1_000L, "refresh-1");
+
+        // a pushed token never carries a refresh token, the unspent one stays usable
+        TokenService.TokenInfo pushed = TokenService.TokenInfo.newer(current, new TokenService.TokenInfo("pushed", 2_000L));
+        assertEquals("pushed", pushed.getAccessToken());
+        assertEquals("refresh-1", pushed.getRefreshToken());
+
+        // refresh-1 paid for this renewal, but the token service came back without a successor
+        TokenService.TokenInfo renewed = TokenService.TokenInfo.renewed(current, new TokenService.TokenInfo("renewed", 2_000L));
+        assertEquals("renewed", renewed.getAccessToken());
+        assertNull(renewed.getRefreshToken());
+
+        TokenService.TokenInfo rotated = TokenService.TokenInfo.renewed(current, new TokenService.TokenInfo("renewed", 2_000L, "refresh-2"));
+        assertEquals("refresh-2", rotated.getRefreshToken());
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.dataqueryservice.dto;
+
+import io.micronaut.core.annotation.Introspected;
+
+@Introspected
+public class RevocationEntry {
+    
+    private long key;
+    private long expiresAt;
+    
+    public RevocationEntry() {
+    }
+    
+    public RevocationEntry(long key, long expiresAt) {
+        this.key = key;
+        this.expiresAt = expiresAt;
+    }
+    
+    public long getKey() {
+        return key;
+    }
+    
+    public void setKey(long key) {
+        this.key = key;
+    }
+    
+    public long getExpiresAt() {
+        return expiresAt;
+    }
+    
+    public void setExpiresAt(long expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.dataqueryservice.dto;
+
+import io.micronaut.core.annotation.Introspected;
+
+import java.util.List;
+
+@Introspected
+public class RevocationFeedResponse {
+    
+    private String epoch;
+    private long sequence;
+    private boolean snapshot;
+    private boolean hasMore;
+    private List<RevocationEntry> entries;
+    private String cursor;
+    private long offset;
+    
+    public RevocationFeedResponse() {
+    }
+    
+    public RevocationFeedResponse(String epoch, long sequence, boolean snapshot, boolean hasMore, List<RevocationEntry> entries) {
+        this.epoch = epoch;
+        this.sequence = sequence;
+        this.snapshot = snapshot;
+        this.hasMore = hasMore;
+        this.entries = entries;
+    }
+    
+    public RevocationFeedResponse(String epoch, long sequence, boolean snapshot, boolean hasMore, List<RevocationEntry> entries,
+                                  String cursor, long offset) {
+        this(epoch, sequence, snapshot, hasMore, entries);
+        this.cursor = cursor;
+        this.offset = offset;
+    }
+    
+    public String getEpoch() {
+        return epoch;
+    }
+    
+    public void setEpoch(String epoch) {
+        this.epoch = epoch;
+    }
+    
+    public long getSequence() {
+        return sequence;
+    }
+    
+    public void setSequence(long sequence) {
+        this.sequence = sequence;
+    }
+    
+    public boolean isSnapshot() {
+        return snapshot;
+    }
+    
+    public void setSnapshot(boolean snapshot) {
+        this.snapshot = snapshot;
+    }
+    
+    public boolean isHasMore() {
+        return hasMore;
+    }
+    
+    public void setHasMore(boolean hasMore) {
+        this.hasMore = hasMore;
+    }
+    
+    public List<RevocationEntry> getEntries() {
+        return entries;
+    }
+    
+    public void setEntries(List<RevocationEntry> entries) {
+        this.entries = entries;
+    }
+    
+    public String getCursor() {
+        return cursor;
+    }
+    
+    public void setCursor(String cursor) {
+        this.cursor = cursor;
+    }
+    
+    public long getOffset() {
+        return offset;
+    }
+    
+    public void setOffset(long offset) {
+        this.offset = offset;
+    }
+}
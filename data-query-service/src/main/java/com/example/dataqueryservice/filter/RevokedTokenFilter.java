@@ -0,0 +1,38 @@
+package com.example.dataqueryservice.filter;
+
+import com.example.dataqueryservice.service.RevokedTokenStore;
+import io.micronaut.core.annotation.Nullable;
+import io.micronaut.http.HttpRequest;
+import io.micronaut.http.HttpResponse;
+import io.micronaut.http.annotation.RequestFilter;
+import io.micronaut.http.annotation.ServerFilter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+@ServerFilter("/api/**")
+public class RevokedTokenFilter {
+    
+    private static final Logger LOG = LoggerFactory.getLogger(RevokedTokenFilter.class);
+    private static final String BEARER_PREFIX = "Bearer ";
+    
+    private final RevokedTokenStore revokedTokenStore;
+    
+    public RevokedTokenFilter(RevokedTokenStore revokedTokenStore) {
+        this.revokedTokenStore = revokedTokenStore;
+    }
+    
+    @RequestFilter
+    @Nullable
+    public HttpResponse<?> rejectRevokedTokens(HttpRequest<?> request) {
+        String authorization = request.getHeaders().getAuthorization().orElse(null);
+        if (authorization == null || !authorization.startsWith(BEARER_PREFIX)) {
+            return null;
+        }
+        
+        if (revokedTokenStore.isRevoked(authorization.substring(BEARER_PREFIX.length()))) {
+            LOG.warn("Rejected revoked token for path: {}", request.getPath());
+            return HttpResponse.unauthorized();
+        }
+        return null;
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.dataqueryservice.security;
+
+import com.example.dataqueryservice.service.CwtTokenDecoder;
+import io.micronaut.core.annotation.Nullable;
+import io.micronaut.http.HttpRequest;
+import io.micronaut.security.authentication.Authentication;
+import io.micronaut.security.token.validator.TokenValidator;
+import jakarta.inject.Singleton;
+import org.reactivestreams.Publisher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Mono;
+
+import java.util.HashMap;
+import java.util.Map;
+
+// Authenticates bearer tokens issued with the cwt profile; JWTs are left to the micronaut-security-jwt validator
+@Singleton
+public class CwtTokenValidator implements TokenValidator<HttpRequest<?>> {
+    
+    private static final Logger LOG = LoggerFactory.getLogger(CwtTokenValidator.class);
+    
+    private final CwtTokenDecoder cwtTokenDecoder;
+    
+    public CwtTokenValidator(CwtTokenDecoder cwtTokenDecoder) {
+        this.cwtTokenDecoder = cwtTokenDecoder;
+    }
+    
+    @Override
+    public Publisher<Authentication> validateToken(String token, @Nullable HttpRequest<?> request) {
+        if (!CwtTokenDecoder.isCwt(token)) {
+            return Mono.empty();
+        }
+        
+        CwtTokenDecoder.CwtClaims claims = cwtTokenDecoder.decode(token);
+        if (claims == null) {
+            LOG.debug("CWT verification failed");
+            return Mono.empty();
+        }
+        if (claims.getExpiresAt() * 1000 <= System.currentTimeMillis()) {
+            LOG.debug("CWT expired for subject: {}", claims.getSubject());
+            return Mono.empty();
+        }
+        
+        Map<String, Object> attributes = new HashMap<>();
+        attributes.put("sub", claims.getSubject());
+        attributes.put("scope", claims.getScope());
+        attributes.put("iat", claims.getIssuedAt());
+        attributes.put("exp", claims.getExpiresAt());
+        return Mono.just(Authentication.build(claims.getSubject(), attributes));
+    }
+}
@@ -0,0 +1,270 @@
+package com.example.dataqueryservice.service;
+
+import io.micronaut.context.annotation.Property;
+import jakarta.inject.Singleton;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Base64;
+
+// Fast-path decoder for the cwt token profile issued by token-service: a CBOR Web Token (RFC 8392) in a
+// COSE_Mac0 envelope with HMAC 256/256. Only the exact layout token-service emits is accepted, so verifying
+// costs one HMAC over the payload and the claims are read in a single pass without a JSON parser.
+@Singleton
+public class CwtTokenDecoder {
+    
+    public static final class CwtClaims {
+        private final String subject;
+        private final String scope;
+        private final long issuedAt;
+        private final long expiresAt;
+        
+        CwtClaims(String subject, String scope, long issuedAt, long expiresAt) {
+            this.subject = subject;
+            this.scope = scope;
+            this.issuedAt = issuedAt;
+            this.expiresAt = expiresAt;
+        }
+        
+        public String getSubject() {
+            return subject;
+        }
+        
+        public String getScope() {
+            return scope;
+        }
+        
+        public long getIssuedAt() {
+            return issuedAt;
+        }
+        
+        public long getExpiresAt() {
+            return expiresAt;
+        }
+    }
+    
+    private static final String MAC_ALGORITHM = "HmacSHA256";
+    private static final int TAG_LENGTH = 32;
+    
+    private static final int CLAIM_SUB = 2;
+    private static final int CLAIM_EXP = 4;
+    private static final int CLAIM_IAT = 6;
+    private static final int CLAIM_CTI = 7;
+    private static final int CLAIM_SCOPE = 9;
+    
+    // COSE_Mac0 tag (17), 4-element array, protected header {1: 5} (alg HMAC 256/256) as bstr, empty unprotected map
+    private static final byte[] ENVELOPE_PREFIX = {(byte) 0xD1, (byte) 0x84, 0x43, (byte) 0xA1, 0x01, 0x05, (byte) 0xA0};
+    // MAC_structure ["MAC0", protected, external_aad (empty), payload] up to the payload
+    private static final byte[] MAC_STRUCTURE_PREFIX = {(byte) 0x84, 0x64, 'M', 'A', 'C', '0', 0x43, (byte) 0xA1, 0x01, 0x05, 0x40};
+    
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+    
+    private final ThreadLocal<Mac> macs;
+    
+    public CwtTokenDecoder(@Property(name = "micronaut.security.token.jwt.signatures.secret.generator.secret", defaultValue = "pleaseChangeThisSecretForASecretKeyForJWTTokenGeneration") String secret) {
+        SecretKeySpec key = new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), MAC_ALGORITHM);
+        this.macs = ThreadLocal.withInitial(() -> {
+            try {
+                Mac mac = Mac.getInstance(MAC_ALGORITHM);
+                mac.init(key);
+                return mac;
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException("Failed to initialize CWT MAC", e);
+            }
+        });
+    }
+    
+    // JWS compact serialization always contains dots, base64url never does
+    public static boolean isCwt(String token) {
+        return token != null && !token.isEmpty() && token.indexOf('.') < 0;
+    }
+    
+    // null when the token is malformed or its tag does not verify; expiry is left to the caller
+    public CwtClaims decode(String token) {
+        byte[] bytes;
+        try {
+            bytes = DECODER.decode(token);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        Reader reader = new Reader(bytes);
+        for (byte expected : ENVELOPE_PREFIX) {
+            if (!reader.hasRemaining() || reader.next() != expected) {
+                return null;
+            }
+        }
+        int payloadLength = reader.length(2);
+        int payloadOffset = reader.position;
+        if (payloadLength < 0 || !reader.skip(payloadLength)) {
+            return null;
+        }
+        if (reader.head(2) != TAG_LENGTH || reader.remaining() != TAG_LENGTH) {
+            return null;
+        }
+        byte[] expectedTag = tag(bytes, payloadOffset, payloadLength);
+        byte[] actualTag = new byte[TAG_LENGTH];
+        System.arraycopy(bytes, reader.position, actualTag, 0, TAG_LENGTH);
+        if (!MessageDigest.isEqual(expectedTag, actualTag)) {
+            return null;
+        }
+        return readClaims(new Reader(bytes, payloadOffset, payloadOffset + payloadLength));
+    }
+    
+    private static CwtClaims readClaims(Reader reader) {
+        long entries = reader.head(5);
+        String subject = null;
+        String scope = null;
+        long issuedAt = 0;
+        long expiresAt = 0;
+        for (long i = 0; i < entries; i++) {
+            long key = reader.head(0);
+            if (key == CLAIM_SUB) {
+                subject = reader.text();
+            } else if (key == CLAIM_SCOPE) {
+                scope = reader.text();
+            } else if (key == CLAIM_EXP) {
+                expiresAt = reader.head(0);
+            } else if (key == CLAIM_IAT) {
+                issuedAt = reader.head(0);
+            } else if (key == CLAIM_CTI) {
+                reader.skip(reader.length(2));
+            } else {
+                return null;
+            }
+            if (reader.failed) {
+                return null;
+            }
+        }
+        if (subject == null || expiresAt == 0) {
+            return null;
+        }
+        return new CwtClaims(subject, scope, issuedAt, expiresAt);
+    }
+    
+    private byte[] tag(byte[] payload, int offset, int length) {
+        Mac mac = macs.get();
+        mac.update(MAC_STRUCTURE_PREFIX);
+        ByteArrayOutputStream head = new ByteArrayOutputStream(9);
+        writeHead(head, 2, length);
+        mac.update(head.toByteArray());
+        mac.update(payload, offset, length);
+        return mac.doFinal();
+    }
+    
+    private static void writeHead(ByteArrayOutputStream out, int majorType, long value) {
+        int major = majorType << 5;
+        if (value < 24) {
+            out.write(major | (int) value);
+        } else if (value < 0x100) {
+            out.write(major | 24);
+            out.write((int) value);
+        } else if (value < 0x10000) {
+            out.write(major | 25);
+            out.write((int) (value >>> 8));
+            out.write((int) value);
+        } else if (value < 0x100000000L) {
+            out.write(major | 26);
+            for (int shift = 24; shift >= 0; shift -= 8) {
+                out.write((int) (value >>> shift));
+            }
+        } else {
+            out.write(major | 27);
+            for (int shift = 56; shift >= 0; shift -= 8) {
+                out.write((int) (value >>> shift));
+            }
+        }
+    }
+    
+    private static final class Reader {
+        private final byte[] bytes;
+        private final int limit;
+        private int position;
+        private boolean failed;
+        
+        Reader(byte[] bytes) {
+            this(bytes, 0, bytes.length);
+        }
+        
+        Reader(byte[] bytes, int position, int limit) {
+            this.bytes = bytes;
+            this.position = position;
+            this.limit = limit;
+        }
+        
+        boolean hasRemaining() {
+            return position < limit;
+        }
+        
+        int remaining() {
+            return limit - position;
+        }
+        
+        byte next() {
+            return bytes[position++];
+        }
+        
+        boolean skip(int count) {
+            if (count < 0 || count > remaining()) {
+                failed = true;
+                return false;
+            }
+            position += count;
+            return true;
+        }
+        
+        // reads an item head of the given major type and returns its argument, or -1 on mismatch
+        long head(int majorType) {
+            if (failed || !hasRemaining()) {
+                failed = true;
+                return -1;
+            }
+            int initial = next() & 0xFF;
+            if (initial >>> 5 != majorType) {
+                failed = true;
+                return -1;
+            }
+            int info = initial & 0x1F;
+            if (info < 24) {
+                return info;
+            }
+            int size = info == 24 ? 1 : info == 25 ? 2 : info == 26 ? 4 : info == 27 ? 8 : -1;
+            if (size < 0 || size > remaining()) {
+                failed = true;
+                return -1;
+            }
+            long value = 0;
+            for (int i = 0; i < size; i++) {
+                value = (value << 8) | (next() & 0xFF);
+            }
+            if (value < 0) {
+                failed = true;
+                return -1;
+            }
+            return value;
+        }
+        
+        // reads a length head and rejects it while still a long, so a huge argument cannot wrap into a valid int
+        int length(int majorType) {
+            long length = head(majorType);
+            if (failed || length > remaining()) {
+                failed = true;
+                return -1;
+            }
+            return (int) length;
+        }
+        
+        String text() {
+            int length = length(3);
+            if (failed) {
+                return null;
+            }
+            String value = new String(bytes, position, length, StandardCharsets.UTF_8);
+            position += length;
+            return value;
+        }
+    }
+}
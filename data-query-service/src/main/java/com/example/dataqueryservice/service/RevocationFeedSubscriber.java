@@ -0,0 +1,95 @@
+package com.example.dataqueryservice.service;
+
+import com.example.dataqueryservice.dto.RevocationFeedResponse;
+import io.micronaut.context.annotation.Context;
+import io.micronaut.context.annotation.Property;
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.http.HttpRequest;
+import io.micronaut.http.client.HttpClient;
+import io.micronaut.http.client.annotation.Client;
+import io.micronaut.http.uri.UriBuilder;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+@Context
+@Requires(property = "token.revocation.feed.enabled", notEquals = "false")
+public class RevocationFeedSubscriber {
+    
+    private static final Logger LOG = LoggerFactory.getLogger(RevocationFeedSubscriber.class);
+    
+    private final HttpClient tokenServiceClient;
+    private final RevokedTokenStore revokedTokenStore;
+    private final int waitSeconds;
+    private final long retryDelayMs;
+    private final long maxRetryDelayMs;
+    private final ExecutorService pollExecutor;
+    private volatile boolean running = true;
+    private String epoch = "";
+    private long sequence;
+    private String cursor = "";
+    
+    public RevocationFeedSubscriber(@Client("${client.token-service.url}") HttpClient tokenServiceClient,
+                                    RevokedTokenStore revokedTokenStore,
+                                    @Property(name = "token.revocation.feed.wait", defaultValue = "25") int waitSeconds,
+                                    @Property(name = "token.revocation.feed.retry-delay", defaultValue = "1000") long retryDelayMs,
+                                    @Property(name = "token.revocation.feed.max-retry-delay", defaultValue = "30000") long maxRetryDelayMs) {
+        this.tokenServiceClient = tokenServiceClient;
+        this.revokedTokenStore = revokedTokenStore;
+        this.waitSeconds = waitSeconds;
+        this.retryDelayMs = retryDelayMs;
+        this.maxRetryDelayMs = maxRetryDelayMs;
+        this.pollExecutor = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "revocation-feed");
+            thread.setDaemon(true);
+            return thread;
+        });
+        pollExecutor.submit(this::pollLoop);
+        LOG.info("Revocation feed subscriber started with wait: {}s", waitSeconds);
+    }
+    
+    private void pollLoop() {
+        long backoff = retryDelayMs;
+        while (running) {
+            try {
+                HttpRequest<?> request = HttpRequest.GET(UriBuilder.of("/api/v1/revocations")
+                        .queryParam("epoch", epoch)
+                        .queryParam("since", sequence)
+                        .queryParam("wait", waitSeconds)
+                        .queryParam("cursor", cursor)
+                        .build());
+                RevocationFeedResponse response = tokenServiceClient.toBlocking()
+                        .retrieve(request, RevocationFeedResponse.class);
+                
+                revokedTokenStore.apply(response);
+                epoch = response.getEpoch();
+                sequence = response.getSequence();
+                cursor = response.getCursor() != null ? response.getCursor() : "";
+                backoff = retryDelayMs;
+            } catch (Exception e) {
+                if (!running) {
+                    return;
+                }
+                // keep serving the last known set while token-service is unreachable
+                LOG.warn("Revocation feed poll failed, retrying in {}ms: {}", backoff, e.getMessage());
+                try {
+                    Thread.sleep(backoff);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                backoff = Math.min(backoff * 2, maxRetryDelayMs);
+            }
+        }
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        pollExecutor.shutdownNow();
+        LOG.info("Revocation feed subscriber shutdown");
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.dataqueryservice.service;
+
+import com.example.dataqueryservice.dto.RevocationEntry;
+import com.example.dataqueryservice.dto.RevocationFeedResponse;
+import jakarta.inject.Singleton;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Singleton
+public class RevokedTokenStore {
+    
+    private static final Logger LOG = LoggerFactory.getLogger(RevokedTokenStore.class);
+    private static final long PURGE_INTERVAL_MS = 60_000;
+    
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    });
+    
+    // revocation key -> token expiry in ms, keyed the same way as token-service's blacklist
+    private volatile Map<Long, Long> revokedTokens = new ConcurrentHashMap<>();
+    private volatile long lastPurgeAt;
+    // pages of a snapshot in progress; only the feed thread touches it
+    private Map<Long, Long> staging;
+    
+    public boolean isRevoked(String token) {
+        return revokedTokens.containsKey(keyOf(token));
+    }
+    
+    public void apply(RevocationFeedResponse response) {
+        long now = System.currentTimeMillis();
+        if (response.isSnapshot()) {
+            // the first page (re)starts the snapshot; the current set keeps serving until the last page is in
+            if (response.getOffset() == 0 || staging == null) {
+                staging = new ConcurrentHashMap<>(Math.max(16, response.getEntries().size() * 2));
+            }
+            for (RevocationEntry entry : response.getEntries()) {
+                if (entry.getExpiresAt() > now) {
+                    staging.put(entry.getKey(), entry.getExpiresAt());
+                }
+            }
+            if (response.isHasMore()) {
+                return;
+            }
+            Map<Long, Long> replacement = staging;
+            staging = null;
+            revokedTokens = replacement;
+            lastPurgeAt = now;
+            LOG.info("Revocation snapshot applied with {} entries, epoch: {}, sequence: {}", 
+                    replacement.size(), response.getEpoch(), response.getSequence());
+            return;
+        }
+        
+        Map<Long, Long> current = revokedTokens;
+        for (RevocationEntry entry : response.getEntries()) {
+            current.merge(entry.getKey(), entry.getExpiresAt(), Math::max);
+        }
+        if (now - lastPurgeAt >= PURGE_INTERVAL_MS) {
+            current.values().removeIf(expiresAt -> expiresAt <= now);
+            lastPurgeAt = now;
+        }
+        if (!response.getEntries().isEmpty()) {
+            LOG.debug("Applied {} revocations up to sequence: {}", response.getEntries().size(), response.getSequence());
+        }
+    }
+    
+    public int size() {
+        return revokedTokens.size();
+    }
+    
+    static long keyOf(String token) {
+        byte[] hash = SHA_256.get().digest(token.getBytes(StandardCharsets.UTF_8));
+        long key = ByteBuffer.wrap(hash).getLong(0);
+        // token-service reserves zero as its empty-slot marker and stores it as one
+        return key == 0L ? 1L : key;
+    }
+}
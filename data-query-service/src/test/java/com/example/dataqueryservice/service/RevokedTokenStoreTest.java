@@ -0,0 +1,64 @@
+package com.example.dataqueryservice.service;
+
+import com.example.dataqueryservice.dto.RevocationEntry;
+import com.example.dataqueryservice.dto.RevocationFeedResponse;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RevokedTokenStoreTest {
+
+    private final long expiresAt = System.currentTimeMillis() + 60_000;
+
+    @Test
+    @DisplayName("Should reject tokens added through feed deltas")
+    void testDeltaAddsRevocations() {
+        RevokedTokenStore store = new RevokedTokenStore();
+        long key = RevokedTokenStore.keyOf("token-a");
+
+        store.apply(new RevocationFeedResponse("epoch-1", 1, false, false, List.of(new RevocationEntry(key, expiresAt))));
+
+        assertTrue(store.isRevoked("token-a"));
+        assertFalse(store.isRevoked("token-b"));
+    }
+
+    @Test
+    @DisplayName("Should replace the local set when a snapshot arrives")
+    void testSnapshotReplacesRevocations() {
+        RevokedTokenStore store = new RevokedTokenStore();
+        store.apply(new RevocationFeedResponse("epoch-1", 1, false, false,
+                List.of(new RevocationEntry(RevokedTokenStore.keyOf("token-a"), expiresAt))));
+
+        store.apply(new RevocationFeedResponse("epoch-2", 5, true, false, List.of(
+                new RevocationEntry(RevokedTokenStore.keyOf("token-b"), expiresAt),
+                new RevocationEntry(RevokedTokenStore.keyOf("token-c"), System.currentTimeMillis() - 1000))));
+
+        assertFalse(store.isRevoked("token-a"));
+        assertTrue(store.isRevoked("token-b"));
+        assertFalse(store.isRevoked("token-c"));
+        assertEquals(1, store.size());
+    }
+
+    @Test
+    @DisplayName("Should keep the current set until the last page of a snapshot arrives")
+    void testPagedSnapshot() {
+        RevokedTokenStore store = new RevokedTokenStore();
+        store.apply(new RevocationFeedResponse("epoch-1", 1, false, false,
+                List.of(new RevocationEntry(RevokedTokenStore.keyOf("token-a"), expiresAt))));
+
+        store.apply(new RevocationFeedResponse("epoch-2", 5, true, true,
+                List.of(new RevocationEntry(RevokedTokenStore.keyOf("token-b"), expiresAt)), "snapshot:1", 0));
+        assertTrue(store.isRevoked("token-a"));
+        assertFalse(store.isRevoked("token-b"));
+
+        store.apply(new RevocationFeedResponse("epoch-2", 5, true, false,
+                List.of(new RevocationEntry(RevokedTokenStore.keyOf("token-c"), expiresAt)), null, 1));
+        assertFalse(store.isRevoked("token-a"));
+        assertTrue(store.isRevoked("token-b"));
+        assertTrue(store.isRevoked("token-c"));
+        assertEquals(2, store.size());
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.tokenservice.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+// Callback issuance of `size` tokens end to end, with the outbox on disk, until the local stub has received all of them:
+//   batch  - one POST /oauth/token/batch; the tokens share one outbox fsync and one POST to <callback>/batch
+//   single - `size` POST /oauth/token in callback mode; one fsync and one callback request per token
+// One operation is a whole group, so tokens per second is the reported ops/s times size.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+@Threads(1)
+public class BatchCallbackBenchmark {
+    
+    @Param({"batch", "single"})
+    public String path;
+    
+    @Param({"10", "100"})
+    public int size;
+    
+    private Path outboxDir;
+    private EmbeddedTokenService tokenService;
+    private CallbackStub callbackStub;
+    private String batchBody;
+    
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        outboxDir = Files.createTempDirectory("batch-callback-bench");
+        tokenService = new EmbeddedTokenService(Map.of(
+                "token.jwt.algorithm", "RS256",
+                "token.callback.outbox.path", outboxDir.resolve("outbox.ndjson").toString()));
+        callbackStub = new CallbackStub(0);
+        tokenService.registerCallback(callbackStub.url());
+        
+        StringBuilder body = new StringBuilder("{\"requests\":[");
+        for (int i = 0; i < size; i++) {
+            body.append(i == 0 ? "" : ",").append("{\"clientId\":\"").append(EmbeddedTokenService.CLIENT_ID)
+                    .append("\",\"clientSecret\":\"").append(EmbeddedTokenService.CLIENT_SECRET)
+                    .append("\",\"scope\":\"read write\"}");
+        }
+        batchBody = body.append("]}").toString();
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        tokenService.close();
+        callbackStub.close();
+        try (Stream<Path> files = Files.walk(outboxDir)) {
+            files.sorted(Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+        }
+    }
+    
+    @Benchmark
+    public void issueGroup() throws Exception {
+        switch (path) {
+            case "batch":
+                expectOk(tokenService.post("/oauth/token/batch", batchBody));
+                break;
+            case "single":
+                for (int i = 0; i < size; i++) {
+                    expectOk(tokenService.requestToken("callback"));
+                }
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown issuance path: " + path);
+        }
+        callbackStub.awaitTokens(size, 30, TimeUnit.SECONDS);
+    }
+    
+    private static void expectOk(HttpResponse<String> response) {
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Token request failed: " + response.statusCode() + " " + response.body());
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.tokenservice.benchmarks;
+
+import com.example.tokenservice.dto.BatchTokenResponse;
+import com.example.tokenservice.dto.TokenRequest;
+import com.example.tokenservice.dto.TokenResponse;
+import com.example.tokenservice.service.BatchTokenService;
+import com.example.tokenservice.service.CallbackOutbox;
+import com.example.tokenservice.service.ClientService;
+import com.example.tokenservice.service.JwtTokenService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// In-process issuance of `size` tokens for `size` distinct clients, without HTTP in the way:
+//   batch  - one BatchTokenService.issueTokens; authentication and signing run in slices across the signing pool
+//   single - what /oauth/token does per request, one entry after another on the calling thread
+// With credentialCache=disabled every entry pays a full PBKDF2 check, the warm-up case for a fleet of clients.
+// One operation is a whole group, so tokens per second is the reported ops/s times size.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+@Threads(1)
+public class BatchIssuanceBenchmark {
+
+    @Param({"batch", "single"})
+    public String path;
+
+    @Param({"32", "256"})
+    public int size;
+
+    @Param({"enabled", "disabled"})
+    public String credentialCache;
+
+    private EmbeddedTokenService tokenService;
+    private CallbackStub callbackStub;
+    private BatchTokenService batchTokenService;
+    private JwtTokenService jwtTokenService;
+    private ClientService clientService;
+    private CallbackOutbox callbackOutbox;
+    private List<TokenRequest> entries;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        tokenService = new EmbeddedTokenService(Map.of(
+                "token.jwt.algorithm", "RS256",
+                "token.client.credential-cache.enabled", "enabled".equals(credentialCache)));
+        callbackStub = new CallbackStub(0);
+        batchTokenService = tokenService.getBean(BatchTokenService.class);
+        jwtTokenService = tokenService.getBean(JwtTokenService.class);
+        clientService = tokenService.getBean(ClientService.class);
+        callbackOutbox = tokenService.getBean(CallbackOutbox.class);
+
+        entries = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            String clientId = "bench-client-" + i;
+            String secret = "bench-secret-" + i;
+            clientService.registerClient(clientId, secret, callbackStub.url(), new String[]{"read", "write"});
+            TokenRequest entry = new TokenRequest();
+            entry.setClientId(clientId);
+            entry.setClientSecret(secret);
+            entry.setScope("read write");
+            entries.add(entry);
+        }
+    }
+
+    @TearDown(Level.Iteration)
+    public void discardDeliveries() {
+        callbackStub.discardReceived();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        tokenService.close();
+        callbackStub.close();
+    }
+
+    @Benchmark
+    public int issueGroup() {
+        switch (path) {
+            case "batch":
+                BatchTokenResponse response = batchTokenService.issueTokens(entries, "benchmark-trace");
+                if (response.getFailed() > 0) {
+                    throw new IllegalStateException("Batch rejected " + response.getFailed() + " of " + size + " entries");
+                }
+                return response.getIssued();
+            case "single":
+                for (TokenRequest entry : entries) {
+                    if (!clientService.validateClient(entry.getClientId(), entry.getClientSecret())) {
+                        throw new IllegalStateException("Client rejected: " + entry.getClientId());
+                    }
+                    TokenResponse token = jwtTokenService.generateToken(entry, "benchmark-trace");
+                    callbackOutbox.deliver(clientService.getCallbackUrl(entry.getClientId()), token, "benchmark-trace");
+                }
+                return size;
+            default:
+                throw new IllegalArgumentException("Unknown issuance path: " + path);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.tokenservice.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.NoBenchmarksException;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+// Runs the selected benchmarks once per thread count with the GC profiler attached, so every result
+// carries gc.alloc.rate.norm (bytes allocated per operation) next to the score.
+// Benchmarks that pin their own thread count with @Threads run once with it instead of being swept.
+// Usage: java -cp target/benchmarks.jar com.example.tokenservice.benchmarks.BenchmarkRunner [regex] [threads,...]
+public class BenchmarkRunner {
+    
+    // keep in sync with the classes annotated @Threads; a sweep would override the count they are designed around
+    private static final String PINNED_THREADS =
+            "\\.(BatchCallbackBenchmark|BatchIssuanceBenchmark|BlockingExecutorBenchmark|TokenRenewalBenchmark)\\.";
+    
+    public static void main(String[] args) throws Exception {
+        String include = args.length > 0 ? args[0] : "com.example.tokenservice.benchmarks.*";
+        String threadCounts = args.length > 1 ? args[1] : "1,4";
+        
+        for (String threads : threadCounts.split(",")) {
+            int count = Integer.parseInt(threads.trim());
+            run(options(include, "target/jmh-result-" + count + "t.json")
+                    .exclude(PINNED_THREADS)
+                    .threads(count));
+        }
+        // JMH ORs includes, so both patterns go into one regex as lookaheads
+        run(options("^(?=.*(?:" + include + "))(?=.*" + PINNED_THREADS + ")", "target/jmh-result-pinned.json"));
+    }
+    
+    private static ChainedOptionsBuilder options(String include, String resultFile) {
+        return new OptionsBuilder()
+                .include(include)
+                .addProfiler(GCProfiler.class)
+                .resultFormat(ResultFormatType.JSON)
+                .result(resultFile);
+    }
+    
+    private static void run(ChainedOptionsBuilder options) throws Exception {
+        try {
+            new Runner(options.build()).run();
+        } catch (NoBenchmarksException e) {
+            // the regex selected only swept or only pinned benchmarks
+        }
+    }
+}
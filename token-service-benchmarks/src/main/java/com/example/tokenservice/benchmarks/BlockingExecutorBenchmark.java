@@ -0,0 +1,96 @@
+package com.example.tokenservice.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+// Load test of the real blocking path: 64 concurrent clients request callback-mode tokens from the embedded service,
+// so every request authenticates the client and fsyncs the outbox on TokenController's request executor.
+//   platform - the default bounded pool of platformThreads platform threads
+//   virtual  - token.execution.virtual-threads=true, one virtual thread per request on a JDK 21+ runtime
+//              (below JDK 21 it falls back to the platform pool and measures the same thing)
+// Raise the load with -t to see where the platform pool starts queueing.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+@Threads(64)
+public class BlockingExecutorBenchmark {
+    
+    @Param({"platform", "virtual"})
+    public String executor;
+    
+    @Param({"200"})
+    public int platformThreads;
+    
+    private Path outboxDir;
+    private EmbeddedTokenService tokenService;
+    private CallbackStub callbackStub;
+    
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        outboxDir = Files.createTempDirectory("blocking-executor-bench");
+        Map<String, Object> overrides = new HashMap<>();
+        overrides.put("token.jwt.algorithm", "RS256");
+        overrides.put("token.callback.outbox.path", outboxDir.resolve("outbox.ndjson").toString());
+        overrides.put("token.execution.platform-threads", platformThreads);
+        switch (executor) {
+            case "platform":
+                break;
+            case "virtual":
+                overrides.put("token.execution.virtual-threads", true);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown executor: " + executor);
+        }
+        tokenService = new EmbeddedTokenService(overrides);
+        callbackStub = new CallbackStub(0);
+        tokenService.registerCallback(callbackStub.url());
+    }
+    
+    @TearDown(Level.Iteration)
+    public void discardDeliveries() {
+        callbackStub.discardReceived();
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        tokenService.close();
+        callbackStub.close();
+        try (Stream<Path> files = Files.walk(outboxDir)) {
+            files.sorted(Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+        }
+    }
+    
+    @Benchmark
+    public int issueWithCallback() throws Exception {
+        HttpResponse<String> response = tokenService.requestToken("callback");
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Token request failed: " + response.statusCode() + " " + response.body());
+        }
+        return response.statusCode();
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.tokenservice.benchmarks;
+
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Local callback receiver with a configurable response delay, standing in for a slow client endpoint.
+// Every request (single or batch) is acknowledged with 200 once the delay has passed.
+final class CallbackStub {
+    
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newCachedThreadPool(r -> {
+        Thread thread = new Thread(r, "callback-stub");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final BlockingQueue<String> received = new LinkedBlockingQueue<>();
+    private final AtomicLong requests = new AtomicLong();
+    
+    CallbackStub(long delayMillis) throws IOException {
+        this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 1024);
+        server.createContext("/callback", exchange -> {
+            String body;
+            try (InputStream in = exchange.getRequestBody()) {
+                body = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            }
+            if (delayMillis > 0) {
+                try {
+                    Thread.sleep(delayMillis);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            exchange.sendResponseHeaders(200, -1);
+            exchange.close();
+            requests.incrementAndGet();
+            received.add(body);
+        });
+        server.setExecutor(executor);
+        server.start();
+    }
+    
+    String url() {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + "/callback";
+    }
+    
+    String awaitDelivery(long timeout, TimeUnit unit) throws InterruptedException {
+        String body = received.poll(timeout, unit);
+        if (body == null) {
+            throw new IllegalStateException("No callback delivery within " + timeout + " " + unit);
+        }
+        return body;
+    }
+    
+    // batch deliveries carry several tokens per request, so count tokens rather than requests
+    void awaitTokens(int count, long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        int tokens = 0;
+        while (tokens < count) {
+            String body = received.poll(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            if (body == null) {
+                throw new IllegalStateException("Only " + tokens + " of " + count + " tokens delivered within " 
+                        + timeout + " " + unit);
+            }
+            for (int at = body.indexOf("\"accessToken\""); at >= 0; at = body.indexOf("\"accessToken\"", at + 1)) {
+                tokens++;
+            }
+        }
+    }
+    
+    long requestCount() {
+        return requests.get();
+    }
+    
+    // benchmarks that never await deliveries drop the bodies between iterations instead of keeping every one
+    void discardReceived() {
+        received.clear();
+    }
+    
+    void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.tokenservice.benchmarks;
+
+import io.micronaut.context.ApplicationContext;
+import io.micronaut.runtime.server.EmbeddedServer;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Starts the real token-service on a random port, so end-to-end benchmarks go through Netty, routing,
+// JSON binding and the controllers exactly like a client would
+final class EmbeddedTokenService {
+    
+    static final String CLIENT_ID = "data-client-service";
+    static final String CLIENT_SECRET = "secret123";
+    
+    private static final Pattern ACCESS_TOKEN = Pattern.compile("\"accessToken\"\\s*:\\s*\"([^\"]+)\"");
+    private static final Pattern REFRESH_TOKEN = Pattern.compile("\"refreshToken\"\\s*:\\s*\"([^\"]+)\"");
+    
+    private final EmbeddedServer server;
+    private final HttpClient httpClient;
+    
+    EmbeddedTokenService(Map<String, Object> overrides) {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("micronaut.server.port", -1);
+        properties.put("micronaut.tracing.jaeger.enabled", false);
+        properties.put("logger.levels.com.example.tokenservice", "WARN");
+        // per-client limits would turn a single-client benchmark into a measurement of the rate limiter
+        properties.put("token.rate-limit.enabled", false);
+        properties.put("token.admission.enabled", false);
+        properties.put("token.audit.path", "");
+        properties.put("token.callback.outbox.path", "");
+        properties.putAll(overrides);
+        this.server = ApplicationContext.run(EmbeddedServer.class, properties);
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+    }
+    
+    <T> T getBean(Class<T> type) {
+        return server.getApplicationContext().getBean(type);
+    }
+    
+    HttpResponse<String> post(String path, String json) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(server.getURL() + path))
+                .header("Content-Type", "application/json")
+                .timeout(Duration.ofSeconds(30))
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build();
+        return httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+    
+    HttpResponse<String> requestToken(String responseMode) throws IOException, InterruptedException {
+        return post("/oauth/token", "{\"clientId\":\"" + CLIENT_ID + "\",\"clientSecret\":\"" + CLIENT_SECRET 
+                + "\",\"scope\":\"read write\",\"responseMode\":\"" + responseMode + "\"}");
+    }
+    
+    HttpResponse<String> refresh(String refreshToken) throws IOException, InterruptedException {
+        return post("/oauth/token", "{\"clientId\":\"" + CLIENT_ID + "\",\"clientSecret\":\"" + CLIENT_SECRET 
+                + "\",\"grantType\":\"refresh_token\",\"refreshToken\":\"" + refreshToken + "\"}");
+    }
+    
+    void registerCallback(String callbackUrl) throws IOException, InterruptedException {
+        HttpResponse<String> response = post("/oauth/register-callback", "{\"clientId\":\"" + CLIENT_ID 
+                + "\",\"clientSecret\":\"" + CLIENT_SECRET + "\",\"callbackUrl\":\"" + callbackUrl + "\"}");
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Callback registration failed: " + response.statusCode() + " " + response.body());
+        }
+    }
+    
+    static String accessToken(HttpResponse<String> response) {
+        return extract(ACCESS_TOKEN, response);
+    }
+    
+    static String refreshToken(HttpResponse<String> response) {
+        return extract(REFRESH_TOKEN, response);
+    }
+    
+    private static String extract(Pattern pattern, HttpResponse<String> response) {
+        Matcher matcher = pattern.matcher(response.body());
+        if (response.statusCode() != 200 || !matcher.find()) {
+            throw new IllegalStateException("Unexpected token response: " + response.statusCode() + " " + response.body());
+        }
+        return matcher.group(1);
+    }
+    
+    void close() {
+        server.getApplicationContext().close();
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.tokenservice.benchmarks;
+
+import com.example.tokenservice.metrics.TokenMetrics;
+import com.example.tokenservice.service.AuditLog;
+import com.example.tokenservice.service.RevocationJournal;
+import com.example.tokenservice.service.TokenBlacklistService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+// Startup cost of the revocation journal: one operation constructs TokenBlacklistService on a journal of `records`
+// revocations written in setup, which maps the file, replays every record into the table and expiry wheel and
+// rebuilds the bloom filter. With expiredPercent=90 most records are read but skipped, as after a long uptime.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class JournalReplayBenchmark {
+    
+    @Param({"5000000"})
+    public int records;
+    
+    @Param({"0", "90"})
+    public int expiredPercent;
+    
+    private Path directory;
+    private Path journalPath;
+    
+    @Setup(Level.Trial)
+    public void writeJournal() throws IOException {
+        directory = Files.createTempDirectory("journal-replay");
+        journalPath = directory.resolve("revocations.journal");
+        long now = System.currentTimeMillis();
+        long live = (now + TimeUnit.HOURS.toMillis(2)) / 1000;
+        long expired = (now - TimeUnit.HOURS.toMillis(1)) / 1000;
+        SplittableRandom random = new SplittableRandom(42);
+        try (RevocationJournal journal = RevocationJournal.open(journalPath, (key, entry) -> { })) {
+            for (int i = 0; i < records; i++) {
+                long expiresAt = random.nextInt(100) < expiredPercent ? expired : live;
+                // same packing as the service: revocation second in the high half, expiry second in the low half
+                journal.append(random.nextLong(), ((now / 1000) << 32) | (expiresAt & 0xFFFFFFFFL));
+            }
+        }
+    }
+    
+    @TearDown(Level.Trial)
+    public void deleteJournal() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(directory);
+    }
+    
+    // sized for the journal, as a deployment expecting this many revocations would configure it
+    @Benchmark
+    public int replay() {
+        TokenBlacklistService blacklistService = new TokenBlacklistService(new AuditLog("", 65536, 512, 64L * 1024 * 1024, 5, 10),
+                new TokenMetrics(new SimpleMeterRegistry()), 1000, records, 3600, journalPath.toString(), 600, 1024);
+        try {
+            return blacklistService.getRevokedTokenCount();
+        } finally {
+            blacklistService.shutdown();
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.tokenservice.benchmarks;
+
+import com.example.tokenservice.config.TokenConfiguration;
+import com.example.tokenservice.service.KeyPairService;
+import com.example.tokenservice.service.SigningKey;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 20)
+@Fork(3)
+public class KeyPairStartupBenchmark {
+    
+    @Param({"HS256", "RS256", "ES256"})
+    public String algorithm;
+    
+    // construction returns before the first key exists, so wait for it to measure time to first signature
+    @Benchmark
+    public SigningKey startUp() throws Exception {
+        TokenConfiguration configuration = new TokenConfiguration();
+        configuration.setAlgorithm(algorithm);
+        KeyPairService keyPairService = new KeyPairService(configuration, 2048, 0);
+        try {
+            return keyPairService.getCurrentKey();
+        } finally {
+            keyPairService.shutdown();
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.tokenservice.benchmarks;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtBuilder;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// HS256 signing and verification on the path JwtTokenService used before JwtSigningEngine, which derived the key
+// with Keys.hmacShaKeyFor and built a new parser on every call, next to the engine's precomputed key and shared parser.
+// Both sides sign the same claims, so the difference is the per-call setup alone.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SigningEngineBenchmark {
+    
+    private TokenServiceFixture fixture;
+    private String token;
+    
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        fixture = new TokenServiceFixture("HS256");
+        token = fixture.signingEngine.sign(builder());
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        fixture.close();
+    }
+    
+    @Benchmark
+    public String signPerCall() {
+        Key signingKey = Keys.hmacShaKeyFor(TokenServiceFixture.SECRET.getBytes(StandardCharsets.UTF_8));
+        return builder().signWith(signingKey, SignatureAlgorithm.HS256).compact();
+    }
+    
+    @Benchmark
+    public String signEngine() {
+        return fixture.signingEngine.sign(builder());
+    }
+    
+    @Benchmark
+    public Claims verifyPerCall() {
+        Key signingKey = Keys.hmacShaKeyFor(TokenServiceFixture.SECRET.getBytes(StandardCharsets.UTF_8));
+        return Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .build()
+                .parseClaimsJws(token)
+                .getBody();
+    }
+    
+    @Benchmark
+    public Claims verifyEngine() {
+        return fixture.signingEngine.verify(token);
+    }
+    
+    private static JwtBuilder builder() {
+        long issuedAt = System.currentTimeMillis();
+        Map<String, Object> claims = new HashMap<>();
+        claims.put("sub", "data-client-service");
+        claims.put("aud", "data-client-service");
+        claims.put("scope", "read write");
+        claims.put("client_id", "data-client-service");
+        claims.put("trace_id", "benchmark-trace");
+        return Jwts.builder()
+                .setClaims(claims)
+                .setSubject("data-client-service")
+                .setIssuer("token-service")
+                .setIssuedAt(new Date(issuedAt))
+                .setExpiration(new Date(issuedAt + 3600_000));
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.tokenservice.benchmarks;
+
+import com.example.tokenservice.dto.TokenResponse;
+import com.example.tokenservice.service.CallbackDeliveryService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Delivery latency to a fast callback host while a deliberately slow host (slowDelayMillis per request) has a backlog
+// of slowBacklog deliveries queued. The backlog is refilled before every iteration and outlasts it at the default
+// per-host concurrency, so with slowBacklog > 0 the slow host is saturated the whole time. Per-host limits should keep
+// the fast host's latency flat across slowBacklog; on a shared pool it would wait behind the slow receiver.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+public class SlowCallbackBenchmark {
+    
+    @Param({"0", "1000"})
+    public int slowBacklog;
+    
+    @Param({"100"})
+    public long slowDelayMillis;
+    
+    private EmbeddedTokenService tokenService;
+    private CallbackDeliveryService deliveryService;
+    private CallbackStub slowStub;
+    private CallbackStub fastStub;
+    private TokenResponse token;
+    
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        tokenService = new EmbeddedTokenService(Map.of("token.callback.retry.max-attempts", 1));
+        deliveryService = tokenService.getBean(CallbackDeliveryService.class);
+        slowStub = new CallbackStub(slowDelayMillis);
+        fastStub = new CallbackStub(0);
+        token = new TokenResponse("benchmark-token", 3600L, "read write", "2024-01-01T00:00:00Z");
+    }
+    
+    @Setup(Level.Iteration)
+    public void fillSlowBacklog() {
+        for (int i = 0; i < slowBacklog; i++) {
+            deliveryService.deliverTokenAsync(slowStub.url(), token, "slow-" + i);
+        }
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        tokenService.close();
+        slowStub.close();
+        fastStub.close();
+    }
+    
+    @Benchmark
+    public Boolean deliverToFastHost() throws Exception {
+        Boolean delivered = deliveryService.deliverTokenAsync(fastStub.url(), token, "fast").get(10, TimeUnit.SECONDS);
+        fastStub.awaitDelivery(10, TimeUnit.SECONDS);
+        return delivered;
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.tokenservice.benchmarks;
+
+import com.example.tokenservice.metrics.TokenMetrics;
+import com.example.tokenservice.service.AuditLog;
+import com.example.tokenservice.service.TokenBlacklistService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+// ten million revocations need a few hundred megabytes of table, bloom filter and expiry wheel
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class TokenBlacklistBenchmark {
+    
+    private static final int PROBES = 4096;
+    
+    @Param({"0", "1000000", "10000000"})
+    public int revokedTokens;
+    
+    private TokenBlacklistService blacklistService;
+    private String[] revoked;
+    private String[] notRevoked;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        blacklistService = new TokenBlacklistService(new AuditLog("", 65536, 512, 64L * 1024 * 1024, 5, 10), 
+                new TokenMetrics(new SimpleMeterRegistry()), 1000, Math.max(revokedTokens, 1024), 3600, "", 600, 1024);
+        long expiresAt = System.currentTimeMillis() + TimeUnit.HOURS.toMillis(2);
+        for (int i = 0; i < revokedTokens; i++) {
+            blacklistService.revokeToken("revoked-token-" + i, expiresAt, "benchmark");
+        }
+        revoked = new String[PROBES];
+        notRevoked = new String[PROBES];
+        for (int i = 0; i < PROBES; i++) {
+            revoked[i] = "revoked-token-" + (revokedTokens == 0 ? 0 : ThreadLocalRandom.current().nextInt(revokedTokens));
+            notRevoked[i] = "live-token-" + i;
+        }
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        blacklistService.shutdown();
+    }
+    
+    @State(Scope.Thread)
+    public static class Cursor {
+        private int next;
+        
+        int advance() {
+            next = (next + 1) & (PROBES - 1);
+            return next;
+        }
+    }
+    
+    // the common case: a live token that the bloom filter should reject without touching the table
+    @Benchmark
+    public boolean isTokenRevokedMiss(Cursor cursor) {
+        return blacklistService.isTokenRevoked(notRevoked[cursor.advance()]);
+    }
+    
+    @Benchmark
+    public boolean isTokenRevokedHit(Cursor cursor) {
+        return blacklistService.isTokenRevoked(revoked[cursor.advance()]);
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.tokenservice.benchmarks;
+
+import com.example.tokenservice.dto.TokenRequest;
+import com.example.tokenservice.dto.TokenResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TokenIssuanceBenchmark {
+    
+    @Param({"HS256", "RS256", "ES256"})
+    public String algorithm;
+    
+    // length of the scope claim, the only caller-controlled part of the payload
+    @Param({"16", "256", "4096"})
+    public int scopeLength;
+    
+    private TokenServiceFixture fixture;
+    private TokenRequest request;
+    
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        fixture = new TokenServiceFixture(algorithm);
+        request = TokenServiceFixture.request(scopeLength);
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        fixture.close();
+    }
+    
+    @Benchmark
+    public TokenResponse generateToken() {
+        return fixture.jwtTokenService.generateToken(request, "benchmark-trace");
+    }
+}
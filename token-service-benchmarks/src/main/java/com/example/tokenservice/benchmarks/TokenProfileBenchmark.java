@@ -0,0 +1,64 @@
+package com.example.tokenservice.benchmarks;
+
+import com.example.tokenservice.dto.TokenRequest;
+import com.example.tokenservice.dto.TokenResponse;
+import io.jsonwebtoken.Claims;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TokenProfileBenchmark {
+    
+    private static final Logger LOG = LoggerFactory.getLogger(TokenProfileBenchmark.class);
+    
+    @Param({"standard", "compact", "cwt"})
+    public String profile;
+    
+    private TokenServiceFixture fixture;
+    private TokenRequest request;
+    private String token;
+    
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        fixture = new TokenServiceFixture("RS256", profile);
+        request = TokenServiceFixture.request(16);
+        token = fixture.jwtTokenService.generateToken(request, "benchmark-trace").getAccessToken();
+        // the header bytes every data-client -> data-query hop pays, next to the timings in the run's output
+        LOG.info("Token profile: {}, authorization header bytes: {}", profile, ("Bearer " + token).length());
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        fixture.close();
+    }
+    
+    @Benchmark
+    public TokenResponse generateToken() {
+        return fixture.jwtTokenService.generateToken(request, "benchmark-trace");
+    }
+    
+    @Benchmark
+    public Claims validateToken() {
+        return fixture.jwtTokenService.validateToken(token);
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.tokenservice.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.net.http.HttpResponse;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// End-to-end renewal latency over HTTP against a running token-service:
+//   refresh            - refresh_token grant: client authentication (credential cache warm), redeem and rotate,
+//                        new access token and rotated refresh token inline
+//   client_credentials - client authentication (credential cache warm) and inline issuance
+//   callback           - the pre-refresh path: issuance acknowledged over HTTP, token pushed to the client's callback
+// refresh and client_credentials pay the same credential check and signature, so they should measure about the same;
+// what either saves over callback is the outbox write and the callback hop.
+// One client owns one refresh family, so this benchmark must run single-threaded.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+@Threads(1)
+public class TokenRenewalBenchmark {
+    
+    @Param({"refresh", "client_credentials", "callback"})
+    public String path;
+    
+    private EmbeddedTokenService tokenService;
+    private CallbackStub callbackStub;
+    private String refreshToken;
+    
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        tokenService = new EmbeddedTokenService(Map.of("token.jwt.algorithm", "RS256"));
+        callbackStub = new CallbackStub(0);
+        tokenService.registerCallback(callbackStub.url());
+        refreshToken = EmbeddedTokenService.refreshToken(tokenService.requestToken("inline"));
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        tokenService.close();
+        callbackStub.close();
+    }
+    
+    @Benchmark
+    public String renew() throws Exception {
+        switch (path) {
+            case "refresh":
+                HttpResponse<String> refreshed = tokenService.refresh(refreshToken);
+                refreshToken = EmbeddedTokenService.refreshToken(refreshed);
+                return EmbeddedTokenService.accessToken(refreshed);
+            case "client_credentials":
+                return EmbeddedTokenService.accessToken(tokenService.requestToken("inline"));
+            case "callback":
+                HttpResponse<String> acknowledged = tokenService.requestToken("callback");
+                if (acknowledged.statusCode() != 200) {
+                    throw new IllegalStateException("Token request failed: " + acknowledged.statusCode());
+                }
+                return callbackStub.awaitDelivery(10, TimeUnit.SECONDS);
+            default:
+                throw new IllegalArgumentException("Unknown renewal path: " + path);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.tokenservice.benchmarks;
+
+import com.example.tokenservice.config.TokenConfiguration;
+import com.example.tokenservice.dto.TokenRequest;
+import com.example.tokenservice.metrics.TokenMetrics;
+import com.example.tokenservice.service.AuditLog;
+import com.example.tokenservice.service.ClientSecretHasher;
+import com.example.tokenservice.service.ClientService;
+import com.example.tokenservice.service.CwtTokenCodec;
+import com.example.tokenservice.service.JwtSigningEngine;
+import com.example.tokenservice.service.JwtTokenService;
+import com.example.tokenservice.service.KeyPairService;
+import com.example.tokenservice.service.VerifiedCredentialCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+// Wires the services by hand, the way the bean context would, without starting an application context
+final class TokenServiceFixture {
+    
+    static final String SECRET = "pleaseChangeThisSecretForASecretKeyForJWTTokenGeneration";
+    
+    // audit disabled (no path), so the measurements exclude audit file I/O
+    final AuditLog auditLog = new AuditLog("", 65536, 512, 64L * 1024 * 1024, 5, 10);
+    // timers stay on so the numbers include the instrumentation the service really runs with
+    final TokenMetrics tokenMetrics = new TokenMetrics(new SimpleMeterRegistry());
+    final KeyPairService keyPairService;
+    final JwtSigningEngine signingEngine;
+    final ClientService clientService;
+    final CwtTokenCodec cwtTokenCodec;
+    final JwtTokenService jwtTokenService;
+    
+    TokenServiceFixture(String algorithm) throws Exception {
+        this(algorithm, JwtTokenService.PROFILE_STANDARD);
+    }
+    
+    TokenServiceFixture(String algorithm, String profile) throws Exception {
+        TokenConfiguration configuration = new TokenConfiguration();
+        configuration.setAlgorithm(algorithm);
+        configuration.setProfile(profile);
+        this.keyPairService = new KeyPairService(configuration, 2048, 0);
+        this.signingEngine = new JwtSigningEngine(keyPairService, SECRET);
+        this.clientService = new ClientService(new ClientSecretHasher(1000), 
+                new VerifiedCredentialCache(true, 300, 100), "", 16, 16, 60);
+        this.cwtTokenCodec = new CwtTokenCodec(SECRET);
+        this.jwtTokenService = new JwtTokenService(configuration, signingEngine, clientService, cwtTokenCodec, auditLog, tokenMetrics);
+    }
+    
+    static TokenRequest request(int scopeLength) {
+        StringBuilder scope = new StringBuilder(scopeLength);
+        while (scope.length() < scopeLength) {
+            scope.append(scope.length() == 0 ? "" : " ").append("scope").append(scope.length());
+        }
+        scope.setLength(scopeLength);
+        TokenRequest request = new TokenRequest();
+        request.setClientId("data-client-service");
+        request.setClientSecret("secret123");
+        request.setScope(scope.toString());
+        return request;
+    }
+    
+    void close() {
+        clientService.shutdown();
+        keyPairService.shutdown();
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.tokenservice.benchmarks;
+
+import com.example.tokenservice.dto.TokenValidationResult;
+import com.example.tokenservice.service.TokenBlacklistService;
+import com.example.tokenservice.service.TokenValidationService;
+import com.example.tokenservice.service.VerifiedClaimsCache;
+import io.jsonwebtoken.Claims;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TokenValidationBenchmark {
+    
+    @Param({"HS256", "RS256", "ES256"})
+    public String algorithm;
+    
+    @Param({"16", "256", "4096"})
+    public int scopeLength;
+    
+    private TokenServiceFixture fixture;
+    private TokenBlacklistService blacklistService;
+    private TokenValidationService validationService;
+    private String token;
+    
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        fixture = new TokenServiceFixture(algorithm);
+        blacklistService = new TokenBlacklistService(fixture.auditLog, fixture.tokenMetrics, 1000, 1024, 3600, "", 600, 1024);
+        validationService = new TokenValidationService(fixture.signingEngine, fixture.cwtTokenCodec, blacklistService, 
+                new VerifiedClaimsCache(true, 10000), fixture.auditLog, fixture.tokenMetrics, 1, 16);
+        token = fixture.jwtTokenService.generateToken(TokenServiceFixture.request(scopeLength), "benchmark-trace").getAccessToken();
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        validationService.shutdown();
+        blacklistService.shutdown();
+        fixture.close();
+    }
+    
+    // full signature check and claim parsing on every call
+    @Benchmark
+    public Claims validateToken() {
+        return fixture.jwtTokenService.validateToken(token);
+    }
+    
+    // blacklist probe plus verified-claims cache hit, the steady state for a token seen before
+    @Benchmark
+    public TokenValidationResult validateCached() {
+        return validationService.validate(token);
+    }
+}
@@ -8,6 +8,8 @@ public class TokenConfiguration {
     
     private long expiration = 3600;
     private String issuer = "token-service";
+    private String algorithm = "RS256";
+    private String profile = "standard";
     private RsaConfiguration rsa = new RsaConfiguration();
     
     public long getExpiration() {
@@ -26,6 +28,22 @@ public class TokenConfiguration {
         this.issuer = issuer;
     }
     
+    public String getAlgorithm() {
+        return algorithm;
+    }
+    
+    public void setAlgorithm(String algorithm) {
+        this.algorithm = algorithm;
+    }
+    
+    public String getProfile() {
+        return profile;
+    }
+    
+    public void setProfile(String profile) {
+        this.profile = profile;
+    }
+    
     public RsaConfiguration getRsa() {
         return rsa;
     }
@@ -1,10 +1,14 @@
 package com.example.tokenservice.controller;
 
+import com.example.tokenservice.service.StartupPipeline;
+import io.micronaut.http.HttpResponse;
+import io.micronaut.http.HttpStatus;
 import io.micronaut.http.annotation.Controller;
 import io.micronaut.http.annotation.Get;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 @Controller("/health")
@@ -12,24 +16,63 @@ public class HealthController {
     
     private static final Logger LOG = LoggerFactory.getLogger(HealthController.class);
     
+    private final StartupPipeline startupPipeline;
+    
+    public HealthController(StartupPipeline startupPipeline) {
+        this.startupPipeline = startupPipeline;
+    }
+    
+    // 503 until signing is usable, so load balancers and compose health checks hold traffic back
     @Get
-    public Map<String, Object> health() {
+    public HttpResponse<Map<String, Object>> health() {
         LOG.debug("Health check requested");
-        return Map.of(
-                "status", "UP",
-                "service", "token-service",
-                "timestamp", System.currentTimeMillis()
-        );
+        boolean ready = startupPipeline.isReady();
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("status", ready ? "UP" : "STARTING");
+        body.put("service", "token-service");
+        body.put("liveness", startupPipeline.isLive() ? "UP" : "DOWN");
+        body.put("readiness", ready ? "UP" : "DOWN");
+        body.put("timestamp", System.currentTimeMillis());
+        return respond(ready, body);
+    }
+    
+    // answers as long as the process serves requests; restarting a starting instance would only slow it down
+    @Get("/liveness")
+    public HttpResponse<Map<String, Object>> liveness() {
+        boolean live = startupPipeline.isLive();
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("status", live ? "UP" : "DOWN");
+        body.put("timestamp", System.currentTimeMillis());
+        return respond(live, body);
+    }
+    
+    @Get("/readiness")
+    public HttpResponse<Map<String, Object>> readiness() {
+        boolean ready = startupPipeline.isReady();
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("status", ready ? "UP" : "DOWN");
+        body.put("pending", startupPipeline.getPendingPhases());
+        body.put("timestamp", System.currentTimeMillis());
+        return respond(ready, body);
     }
     
     @Get("/detailed")
-    public Map<String, Object> detailedHealth() {
+    public HttpResponse<Map<String, Object>> detailedHealth() {
         LOG.debug("Detailed health check requested");
-        return Map.of(
-                "status", "UP",
-                "service", "token-service",
-                "timestamp", System.currentTimeMillis(),
-                "details", "All systems operational"
-        );
+        boolean ready = startupPipeline.isReady();
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("status", ready ? "UP" : "STARTING");
+        body.put("service", "token-service");
+        body.put("timestamp", System.currentTimeMillis());
+        body.put("liveness", startupPipeline.isLive() ? "UP" : "DOWN");
+        body.put("readiness", ready ? "UP" : "DOWN");
+        body.put("pending", startupPipeline.getPendingPhases());
+        body.put("startupPhasesMs", startupPipeline.getPhaseDurationsMs());
+        body.put("details", ready ? "All systems operational" : "Startup in progress");
+        return respond(ready, body);
+    }
+    
+    private static HttpResponse<Map<String, Object>> respond(boolean healthy, Map<String, Object> body) {
+        return healthy ? HttpResponse.ok(body) : HttpResponse.<Map<String, Object>>status(HttpStatus.SERVICE_UNAVAILABLE).body(body);
     }
 }
@@ -0,0 +1,53 @@
+package com.example.tokenservice.controller;
+
+import com.example.tokenservice.service.JwksService;
+import io.micronaut.context.annotation.Property;
+import io.micronaut.core.annotation.Nullable;
+import io.micronaut.http.HttpHeaders;
+import io.micronaut.http.HttpResponse;
+import io.micronaut.http.HttpStatus;
+import io.micronaut.http.MediaType;
+import io.micronaut.http.annotation.Controller;
+import io.micronaut.http.annotation.Get;
+import io.micronaut.http.annotation.Header;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+@Controller("/.well-known")
+public class JwksController {
+    
+    private static final Logger LOG = LoggerFactory.getLogger(JwksController.class);
+    
+    private final JwksService jwksService;
+    private final String cacheControl;
+    
+    public JwksController(JwksService jwksService,
+                          @Property(name = "token.jwks.max-age", defaultValue = "300") long maxAge) {
+        this.jwksService = jwksService;
+        this.cacheControl = "public, max-age=" + maxAge;
+    }
+    
+    @Get(uri = "/jwks.json", produces = MediaType.APPLICATION_JSON)
+    public HttpResponse<byte[]> getJwks(@Nullable @Header(HttpHeaders.IF_NONE_MATCH) String ifNoneMatch) {
+        // served on the event loop, which must not wait for the first key to finish generating
+        if (!jwksService.isReady()) {
+            LOG.debug("JWKS requested before the first signing key is ready");
+            return HttpResponse.<byte[]>status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .header(HttpHeaders.CACHE_CONTROL, "no-store");
+        }
+        JwksService.Document document = jwksService.getDocument();
+        String etag = document.getEtag();
+        if (etag.equals(ifNoneMatch)) {
+            LOG.debug("JWKS not modified, etag: {}", etag);
+            return HttpResponse.<byte[]>status(HttpStatus.NOT_MODIFIED)
+                    .header(HttpHeaders.ETAG, etag)
+                    .header(HttpHeaders.CACHE_CONTROL, cacheControl);
+        }
+        
+        return HttpResponse.ok(document.getBytes())
+                .contentType(MediaType.APPLICATION_JSON_TYPE)
+                .header(HttpHeaders.ETAG, etag)
+                .header(HttpHeaders.CACHE_CONTROL, cacheControl);
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.tokenservice.controller;
+
+import io.micrometer.prometheusmetrics.PrometheusMeterRegistry;
+import io.micronaut.http.annotation.Controller;
+import io.micronaut.http.annotation.Get;
+
+// Prometheus text exposition at /metrics, the path prometheus.yml scrapes. The built-in JSON metrics
+// endpoint is disabled in application.yml so the two do not compete for the route.
+@Controller("/metrics")
+public class MetricsController {
+    
+    private static final String PROMETHEUS_TEXT = "text/plain; version=0.0.4; charset=utf-8";
+    
+    private final PrometheusMeterRegistry prometheusMeterRegistry;
+    
+    public MetricsController(PrometheusMeterRegistry prometheusMeterRegistry) {
+        this.prometheusMeterRegistry = prometheusMeterRegistry;
+    }
+    
+    @Get(produces = PROMETHEUS_TEXT)
+    public String scrape() {
+        return prometheusMeterRegistry.scrape();
+    }
+}
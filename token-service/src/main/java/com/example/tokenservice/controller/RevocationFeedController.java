@@ -0,0 +1,71 @@
+package com.example.tokenservice.controller;
+
+import com.example.tokenservice.dto.RevocationFeedResponse;
+import com.example.tokenservice.service.TokenBlacklistService;
+import io.micronaut.context.annotation.Property;
+import io.micronaut.http.HttpResponse;
+import io.micronaut.http.annotation.Controller;
+import io.micronaut.http.annotation.Get;
+import io.micronaut.http.annotation.QueryValue;
+import io.micronaut.scheduling.TaskExecutors;
+import jakarta.inject.Named;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+@Controller("/api/v1/revocations")
+public class RevocationFeedController {
+    
+    private static final Logger LOG = LoggerFactory.getLogger(RevocationFeedController.class);
+    
+    private final TokenBlacklistService tokenBlacklistService;
+    private final ExecutorService ioExecutor;
+    private final int maxWaitSeconds;
+    private final int pageSize;
+    
+    public RevocationFeedController(TokenBlacklistService tokenBlacklistService,
+                                    @Named(TaskExecutors.IO) ExecutorService ioExecutor,
+                                    @Property(name = "token.blacklist.feed.max-wait", defaultValue = "30") int maxWaitSeconds,
+                                    @Property(name = "token.blacklist.feed.page-size", defaultValue = "1000") int pageSize) {
+        this.tokenBlacklistService = tokenBlacklistService;
+        this.ioExecutor = ioExecutor;
+        this.maxWaitSeconds = maxWaitSeconds;
+        this.pageSize = pageSize;
+    }
+    
+    @Get
+    public CompletableFuture<HttpResponse<RevocationFeedResponse>> getRevocations(@QueryValue(defaultValue = "") String epoch,
+                                                                                 @QueryValue(defaultValue = "0") long since,
+                                                                                 @QueryValue(defaultValue = "0") int wait,
+                                                                                 @QueryValue(defaultValue = "") String cursor) {
+        String traceId = UUID.randomUUID().toString();
+        MDC.put("traceId", traceId);
+        
+        try {
+            // the next page of a snapshot is always ready
+            if (wait <= 0 || !cursor.isEmpty() || tokenBlacklistService.hasRevocationsAfter(epoch, since)) {
+                return CompletableFuture.completedFuture(HttpResponse.ok(read(epoch, since, cursor, traceId)));
+            }
+            
+            // long-poll: park the request without holding a thread until a revocation lands or the wait elapses
+            CompletableFuture<Long> waiter = tokenBlacklistService.awaitRevocations(since);
+            return waiter.completeOnTimeout(since, Math.min(wait, maxWaitSeconds), TimeUnit.SECONDS)
+                    .whenComplete((sequence, e) -> tokenBlacklistService.cancelAwait(waiter))
+                    .thenApplyAsync(sequence -> HttpResponse.ok(read(epoch, since, cursor, traceId)), ioExecutor);
+        } finally {
+            MDC.remove("traceId");
+        }
+    }
+    
+    private RevocationFeedResponse read(String epoch, long since, String cursor, String traceId) {
+        RevocationFeedResponse response = tokenBlacklistService.readRevocations(epoch, since, cursor, pageSize);
+        LOG.debug("Revocation feed read since: {}, returned {} entries up to sequence: {}, snapshot: {}, traceId: {}", 
+                since, response.getEntries().size(), response.getSequence(), response.isSnapshot(), traceId);
+        return response;
+    }
+}
@@ -1,14 +1,24 @@
 package com.example.tokenservice.controller;
 
+import com.example.tokenservice.config.RequestExecutorFactory;
+import com.example.tokenservice.dto.BatchTokenRequest;
 import com.example.tokenservice.dto.CallbackRegistrationRequest;
 import com.example.tokenservice.dto.CallbackRegistrationResponse;
 import com.example.tokenservice.dto.TokenRequest;
 import com.example.tokenservice.dto.TokenResponse;
-import com.example.tokenservice.service.CallbackDeliveryService;
+import com.example.tokenservice.service.AdmissionLimiter;
+import com.example.tokenservice.service.BatchTokenService;
+import com.example.tokenservice.service.CallbackOutbox;
+import com.example.tokenservice.service.ClientRateLimiter;
 import com.example.tokenservice.service.ClientService;
 import com.example.tokenservice.service.JwtTokenService;
+import com.example.tokenservice.service.RefreshTokenService;
+import com.example.tokenservice.service.RefreshTokenStore;
+import io.micronaut.http.HttpHeaders;
 import io.micronaut.http.HttpResponse;
+import io.micronaut.http.HttpStatus;
 import io.micronaut.http.annotation.*;
+import io.micronaut.scheduling.annotation.ExecuteOn;
 import io.micronaut.validation.Validated;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
@@ -17,22 +27,36 @@ import org.slf4j.MDC;
 
 import java.util.UUID;
 
+// issuance fsyncs the callback outbox and authenticates clients, so it stays off the event loop
 @Controller("/oauth")
 @Validated
+@ExecuteOn(RequestExecutorFactory.REQUEST_EXECUTOR)
 public class TokenController {
     
     private static final Logger LOG = LoggerFactory.getLogger(TokenController.class);
     
     private final JwtTokenService jwtTokenService;
     private final ClientService clientService;
-    private final CallbackDeliveryService callbackDeliveryService;
+    private final CallbackOutbox callbackOutbox;
+    private final BatchTokenService batchTokenService;
+    private final RefreshTokenService refreshTokenService;
+    private final ClientRateLimiter clientRateLimiter;
+    private final AdmissionLimiter admissionLimiter;
     
     public TokenController(JwtTokenService jwtTokenService,
                           ClientService clientService,
-                          CallbackDeliveryService callbackDeliveryService) {
+                          CallbackOutbox callbackOutbox,
+                          BatchTokenService batchTokenService,
+                          RefreshTokenService refreshTokenService,
+                          ClientRateLimiter clientRateLimiter,
+                          AdmissionLimiter admissionLimiter) {
         this.jwtTokenService = jwtTokenService;
         this.clientService = clientService;
-        this.callbackDeliveryService = callbackDeliveryService;
+        this.callbackOutbox = callbackOutbox;
+        this.batchTokenService = batchTokenService;
+        this.refreshTokenService = refreshTokenService;
+        this.clientRateLimiter = clientRateLimiter;
+        this.admissionLimiter = admissionLimiter;
     }
     
     @Post("/token")
@@ -40,30 +64,135 @@ public class TokenController {
         String traceId = UUID.randomUUID().toString();
         MDC.put("traceId", traceId);
         
+        // shed load before any work; the global adaptive limit also bounds unauthenticated attempts and their secret hashes
+        if (!admissionLimiter.tryAcquire()) {
+            LOG.warn("Token request shed at admission limit: {}, client: {}, traceId: {}", 
+                    admissionLimiter.getLimit(), request.getClientId(), traceId);
+            MDC.remove("traceId");
+            return tooManyRequests(1000);
+        }
+        // only the signing and enqueue section feeds the limiter; rejections and failures release without a latency
+        long issueNanos = -1;
+        
         try {
-            LOG.info("Token request received from client: {}", request.getClientId());
+            LOG.debug("Token request received from client: {}", request.getClientId());
+            
+            // inline responses hand the token to whoever asked and a leaked refresh token alone must not renew a session,
+            // so every grant proves it is the client first
+            if (!clientService.validateClient(request.getClientId(), request.getClientSecret())) {
+                LOG.warn("Invalid client credentials for client: {}, traceId: {}", request.getClientId(), traceId);
+                return HttpResponse.unauthorized();
+            }
             
-            // Bypass client validation for testing
-            // if (!clientService.validateClient(request.getClientId(), request.getClientSecret())) {
-            //     LOG.warn("Invalid client credentials for client: {}", request.getClientId());
-            //     return HttpResponse.unauthorized();
-            // }
+            // charged only once authenticated, so a caller who merely knows a client id cannot drain its bucket
+            long retryAfterMs = clientRateLimiter.tryAcquire(request.getClientId());
+            if (retryAfterMs > 0) {
+                LOG.warn("Rate limit exceeded for client: {}, traceId: {}", request.getClientId(), traceId);
+                return tooManyRequests(retryAfterMs);
+            }
+            
+            if (TokenRequest.GRANT_TYPE_REFRESH_TOKEN.equals(request.getGrantType())) {
+                RefreshTokenStore.Redemption redemption = refreshTokenService.redeem(request.getRefreshToken(), request.getClientId());
+                if (redemption == null || redemption.getStatus() != RefreshTokenStore.Status.ROTATED) {
+                    LOG.warn("Refresh token rejected for client: {}, status: {}, traceId: {}", request.getClientId(), 
+                            redemption != null ? redemption.getStatus() : "MALFORMED", traceId);
+                    return HttpResponse.badRequest("Invalid refresh token");
+                }
+                long startedAt = System.nanoTime();
+                HttpResponse<?> response = refreshToken(request, redemption, traceId);
+                issueNanos = System.nanoTime() - startedAt;
+                return response;
+            }
             
+            String callbackUrl = null;
+            boolean inline = TokenRequest.RESPONSE_MODE_INLINE.equalsIgnoreCase(request.getResponseMode());
+            if (!inline) {
+                callbackUrl = clientService.getCallbackUrl(request.getClientId());
+                if (callbackUrl == null || callbackUrl.isEmpty()) {
+                    LOG.warn("No callback URL registered for client: {}", request.getClientId());
+                    return HttpResponse.badRequest("No callback URL registered for client");
+                }
+            }
+            
+            long startedAt = System.nanoTime();
             TokenResponse tokenResponse = jwtTokenService.generateToken(request, traceId);
             
-            String callbackUrl = clientService.getCallbackUrl(request.getClientId());
-            if (callbackUrl != null && !callbackUrl.isEmpty()) {
-                callbackDeliveryService.deliverTokenAsync(callbackUrl, tokenResponse, traceId);
-                LOG.info("Token issued successfully for client: {}, delivering via callback, traceId: {}", request.getClientId(), traceId);
-                return HttpResponse.ok("Token delivered via callback");
-            } else {
-                LOG.warn("No callback URL registered for client: {}", request.getClientId());
-                return HttpResponse.badRequest("No callback URL registered for client");
+            if (inline) {
+                // only clients that renew in a round trip get a refresh token; callback clients never redeem one
+                if (refreshTokenService.isEnabled()) {
+                    tokenResponse.setRefreshToken(refreshTokenService.issue(request.getClientId(), tokenResponse.getScope()));
+                }
+                issueNanos = System.nanoTime() - startedAt;
+                LOG.debug("Token issued successfully for client: {}, returned inline, traceId: {}", request.getClientId(), traceId);
+                return HttpResponse.ok(tokenResponse);
             }
+            
+            callbackOutbox.deliver(callbackUrl, tokenResponse, traceId);
+            issueNanos = System.nanoTime() - startedAt;
+            LOG.debug("Token issued successfully for client: {}, delivering via callback, traceId: {}", request.getClientId(), traceId);
+            return HttpResponse.ok("Token delivered via callback");
         } catch (Exception e) {
             LOG.error("Error issuing token for client: {}, traceId: {}", request.getClientId(), traceId, e);
             return HttpResponse.serverError();
         } finally {
+            if (issueNanos >= 0) {
+                admissionLimiter.release(issueNanos);
+            } else {
+                admissionLimiter.release();
+            }
+            MDC.remove("traceId");
+        }
+    }
+    
+    private static HttpResponse<?> tooManyRequests(long retryAfterMs) {
+        long retryAfterSeconds = Math.max(1L, (retryAfterMs + 999) / 1000);
+        return HttpResponse.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+    }
+    
+    // refresh responses always come back inline: the point of the grant is to renew in a single round trip
+    private HttpResponse<?> refreshToken(TokenRequest request, RefreshTokenStore.Redemption redemption, String traceId) {
+        TokenRequest renewal = new TokenRequest();
+        renewal.setClientId(redemption.getClientId());
+        renewal.setScope(redemption.getScope());
+        TokenResponse tokenResponse = jwtTokenService.generateToken(renewal, traceId);
+        tokenResponse.setRefreshToken(refreshTokenService.rotate(redemption));
+        // the presented token is spent only now, so a signing failure above leaves it good for a retry
+        if (!refreshTokenService.commit(redemption)) {
+            LOG.warn("Refresh token already spent for client: {}, traceId: {}", request.getClientId(), traceId);
+            return HttpResponse.badRequest("Invalid refresh token");
+        }
+        LOG.debug("Token refreshed for client: {}, traceId: {}", request.getClientId(), traceId);
+        return HttpResponse.ok(tokenResponse);
+    }
+    
+    @Post("/token/batch")
+    public HttpResponse<?> issueTokens(@Valid @Body BatchTokenRequest request) {
+        String traceId = UUID.randomUUID().toString();
+        MDC.put("traceId", traceId);
+        
+        int size = request.getRequests().size();
+        LOG.info("Batch token request received with {} entries, traceId: {}", size, traceId);
+        if (size > batchTokenService.getMaxBatchSize()) {
+            LOG.warn("Batch of {} exceeds max size: {}, traceId: {}", size, batchTokenService.getMaxBatchSize(), traceId);
+            MDC.remove("traceId");
+            return HttpResponse.badRequest();
+        }
+        // entries are authenticated and charged to their clients' buckets inside, rejections come back as per-entry errors
+        if (!admissionLimiter.tryAcquire()) {
+            LOG.warn("Batch token request shed at admission limit: {}, traceId: {}", admissionLimiter.getLimit(), traceId);
+            MDC.remove("traceId");
+            return tooManyRequests(1000);
+        }
+        
+        try {
+            return HttpResponse.ok(batchTokenService.issueTokens(request.getRequests(), traceId));
+        } catch (Exception e) {
+            LOG.error("Error issuing token batch, traceId: {}", traceId, e);
+            return HttpResponse.serverError();
+        } finally {
+            // a batch holds one slot but its wall time is dominated by per-entry authentication, so it gives no latency feedback
+            admissionLimiter.release();
             MDC.remove("traceId");
         }
     }
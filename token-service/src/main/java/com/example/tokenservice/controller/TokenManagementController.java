@@ -1,11 +1,15 @@
 package com.example.tokenservice.controller;
 
+import com.example.tokenservice.dto.BatchValidationRequest;
+import com.example.tokenservice.dto.BatchValidationResponse;
 import com.example.tokenservice.dto.PublicKeyResponse;
 import com.example.tokenservice.dto.RevokeTokenRequest;
 import com.example.tokenservice.dto.RevokeTokenResponse;
-import com.example.tokenservice.service.JwtTokenService;
+import com.example.tokenservice.dto.TokenValidationResult;
 import com.example.tokenservice.service.KeyPairService;
 import com.example.tokenservice.service.TokenBlacklistService;
+import com.example.tokenservice.service.TokenValidationService;
+import io.micronaut.context.annotation.Property;
 import io.micronaut.http.HttpResponse;
 import io.micronaut.http.annotation.*;
 import io.micronaut.validation.Validated;
@@ -14,6 +18,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.slf4j.MDC;
 
+import java.util.List;
 import java.util.UUID;
 
 @Controller("/api/v1")
@@ -23,15 +28,18 @@ public class TokenManagementController {
     private static final Logger LOG = LoggerFactory.getLogger(TokenManagementController.class);
     
     private final KeyPairService keyPairService;
-    private final JwtTokenService jwtTokenService;
     private final TokenBlacklistService tokenBlacklistService;
+    private final TokenValidationService tokenValidationService;
+    private final int maxValidationBatchSize;
     
     public TokenManagementController(KeyPairService keyPairService,
-                                     JwtTokenService jwtTokenService,
-                                     TokenBlacklistService tokenBlacklistService) {
+                                     TokenBlacklistService tokenBlacklistService,
+                                     TokenValidationService tokenValidationService,
+                                     @Property(name = "token.validation.batch.max-size", defaultValue = "1000") int maxValidationBatchSize) {
         this.keyPairService = keyPairService;
-        this.jwtTokenService = jwtTokenService;
         this.tokenBlacklistService = tokenBlacklistService;
+        this.tokenValidationService = tokenValidationService;
+        this.maxValidationBatchSize = maxValidationBatchSize;
     }
     
     @Get("/public-key")
@@ -43,7 +51,7 @@ public class TokenManagementController {
             String publicKey = keyPairService.getPublicKeyAsString();
             String keyId = keyPairService.getKeyId();
             
-            PublicKeyResponse response = new PublicKeyResponse(publicKey, keyId);
+            PublicKeyResponse response = new PublicKeyResponse(publicKey, keyPairService.getSignatureAlgorithm().getValue(), keyId);
             
             LOG.info("Public key requested, keyId: {}, traceId: {}", keyId, traceId);
             return HttpResponse.ok(response);
@@ -73,7 +81,23 @@ public class TokenManagementController {
                 return HttpResponse.ok(new RevokeTokenResponse(true, "Token already revoked"));
             }
             
-            tokenBlacklistService.revokeToken(token, "Manual revocation via API");
+            // only tokens this service signed and that can still be used are journaled and fanned out to the feed
+            TokenValidationResult claims = tokenValidationService.verifyClaims(token);
+            if (claims.getStatus() == TokenValidationResult.Status.EXPIRED) {
+                LOG.info("Token already expired, nothing to revoke, traceId: {}", traceId);
+                return HttpResponse.ok(new RevokeTokenResponse(true, "Token already expired"));
+            }
+            if (!claims.isValid()) {
+                LOG.warn("Revoke token request with a token that does not verify, traceId: {}", traceId);
+                return HttpResponse.badRequest(new RevokeTokenResponse(false, "Token could not be verified"));
+            }
+            // keep the entry until the token's own expiry; tokens without one fall back to the maximum lifetime
+            if (claims.getExpiresAt() != null) {
+                tokenBlacklistService.revokeToken(token, claims.getExpiresAt(), "Manual revocation via API");
+            } else {
+                tokenBlacklistService.revokeToken(token, "Manual revocation via API");
+            }
+            tokenValidationService.invalidate(token);
             
             LOG.info("Token revoked successfully, traceId: {}", traceId);
             return HttpResponse.ok(new RevokeTokenResponse(true, "Token revoked successfully"));
@@ -96,18 +120,13 @@ public class TokenManagementController {
                 return HttpResponse.badRequest();
             }
             
-            if (tokenBlacklistService.isTokenRevoked(token)) {
-                LOG.info("Token is revoked, traceId: {}", traceId);
-                return HttpResponse.ok(false);
-            }
-            
-            if (jwtTokenService.isTokenExpired(token)) {
-                LOG.info("Token is expired, traceId: {}", traceId);
+            TokenValidationResult result = tokenValidationService.validate(token);
+            if (!result.isValid()) {
+                LOG.info("Token is not valid, status: {}, traceId: {}", result.getStatus(), traceId);
                 return HttpResponse.ok(false);
             }
             
-            String subject = jwtTokenService.getSubjectFromToken(token);
-            LOG.info("Token validated successfully for subject: {}, traceId: {}", subject, traceId);
+            LOG.info("Token validated successfully for subject: {}, traceId: {}", result.getSubject(), traceId);
             return HttpResponse.ok(true);
         } catch (Exception e) {
             LOG.error("Error validating token, traceId: {}", traceId, e);
@@ -117,6 +136,36 @@ public class TokenManagementController {
         }
     }
     
+    @Post("/validate/batch")
+    public HttpResponse<BatchValidationResponse> validateTokens(@Valid @Body BatchValidationRequest request) {
+        String traceId = UUID.randomUUID().toString();
+        MDC.put("traceId", traceId);
+        
+        try {
+            int size = request.getTokens().size();
+            if (size > maxValidationBatchSize) {
+                LOG.warn("Validation batch of {} exceeds max size: {}, traceId: {}", size, maxValidationBatchSize, traceId);
+                return HttpResponse.badRequest();
+            }
+            
+            List<TokenValidationResult> results = tokenValidationService.validateAll(request.getTokens());
+            int valid = 0;
+            for (TokenValidationResult result : results) {
+                if (result.isValid()) {
+                    valid++;
+                }
+            }
+            
+            LOG.info("Validated batch of {} tokens, {} valid, traceId: {}", size, valid, traceId);
+            return HttpResponse.ok(new BatchValidationResponse(valid, results));
+        } catch (Exception e) {
+            LOG.error("Error validating token batch, traceId: {}", traceId, e);
+            return HttpResponse.serverError();
+        } finally {
+            MDC.remove("traceId");
+        }
+    }
+    
     @Get("/blacklist/count")
     public HttpResponse<Integer> getBlacklistCount() {
         String traceId = UUID.randomUUID().toString();
@@ -0,0 +1,22 @@
+package com.example.tokenservice.dto;
+
+import io.micronaut.core.annotation.Introspected;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+
+import java.util.List;
+
+@Introspected
+public class BatchTokenRequest {
+    
+    @NotEmpty(message = "At least one token request is required")
+    private List<@Valid TokenRequest> requests;
+
+    public List<TokenRequest> getRequests() {
+        return requests;
+    }
+
+    public void setRequests(List<TokenRequest> requests) {
+        this.requests = requests;
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.tokenservice.dto;
+
+import io.micronaut.core.annotation.Introspected;
+
+import java.util.List;
+
+@Introspected
+public class BatchTokenResponse {
+    
+    private int issued;
+    private int failed;
+    private List<BatchTokenResult> results;
+
+    public BatchTokenResponse() {
+    }
+
+    public BatchTokenResponse(int issued, int failed, List<BatchTokenResult> results) {
+        this.issued = issued;
+        this.failed = failed;
+        this.results = results;
+    }
+
+    public int getIssued() {
+        return issued;
+    }
+
+    public void setIssued(int issued) {
+        this.issued = issued;
+    }
+
+    public int getFailed() {
+        return failed;
+    }
+
+    public void setFailed(int failed) {
+        this.failed = failed;
+    }
+
+    public List<BatchTokenResult> getResults() {
+        return results;
+    }
+
+    public void setResults(List<BatchTokenResult> results) {
+        this.results = results;
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.tokenservice.dto;
+
+import io.micronaut.core.annotation.Introspected;
+
+@Introspected
+public class BatchTokenResult {
+    
+    private String clientId;
+    private String status;
+    private String message;
+
+    public BatchTokenResult() {
+    }
+
+    public BatchTokenResult(String clientId, String status, String message) {
+        this.clientId = clientId;
+        this.status = status;
+        this.message = message;
+    }
+
+    public String getClientId() {
+        return clientId;
+    }
+
+    public void setClientId(String clientId) {
+        this.clientId = clientId;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+}
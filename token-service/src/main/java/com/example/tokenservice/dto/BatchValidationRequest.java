@@ -0,0 +1,21 @@
+package com.example.tokenservice.dto;
+
+import io.micronaut.core.annotation.Introspected;
+import jakarta.validation.constraints.NotEmpty;
+
+import java.util.List;
+
+@Introspected
+public class BatchValidationRequest {
+    
+    @NotEmpty(message = "At least one token is required")
+    private List<String> tokens;
+
+    public List<String> getTokens() {
+        return tokens;
+    }
+
+    public void setTokens(List<String> tokens) {
+        this.tokens = tokens;
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.tokenservice.dto;
+
+import io.micronaut.core.annotation.Introspected;
+
+import java.util.List;
+
+@Introspected
+public class BatchValidationResponse {
+    
+    private int valid;
+    private List<TokenValidationResult> results;
+
+    public BatchValidationResponse() {
+    }
+
+    public BatchValidationResponse(int valid, List<TokenValidationResult> results) {
+        this.valid = valid;
+        this.results = results;
+    }
+
+    public int getValid() {
+        return valid;
+    }
+
+    public void setValid(int valid) {
+        this.valid = valid;
+    }
+
+    public List<TokenValidationResult> getResults() {
+        return results;
+    }
+
+    public void setResults(List<TokenValidationResult> results) {
+        this.results = results;
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.tokenservice.dto;
+
+import io.micronaut.core.annotation.Introspected;
+
+@Introspected
+public class OutboxRecord {
+    
+    public static final String PENDING = "pending";
+    public static final String DONE = "done";
+
+    private String type;
+    private String id;
+    private String callbackUrl;
+    private String traceId;
+    private long expiresAt;
+    private TokenResponse token;
+
+    public OutboxRecord() {
+    }
+
+    public OutboxRecord(String type, String id, String callbackUrl, String traceId, long expiresAt, TokenResponse token) {
+        this.type = type;
+        this.id = id;
+        this.callbackUrl = callbackUrl;
+        this.traceId = traceId;
+        this.expiresAt = expiresAt;
+        this.token = token;
+    }
+
+    public static OutboxRecord done(String id) {
+        return new OutboxRecord(DONE, id, null, null, 0L, null);
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getCallbackUrl() {
+        return callbackUrl;
+    }
+
+    public void setCallbackUrl(String callbackUrl) {
+        this.callbackUrl = callbackUrl;
+    }
+
+    public String getTraceId() {
+        return traceId;
+    }
+
+    public void setTraceId(String traceId) {
+        this.traceId = traceId;
+    }
+
+    public long getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(long expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+
+    public TokenResponse getToken() {
+        return token;
+    }
+
+    public void setToken(TokenResponse token) {
+        this.token = token;
+    }
+}
@@ -6,14 +6,15 @@ import io.micronaut.core.annotation.Introspected;
 public class PublicKeyResponse {
     
     private String publicKey;
-    private String algorithm = "RS256";
+    private String algorithm;
     private String keyId;
 
     public PublicKeyResponse() {
     }
 
-    public PublicKeyResponse(String publicKey, String keyId) {
+    public PublicKeyResponse(String publicKey, String algorithm, String keyId) {
         this.publicKey = publicKey;
+        this.algorithm = algorithm;
         this.keyId = keyId;
     }
 
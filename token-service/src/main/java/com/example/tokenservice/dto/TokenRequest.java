@@ -6,6 +6,10 @@ import jakarta.validation.constraints.NotBlank;
 @Introspected
 public class TokenRequest {
     
+    public static final String RESPONSE_MODE_INLINE = "inline";
+    public static final String GRANT_TYPE_CLIENT_CREDENTIALS = "client_credentials";
+    public static final String GRANT_TYPE_REFRESH_TOKEN = "refresh_token";
+    
     @NotBlank(message = "Client ID is required")
     private String clientId;
     
@@ -14,7 +18,13 @@ public class TokenRequest {
     
     private String scope;
     
-    private String grantType = "client_credentials";
+    private String grantType = GRANT_TYPE_CLIENT_CREDENTIALS;
+    
+    // "inline" returns the token in the response body instead of delivering it via callback
+    private String responseMode = "callback";
+    
+    // only used with the refresh_token grant
+    private String refreshToken;
 
     public String getClientId() {
         return clientId;
@@ -47,4 +57,20 @@ public class TokenRequest {
     public void setGrantType(String grantType) {
         this.grantType = grantType;
     }
+
+    public String getResponseMode() {
+        return responseMode;
+    }
+
+    public void setResponseMode(String responseMode) {
+        this.responseMode = responseMode;
+    }
+
+    public String getRefreshToken() {
+        return refreshToken;
+    }
+
+    public void setRefreshToken(String refreshToken) {
+        this.refreshToken = refreshToken;
+    }
 }
@@ -10,6 +10,7 @@ public class TokenResponse {
     private Long expiresIn;
     private String scope;
     private String issuedAt;
+    private String refreshToken;
 
     public TokenResponse() {
     }
@@ -60,4 +61,12 @@ public class TokenResponse {
     public void setIssuedAt(String issuedAt) {
         this.issuedAt = issuedAt;
     }
+
+    public String getRefreshToken() {
+        return refreshToken;
+    }
+
+    public void setRefreshToken(String refreshToken) {
+        this.refreshToken = refreshToken;
+    }
 }
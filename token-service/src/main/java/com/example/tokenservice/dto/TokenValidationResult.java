@@ -0,0 +1,79 @@
+package com.example.tokenservice.dto;
+
+import io.micronaut.core.annotation.Introspected;
+
+@Introspected
+public class TokenValidationResult {
+
+    public enum Status {
+        VALID,
+        REVOKED,
+        EXPIRED,
+        INVALID
+    }
+
+    private Status status;
+    private String subject;
+    private String clientId;
+    private String scope;
+    private Long expiresAt;
+
+    public TokenValidationResult() {
+    }
+
+    public TokenValidationResult(Status status) {
+        this.status = status;
+    }
+
+    public TokenValidationResult(Status status, String subject, String clientId, String scope, Long expiresAt) {
+        this.status = status;
+        this.subject = subject;
+        this.clientId = clientId;
+        this.scope = scope;
+        this.expiresAt = expiresAt;
+    }
+
+    public boolean isValid() {
+        return status == Status.VALID;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+
+    public String getSubject() {
+        return subject;
+    }
+
+    public void setSubject(String subject) {
+        this.subject = subject;
+    }
+
+    public String getClientId() {
+        return clientId;
+    }
+
+    public void setClientId(String clientId) {
+        this.clientId = clientId;
+    }
+
+    public String getScope() {
+        return scope;
+    }
+
+    public void setScope(String scope) {
+        this.scope = scope;
+    }
+
+    public Long getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(Long expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+}
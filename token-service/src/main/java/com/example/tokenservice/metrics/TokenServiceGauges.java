@@ -0,0 +1,45 @@
+package com.example.tokenservice.metrics;
+
+import com.example.tokenservice.service.AdmissionLimiter;
+import com.example.tokenservice.service.AuditLog;
+import com.example.tokenservice.service.CallbackDeliveryService;
+import com.example.tokenservice.service.TokenBlacklistService;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.inject.Singleton;
+
+// Gauges read the services' own counters at scrape time. Not a MeterBinder, because binders are applied
+// while the registry is built and these services already depend on the registry through TokenMetrics;
+// TokenServiceStartup creates this bean once the server is bound.
+@Singleton
+public class TokenServiceGauges {
+    
+    public TokenServiceGauges(MeterRegistry meterRegistry,
+                              CallbackDeliveryService callbackDeliveryService,
+                              TokenBlacklistService tokenBlacklistService,
+                              AdmissionLimiter admissionLimiter,
+                              AuditLog auditLog) {
+        Gauge.builder("token.callback.queue.size", callbackDeliveryService, CallbackDeliveryService::getQueuedDeliveries)
+                .description("Callback deliveries waiting for a per-destination concurrency slot")
+                .register(meterRegistry);
+        Gauge.builder("token.callback.in.flight", callbackDeliveryService, CallbackDeliveryService::getInFlightDeliveries)
+                .description("Callback deliveries currently being attempted, retries and backoff included")
+                .register(meterRegistry);
+        Gauge.builder("token.blacklist.size", tokenBlacklistService, TokenBlacklistService::getRevokedTokenCount)
+                .description("Revoked tokens that have not expired yet")
+                .register(meterRegistry);
+        Gauge.builder("token.admission.limit", admissionLimiter, AdmissionLimiter::getLimit)
+                .description("Current adaptive concurrency limit for token issuance")
+                .register(meterRegistry);
+        Gauge.builder("token.admission.in.flight", admissionLimiter, AdmissionLimiter::getInFlight)
+                .description("Token issuance requests currently admitted")
+                .register(meterRegistry);
+        Gauge.builder("token.audit.pending", auditLog, AuditLog::getPendingEvents)
+                .description("Audit events published but not yet written")
+                .register(meterRegistry);
+        FunctionCounter.builder("token.audit.dropped", auditLog, AuditLog::getDroppedEvents)
+                .description("Audit events dropped because the ring was full")
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.tokenservice.service;
+
+import io.micronaut.context.annotation.Property;
+import jakarta.inject.Singleton;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Singleton
+public class AdmissionLimiter {
+    
+    private static final Logger LOG = LoggerFactory.getLogger(AdmissionLimiter.class);
+    
+    private static final double DECREASE_FACTOR = 0.9;
+    
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong lastDecreaseAt = new AtomicLong();
+    private final boolean enabled;
+    private final long targetLatencyNanos;
+    private final int minLimit;
+    private final int maxLimit;
+    private final long decreaseIntervalNanos;
+    private volatile double limit;
+    
+    public AdmissionLimiter(@Property(name = "token.admission.enabled", defaultValue = "true") boolean enabled,
+                            @Property(name = "token.admission.target-latency", defaultValue = "50") long targetLatencyMs,
+                            @Property(name = "token.admission.initial-limit", defaultValue = "64") int initialLimit,
+                            @Property(name = "token.admission.min-limit", defaultValue = "4") int minLimit,
+                            @Property(name = "token.admission.max-limit", defaultValue = "256") int maxLimit) {
+        this.enabled = enabled;
+        this.targetLatencyNanos = targetLatencyMs * 1_000_000;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        // at most one decrease per target latency, so one slow burst does not collapse the limit
+        this.decreaseIntervalNanos = targetLatencyNanos;
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+        LOG.info("Admission limiter initialized, enabled: {}, target latency: {}ms, limit: {}", enabled, targetLatencyMs, limit);
+    }
+    
+    public boolean tryAcquire() {
+        if (!enabled) {
+            return true;
+        }
+        while (true) {
+            int current = inFlight.get();
+            if (current >= (int) limit) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+    
+    // frees the slot without feeding back a latency, for requests that were rejected before they signed anything
+    public void release() {
+        if (enabled) {
+            inFlight.decrementAndGet();
+        }
+    }
+    
+    // AIMD on the observed signing plus enqueue latency: grow by one per limit's worth of fast requests, shrink by 10% when slow
+    public void release(long latencyNanos) {
+        if (!enabled) {
+            return;
+        }
+        inFlight.decrementAndGet();
+        double current = limit;
+        if (latencyNanos > targetLatencyNanos) {
+            long now = System.nanoTime();
+            long last = lastDecreaseAt.get();
+            if (now - last >= decreaseIntervalNanos && lastDecreaseAt.compareAndSet(last, now)) {
+                limit = Math.max(minLimit, current * DECREASE_FACTOR);
+                LOG.debug("Admission limit decreased to {} after {}ms issuance", (int) limit, latencyNanos / 1_000_000);
+            }
+        } else if (current < maxLimit) {
+            // lost updates between racing threads only slow the increase down, which is harmless
+            limit = Math.min(maxLimit, current + 1.0 / current);
+        }
+    }
+    
+    public int getLimit() {
+        return (int) limit;
+    }
+    
+    public int getInFlight() {
+        return inFlight.get();
+    }
+}
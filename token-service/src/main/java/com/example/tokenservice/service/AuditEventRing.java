@@ -0,0 +1,101 @@
+package com.example.tokenservice.service;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Bounded multi-producer / single-consumer ring of fixed-layout audit events. Every slot is preallocated
+// as a column in parallel arrays, so publishing only claims a sequence with a CAS, stores primitives and
+// references the caller already holds, and releases the slot. A full ring drops the event instead of blocking.
+public class AuditEventRing {
+    
+    @FunctionalInterface
+    public interface EventConsumer {
+        void accept(byte type, long timestamp, String clientId, String traceId, String detail, long tokenKey, long expiresAt);
+    }
+    
+    private final byte[] types;
+    private final long[] timestamps;
+    private final String[] clientIds;
+    private final String[] traceIds;
+    private final String[] details;
+    private final long[] tokenKeys;
+    private final long[] expiries;
+    // slot -> sequence + 1 once the producer finished writing it, so a stale lap never looks published
+    private final AtomicLongArray published;
+    private final AtomicLong claimed = new AtomicLong();
+    private final AtomicLong consumed = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final int mask;
+    
+    public AuditEventRing(int capacity) {
+        int size = Integer.highestOneBit(Math.max(capacity, 64) - 1) << 1;
+        this.types = new byte[size];
+        this.timestamps = new long[size];
+        this.clientIds = new String[size];
+        this.traceIds = new String[size];
+        this.details = new String[size];
+        this.tokenKeys = new long[size];
+        this.expiries = new long[size];
+        this.published = new AtomicLongArray(size);
+        this.mask = size - 1;
+    }
+    
+    public boolean tryPublish(byte type, long timestamp, String clientId, String traceId, String detail,
+                              long tokenKey, long expiresAt) {
+        long sequence;
+        do {
+            sequence = claimed.get();
+            if (sequence - consumed.get() > mask) {
+                dropped.incrementAndGet();
+                return false;
+            }
+        } while (!claimed.compareAndSet(sequence, sequence + 1));
+        
+        int slot = (int) (sequence & mask);
+        types[slot] = type;
+        timestamps[slot] = timestamp;
+        clientIds[slot] = clientId;
+        traceIds[slot] = traceId;
+        details[slot] = detail;
+        tokenKeys[slot] = tokenKey;
+        expiries[slot] = expiresAt;
+        published.lazySet(slot, sequence + 1);
+        return true;
+    }
+    
+    // Single consumer only. Stops at the first slot a producer has claimed but not finished yet.
+    public int drain(EventConsumer consumer, int limit) {
+        long sequence = consumed.get();
+        int count = 0;
+        while (count < limit) {
+            int slot = (int) (sequence & mask);
+            if (published.get(slot) != sequence + 1) {
+                break;
+            }
+            consumer.accept(types[slot], timestamps[slot], clientIds[slot], traceIds[slot], details[slot],
+                    tokenKeys[slot], expiries[slot]);
+            // drop the references so a quiet ring does not pin old strings
+            clientIds[slot] = null;
+            traceIds[slot] = null;
+            details[slot] = null;
+            sequence++;
+            count++;
+        }
+        if (count > 0) {
+            consumed.lazySet(sequence);
+        }
+        return count;
+    }
+    
+    public long size() {
+        return claimed.get() - consumed.get();
+    }
+    
+    public long dropped() {
+        return dropped.get();
+    }
+    
+    public int capacity() {
+        return mask + 1;
+    }
+}
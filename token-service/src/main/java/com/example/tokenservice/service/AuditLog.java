@@ -0,0 +1,256 @@
+package com.example.tokenservice.service;
+
+import io.micronaut.context.annotation.Property;
+import jakarta.annotation.PreDestroy;
+import jakarta.inject.Singleton;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+@Singleton
+public class AuditLog {
+    
+    private static final Logger LOG = LoggerFactory.getLogger(AuditLog.class);
+    
+    public enum EventType {
+        ISSUED("issued"),
+        DELIVERED("delivered"),
+        DELIVERY_FAILED("delivery_failed"),
+        REVOKED("revoked"),
+        VALIDATED("validated");
+        
+        private static final EventType[] VALUES = values();
+        
+        private final String label;
+        
+        EventType(String label) {
+            this.label = label;
+        }
+        
+        public String getLabel() {
+            return label;
+        }
+    }
+    
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+    
+    private final AuditEventRing ring;
+    private final Path path;
+    private final int batchSize;
+    private final long maxFileBytes;
+    private final int maxFiles;
+    private final long idleParkNanos;
+    private final Thread writer;
+    private final StringBuilder line = new StringBuilder(256);
+    private volatile boolean running = true;
+    private OutputStream out;
+    private long fileBytes;
+    private long reportedDrops;
+    
+    public AuditLog(@Property(name = "token.audit.path", defaultValue = "") String auditPath,
+                    @Property(name = "token.audit.capacity", defaultValue = "65536") int capacity,
+                    @Property(name = "token.audit.batch-size", defaultValue = "512") int batchSize,
+                    @Property(name = "token.audit.max-file-size", defaultValue = "67108864") long maxFileBytes,
+                    @Property(name = "token.audit.max-files", defaultValue = "5") int maxFiles,
+                    @Property(name = "token.audit.idle-wait", defaultValue = "10") long idleWaitMs) {
+        this.path = auditPath == null || auditPath.isEmpty() ? null : Path.of(auditPath);
+        this.batchSize = batchSize;
+        this.maxFileBytes = maxFileBytes;
+        this.maxFiles = Math.max(1, maxFiles);
+        this.idleParkNanos = TimeUnit.MILLISECONDS.toNanos(idleWaitMs);
+        if (path == null) {
+            this.ring = null;
+            this.writer = null;
+            LOG.info("Audit log disabled");
+            return;
+        }
+        
+        this.ring = new AuditEventRing(capacity);
+        try {
+            if (path.getParent() != null) {
+                Files.createDirectories(path.getParent());
+            }
+            openFile();
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to open audit log: " + path, e);
+        }
+        this.writer = new Thread(this::drainLoop, "audit-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+        LOG.info("Audit log writing to {} with ring capacity: {}, max file size: {} bytes, max files: {}",
+                path, ring.capacity(), maxFileBytes, this.maxFiles);
+    }
+    
+    public boolean isEnabled() {
+        return ring != null;
+    }
+    
+    public void recordIssued(String clientId, String traceId, String scope, long tokenKey, long expiresAt) {
+        publish(EventType.ISSUED, clientId, traceId, scope, tokenKey, expiresAt);
+    }
+    
+    public void recordDelivery(boolean delivered, String traceId, String destination) {
+        publish(delivered ? EventType.DELIVERED : EventType.DELIVERY_FAILED, null, traceId, destination, 0L, 0L);
+    }
+    
+    public void recordRevoked(long tokenKey, long expiresAt, String reason) {
+        publish(EventType.REVOKED, null, null, reason, tokenKey, expiresAt);
+    }
+    
+    public void recordValidated(String clientId, String status, long tokenKey, long expiresAt) {
+        publish(EventType.VALIDATED, clientId, null, status, tokenKey, expiresAt);
+    }
+    
+    public long getPendingEvents() {
+        return ring != null ? ring.size() : 0L;
+    }
+    
+    public long getDroppedEvents() {
+        return ring != null ? ring.dropped() : 0L;
+    }
+    
+    private void publish(EventType type, String clientId, String traceId, String detail, long tokenKey, long expiresAt) {
+        if (ring != null) {
+            ring.tryPublish((byte) type.ordinal(), System.currentTimeMillis(), clientId, traceId, detail, tokenKey, expiresAt);
+        }
+    }
+    
+    private void drainLoop() {
+        while (running) {
+            try {
+                int drained = ring.drain(this::write, batchSize);
+                if (drained < batchSize) {
+                    // the ring is caught up: push the batch to the file and wait for more
+                    out.flush();
+                    reportDrops();
+                    if (drained == 0) {
+                        LockSupport.parkNanos(idleParkNanos);
+                    }
+                }
+            } catch (IOException | RuntimeException e) {
+                LOG.error("Failed to write audit log: {}", path, e);
+                LockSupport.parkNanos(TimeUnit.SECONDS.toNanos(1));
+            }
+        }
+        // the writer is the only consumer, so it also flushes what producers published before shutdown
+        try {
+            while (ring.drain(this::write, batchSize) > 0) {
+                reportDrops();
+            }
+            out.close();
+        } catch (IOException | RuntimeException e) {
+            LOG.error("Error closing audit log: {}", path, e);
+        }
+    }
+    
+    private void write(byte type, long timestamp, String clientId, String traceId, String detail,
+                       long tokenKey, long expiresAt) {
+        line.setLength(0);
+        line.append("{\"ts\":").append(timestamp)
+                .append(",\"type\":\"").append(EventType.VALUES[type].getLabel()).append('"');
+        appendField("client_id", clientId);
+        appendField("trace_id", traceId);
+        appendField("detail", detail);
+        if (tokenKey != 0L) {
+            line.append(",\"token_key\":\"");
+            for (int shift = 60; shift >= 0; shift -= 4) {
+                line.append(HEX[(int) (tokenKey >>> shift) & 0xF]);
+            }
+            line.append('"');
+        }
+        if (expiresAt != 0L) {
+            line.append(",\"expires_at\":").append(expiresAt);
+        }
+        line.append("}\n");
+        
+        byte[] bytes = line.toString().getBytes(StandardCharsets.UTF_8);
+        try {
+            if (fileBytes + bytes.length > maxFileBytes && fileBytes > 0) {
+                roll();
+            }
+            out.write(bytes);
+            fileBytes += bytes.length;
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to write audit event", e);
+        }
+    }
+    
+    private void appendField(String name, String value) {
+        if (value == null) {
+            return;
+        }
+        line.append(",\"").append(name).append("\":\"");
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                line.append('\\').append(c);
+            } else if (c < 0x20) {
+                line.append("\\u00").append(HEX[c >> 4]).append(HEX[c & 0xF]);
+            } else {
+                line.append(c);
+            }
+        }
+        line.append('"');
+    }
+    
+    // audit.ndjson -> audit.ndjson.1 -> ... -> audit.ndjson.<max-files - 1>, the oldest file falls off
+    private void roll() throws IOException {
+        out.close();
+        Files.deleteIfExists(rolled(maxFiles - 1));
+        for (int i = maxFiles - 2; i >= 1; i--) {
+            Path source = rolled(i);
+            if (Files.exists(source)) {
+                Files.move(source, rolled(i + 1), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        if (maxFiles > 1) {
+            Files.move(path, rolled(1), StandardCopyOption.REPLACE_EXISTING);
+        } else {
+            Files.delete(path);
+        }
+        openFile();
+    }
+    
+    private Path rolled(int index) {
+        return path.resolveSibling(path.getFileName() + "." + index);
+    }
+    
+    private void openFile() throws IOException {
+        out = new BufferedOutputStream(Files.newOutputStream(path, StandardOpenOption.CREATE, 
+                StandardOpenOption.WRITE, StandardOpenOption.APPEND), 64 * 1024);
+        fileBytes = Files.size(path);
+    }
+    
+    private void reportDrops() {
+        long dropped = ring.dropped();
+        if (dropped != reportedDrops) {
+            LOG.warn("Audit ring full, {} events dropped so far", dropped);
+            reportedDrops = dropped;
+        }
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        if (writer == null) {
+            return;
+        }
+        running = false;
+        LockSupport.unpark(writer);
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        LOG.info("Audit log shutdown");
+    }
+}
@@ -0,0 +1,150 @@
+package com.example.tokenservice.service;
+
+import com.example.tokenservice.dto.BatchTokenResponse;
+import com.example.tokenservice.dto.BatchTokenResult;
+import com.example.tokenservice.dto.TokenRequest;
+import com.example.tokenservice.dto.TokenResponse;
+import io.micronaut.context.annotation.Property;
+import jakarta.annotation.PreDestroy;
+import jakarta.inject.Singleton;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Singleton
+public class BatchTokenService {
+    
+    private static final Logger LOG = LoggerFactory.getLogger(BatchTokenService.class);
+    
+    private final JwtTokenService jwtTokenService;
+    private final ClientService clientService;
+    private final CallbackOutbox callbackOutbox;
+    private final ClientRateLimiter clientRateLimiter;
+    private final ExecutorService signingExecutor;
+    private final int parallelism;
+    private final int maxBatchSize;
+    
+    public BatchTokenService(JwtTokenService jwtTokenService,
+                             ClientService clientService,
+                             CallbackOutbox callbackOutbox,
+                             ClientRateLimiter clientRateLimiter,
+                             @Property(name = "token.batch.max-size", defaultValue = "500") int maxBatchSize,
+                             @Property(name = "token.batch.parallelism", defaultValue = "0") int parallelism) {
+        this.jwtTokenService = jwtTokenService;
+        this.clientService = clientService;
+        this.callbackOutbox = callbackOutbox;
+        this.clientRateLimiter = clientRateLimiter;
+        this.maxBatchSize = maxBatchSize;
+        // signing is CPU-bound, so more threads than cores only adds contention
+        this.parallelism = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadCount = new AtomicInteger();
+        this.signingExecutor = Executors.newFixedThreadPool(this.parallelism, r -> {
+            Thread thread = new Thread(r, "token-signing-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        LOG.info("Batch token service initialized with max batch size: {}, signing parallelism: {}", 
+                maxBatchSize, this.parallelism);
+    }
+    
+    public int getMaxBatchSize() {
+        return maxBatchSize;
+    }
+    
+    public BatchTokenResponse issueTokens(List<TokenRequest> requests, String traceId) {
+        int count = requests.size();
+        TokenResponse[] tokens = new TokenResponse[count];
+        String[] errors = new String[count];
+        String[] callbackUrls = new String[count];
+        
+        // one contiguous slice per signing thread rather than one task per token; admission runs inside the slices
+        // too, since a cold credential check costs a full secret hash and would otherwise serialize the batch
+        int chunkSize = (count + parallelism - 1) / parallelism;
+        List<CompletableFuture<Void>> slices = new ArrayList<>();
+        for (int start = 0; start < count; start += chunkSize) {
+            int from = start;
+            int to = Math.min(count, start + chunkSize);
+            slices.add(CompletableFuture.runAsync(() -> signSlice(requests, from, to, tokens, errors, callbackUrls, traceId), signingExecutor));
+        }
+        CompletableFuture.allOf(slices.toArray(new CompletableFuture[0])).join();
+        
+        Map<String, List<TokenResponse>> tokensByCallback = new LinkedHashMap<>();
+        List<BatchTokenResult> results = new ArrayList<>(count);
+        int issued = 0;
+        for (int i = 0; i < count; i++) {
+            String clientId = requests.get(i).getClientId();
+            if (errors[i] != null) {
+                results.add(new BatchTokenResult(clientId, "error", errors[i]));
+                continue;
+            }
+            tokensByCallback.computeIfAbsent(callbackUrls[i], url -> new ArrayList<>()).add(tokens[i]);
+            // persisted and handed to delivery below; whether the receiver accepts it is only known later
+            results.add(new BatchTokenResult(clientId, "queued", "Token queued for callback delivery"));
+            issued++;
+        }
+        
+        tokensByCallback.forEach((callbackUrl, callbackTokens) -> callbackOutbox.deliverAll(callbackUrl, callbackTokens, traceId));
+        
+        LOG.info("Batch issued {} of {} tokens to {} callback URLs, traceId: {}", 
+                issued, count, tokensByCallback.size(), traceId);
+        return new BatchTokenResponse(issued, count - issued, results);
+    }
+    
+    // null when the entry may be signed, with its callback URL stored at the entry's index; otherwise the reason
+    private String admit(TokenRequest entry, String[] callbackUrls, int index) {
+        // refresh tokens are redeemed one at a time on /oauth/token, a batch only issues fresh client credentials tokens
+        String grantType = entry.getGrantType();
+        if (grantType != null && !TokenRequest.GRANT_TYPE_CLIENT_CREDENTIALS.equals(grantType)) {
+            return "Unsupported grant type for batch issuance: " + grantType;
+        }
+        if (!clientService.validateClient(entry.getClientId(), entry.getClientSecret())) {
+            return "Invalid client credentials";
+        }
+        // after authentication, so entries with a guessed client id cannot drain the real client's bucket
+        if (clientRateLimiter.tryAcquire(entry.getClientId()) > 0) {
+            return "Rate limit exceeded";
+        }
+        String callbackUrl = clientService.getCallbackUrl(entry.getClientId());
+        if (callbackUrl == null || callbackUrl.isEmpty()) {
+            return "No callback URL registered for client";
+        }
+        callbackUrls[index] = callbackUrl;
+        return null;
+    }
+    
+    private void signSlice(List<TokenRequest> requests, int from, int to, 
+                           TokenResponse[] tokens, String[] errors, String[] callbackUrls, String traceId) {
+        try {
+            for (int i = from; i < to; i++) {
+                try {
+                    // entries are held to the same checks as /oauth/token before any of them costs a signature; every
+                    // admitted entry spends from its client's bucket, so a batch is no way around the per-client limit
+                    errors[i] = admit(requests.get(i), callbackUrls, i);
+                    if (errors[i] != null) {
+                        continue;
+                    }
+                    tokens[i] = jwtTokenService.generateToken(requests.get(i), traceId);
+                } catch (Exception e) {
+                    // never null, a null error would read as a signed entry
+                    errors[i] = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+                }
+            }
+        } finally {
+            MDC.remove("traceId");
+        }
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        signingExecutor.shutdown();
+    }
+}
@@ -1,113 +1,336 @@
 package com.example.tokenservice.service;
 
 import com.example.tokenservice.dto.TokenResponse;
+import com.example.tokenservice.metrics.TokenMetrics;
 import io.micronaut.http.HttpRequest;
-import io.micronaut.http.HttpResponse;
+import io.micronaut.http.MutableHttpRequest;
 import io.micronaut.http.client.HttpClient;
 import io.micronaut.http.client.annotation.Client;
 import io.micronaut.http.uri.UriBuilder;
 import io.micronaut.context.annotation.Property;
+import jakarta.annotation.PreDestroy;
 import jakarta.inject.Singleton;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.slf4j.MDC;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.util.retry.Retry;
 
 import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 @Singleton
 public class CallbackDeliveryService {
     
     private static final Logger LOG = LoggerFactory.getLogger(CallbackDeliveryService.class);
+    private static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
     
-    private final ExecutorService callbackExecutor;
     private final HttpClient httpClient;
+    private final AuditLog auditLog;
+    private final TokenMetrics tokenMetrics;
     private final int maxAttempts;
     private final long backoffMs;
+    private final long timeoutMs;
+    private final int maxConcurrencyPerDestination;
+    private final boolean batchingEnabled;
+    private final int batchMaxSize;
+    private final long batchWindowMs;
+    private final String batchPathSuffix;
+    private final long idleTimeoutMs;
+    private final ScheduledExecutorService idleSweeper;
+    private final Map<String, Destination> destinations = new ConcurrentHashMap<>();
+    private final Map<String, Batcher> batchers = new ConcurrentHashMap<>();
+    private final AtomicInteger queuedDeliveries = new AtomicInteger();
+    private final AtomicInteger inFlightDeliveries = new AtomicInteger();
     
     public CallbackDeliveryService(@Client HttpClient httpClient,
+                                  AuditLog auditLog,
+                                  TokenMetrics tokenMetrics,
                                   @Property(name = "token.callback.retry.max-attempts", defaultValue = "3") int maxAttempts,
-                                  @Property(name = "token.callback.retry.backoff", defaultValue = "1000") long backoffMs) {
+                                  @Property(name = "token.callback.retry.backoff", defaultValue = "1000") long backoffMs,
+                                  @Property(name = "token.callback.timeout", defaultValue = "5000") long timeoutMs,
+                                  @Property(name = "token.callback.max-concurrency-per-destination", defaultValue = "4") int maxConcurrencyPerDestination,
+                                  @Property(name = "token.callback.batching.enabled", defaultValue = "false") boolean batchingEnabled,
+                                  @Property(name = "token.callback.batching.max-size", defaultValue = "50") int batchMaxSize,
+                                  @Property(name = "token.callback.batching.window", defaultValue = "20") long batchWindowMs,
+                                  @Property(name = "token.callback.batching.path-suffix", defaultValue = "/batch") String batchPathSuffix,
+                                  @Property(name = "token.callback.idle-timeout", defaultValue = "300000") long idleTimeoutMs) {
         this.httpClient = httpClient;
+        this.auditLog = auditLog;
+        this.tokenMetrics = tokenMetrics;
         this.maxAttempts = maxAttempts;
         this.backoffMs = backoffMs;
-        this.callbackExecutor = Executors.newFixedThreadPool(5);
-        LOG.info("Callback delivery service initialized with max attempts: {}, backoff: {}ms", 
-                maxAttempts, backoffMs);
-    }
-    
-    public void deliverTokenAsync(String callbackUrl, TokenResponse tokenResponse, String traceId) {
-        CompletableFuture.runAsync(() -> {
-            try {
-                deliverTokenWithRetry(callbackUrl, tokenResponse, traceId);
-            } catch (Exception e) {
-                LOG.error("Failed to deliver token to callback URL: {}, traceId: {}", 
-                        callbackUrl, traceId, e);
+        this.timeoutMs = timeoutMs;
+        this.maxConcurrencyPerDestination = maxConcurrencyPerDestination;
+        this.batchingEnabled = batchingEnabled;
+        this.batchMaxSize = batchMaxSize;
+        this.batchWindowMs = batchWindowMs;
+        this.batchPathSuffix = batchPathSuffix;
+        // every distinct callback host keeps a sink subscription, so hosts that stop receiving are let go
+        this.idleTimeoutMs = Math.max(idleTimeoutMs, batchWindowMs);
+        this.idleSweeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "callback-idle-sweeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long sweepIntervalMs = Math.max(1000, this.idleTimeoutMs / 2);
+        idleSweeper.scheduleWithFixedDelay(this::expireIdle, sweepIntervalMs, sweepIntervalMs, TimeUnit.MILLISECONDS);
+        LOG.info("Callback delivery service initialized with max attempts: {}, backoff: {}ms, timeout: {}ms, per-destination concurrency: {}, batching: {}", 
+                maxAttempts, backoffMs, timeoutMs, maxConcurrencyPerDestination, batchingEnabled);
+    }
+    
+    public CompletableFuture<Boolean> deliverTokenAsync(String callbackUrl, TokenResponse tokenResponse, String traceId) {
+        return deliverTokenAsync(callbackUrl, tokenResponse, traceId, null);
+    }
+    
+    public CompletableFuture<Boolean> deliverTokenAsync(String callbackUrl, TokenResponse tokenResponse, String traceId, 
+                                                        String idempotencyKey) {
+        CompletableFuture<Boolean> result = new CompletableFuture<>();
+        if (batchingEnabled) {
+            PendingDelivery delivery = new PendingDelivery(tokenResponse, traceId, idempotencyKey, result);
+            // a batcher retired by the idle sweep in the meantime refuses the delivery, and the next lookup creates a fresh one
+            while (!batcherFor(callbackUrl).add(delivery)) {
+                Thread.onSpinWait();
             }
-        }, callbackExecutor);
+            return result;
+        }
+        
+        URI uri = UriBuilder.of(callbackUrl).build();
+        MutableHttpRequest<TokenResponse> request = HttpRequest.POST(uri, tokenResponse);
+        if (idempotencyKey != null) {
+            // redeliveries after a restart reuse the key so receivers can drop duplicates
+            request.header(IDEMPOTENCY_KEY_HEADER, idempotencyKey);
+        }
+        submit(uri, tracked(deliverWithRetry(request, traceId))
+                .doOnNext(result::complete)
+                .doOnCancel(() -> result.complete(false)));
+        return result;
+    }
+    
+    // tokens that are already grouped by callback URL (batch issuance) go out as one request whether or not
+    // batching of single deliveries is enabled
+    public CompletableFuture<Boolean> deliverTokensAsync(String callbackUrl, List<TokenResponse> tokens, String traceId, 
+                                                         List<String> idempotencyKeys) {
+        if (tokens.size() == 1) {
+            return deliverTokenAsync(callbackUrl, tokens.get(0), traceId, 
+                    idempotencyKeys == null ? null : idempotencyKeys.get(0));
+        }
+        URI batchUri = UriBuilder.of(callbackUrl + batchPathSuffix).build();
+        return postBatch(batchUri, tokens, idempotencyKeys == null ? List.of() : idempotencyKeys, traceId);
+    }
+    
+    private void deliverBatch(URI batchUri, List<PendingDelivery> batch) {
+        List<TokenResponse> tokens = new ArrayList<>(batch.size());
+        List<String> keys = new ArrayList<>(batch.size());
+        for (PendingDelivery delivery : batch) {
+            tokens.add(delivery.tokenResponse);
+            keys.add(delivery.idempotencyKey);
+        }
+        postBatch(batchUri, tokens, keys, batch.get(0).traceId)
+                .thenAccept(delivered -> batch.forEach(delivery -> delivery.result.complete(delivered)));
+    }
+    
+    private CompletableFuture<Boolean> postBatch(URI batchUri, List<TokenResponse> tokens, List<String> keys, String traceId) {
+        CompletableFuture<Boolean> result = new CompletableFuture<>();
+        MutableHttpRequest<List<TokenResponse>> request = HttpRequest.POST(batchUri, tokens);
+        // keys are positional, one per array element, so a batch with any keyless token sends none at all
+        if (keys.size() == tokens.size() && !keys.contains(null)) {
+            request.header(IDEMPOTENCY_KEY_HEADER, String.join(",", keys));
+        }
+        submit(batchUri, tracked(deliverWithRetry(request, traceId))
+                .doOnNext(result::complete)
+                .doOnCancel(() -> result.complete(false)));
+        return result;
+    }
+    
+    private Mono<Boolean> deliverWithRetry(MutableHttpRequest<?> request, String traceId) {
+        URI uri = request.getUri();
+        // non-2xx responses surface as HttpClientResponseException, so every failure goes through the same retry path
+        return Mono.defer(() -> {
+                    tokenMetrics.recordCallbackAttempt();
+                    return Mono.from(httpClient.exchange(request, String.class));
+                })
+                .timeout(Duration.ofMillis(timeoutMs))
+                .doOnError(e -> LOG.warn("Failed to deliver token to callback URL: {}, traceId: {}, error: {}", 
+                        uri, traceId, e.getMessage()))
+                .retryWhen(Retry.backoff(Math.max(0, maxAttempts - 1), Duration.ofMillis(backoffMs)).jitter(0.0))
+                .map(response -> {
+                    tokenMetrics.recordCallbackOutcome(true);
+                    auditLog.recordDelivery(true, traceId, uri.getHost());
+                    LOG.debug("Token delivered successfully to callback URL: {}, traceId: {}", uri, traceId);
+                    return true;
+                })
+                .onErrorResume(e -> {
+                    tokenMetrics.recordCallbackOutcome(false);
+                    auditLog.recordDelivery(false, traceId, uri.getHost());
+                    LOG.error("Failed to deliver token after {} attempts to URL: {}, traceId: {}", 
+                            maxAttempts, uri, traceId, e);
+                    return Mono.just(false);
+                });
+    }
+    
+    // queued until the destination's flatMap subscribes to it, in flight until it completes or is cancelled
+    private Mono<Boolean> tracked(Mono<Boolean> delivery) {
+        queuedDeliveries.incrementAndGet();
+        return delivery
+                .doOnSubscribe(subscription -> {
+                    queuedDeliveries.decrementAndGet();
+                    inFlightDeliveries.incrementAndGet();
+                })
+                .doFinally(signal -> inFlightDeliveries.decrementAndGet());
+    }
+    
+    public int getQueuedDeliveries() {
+        return queuedDeliveries.get();
+    }
+    
+    public int getInFlightDeliveries() {
+        return inFlightDeliveries.get();
+    }
+    
+    private Batcher batcherFor(String callbackUrl) {
+        return batchers.computeIfAbsent(callbackUrl, 
+                url -> new Batcher(UriBuilder.of(url + batchPathSuffix).build(), batchMaxSize, batchWindowMs));
+    }
+    
+    private void submit(URI uri, Mono<Boolean> delivery) {
+        // limits apply per host so one slow receiver cannot occupy the capacity of the others
+        String key = uri.getScheme() + "://" + uri.getAuthority();
+        while (!destinations.computeIfAbsent(key, k -> new Destination(k, maxConcurrencyPerDestination)).submit(delivery)) {
+            Thread.onSpinWait();
+        }
     }
     
-    private void deliverTokenWithRetry(String callbackUrl, TokenResponse tokenResponse, String traceId) {
-        int attempt = 0;
-        Exception lastException = null;
+    private void expireIdle() {
+        try {
+            long idleSince = System.currentTimeMillis() - idleTimeoutMs;
+            int before = destinations.size() + batchers.size();
+            // retiring inside compute keeps a concurrent lookup from handing out the instance being retired
+            batchers.keySet().forEach(url -> batchers.computeIfPresent(url, (k, batcher) -> batcher.retireIfIdle(idleSince) ? null : batcher));
+            destinations.keySet().forEach(host -> destinations.computeIfPresent(host, 
+                    (k, destination) -> destination.retireIfIdle(idleSince) ? null : destination));
+            int expired = before - destinations.size() - batchers.size();
+            if (expired > 0) {
+                LOG.debug("Expired {} idle callback destinations and batchers", expired);
+            }
+        } catch (Exception e) {
+            LOG.error("Error expiring idle callback destinations", e);
+        }
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        idleSweeper.shutdownNow();
+        batchers.values().forEach(Batcher::dispose);
+        batchers.clear();
+        destinations.values().forEach(Destination::dispose);
+        destinations.clear();
+        LOG.info("Callback delivery service shutdown");
+    }
+    
+    private static final class Destination {
+        private final Sinks.Many<Mono<Boolean>> queue = Sinks.many().unicast().onBackpressureBuffer();
+        private final Disposable subscription;
+        private int outstanding;
+        private long lastUsedAt = System.currentTimeMillis();
+        private boolean retired;
+        
+        private Destination(String name, int maxConcurrency) {
+            this.subscription = queue.asFlux()
+                    .flatMap(delivery -> delivery, maxConcurrency)
+                    .subscribe(delivered -> { }, e -> LOG.error("Callback destination {} stopped", name, e));
+        }
+        
+        // a unicast sink rejects concurrent emitters, so producers take turns on the monitor
+        private synchronized boolean submit(Mono<Boolean> delivery) {
+            if (retired) {
+                return false;
+            }
+            outstanding++;
+            lastUsedAt = System.currentTimeMillis();
+            queue.emitNext(delivery.doFinally(signal -> finished()), Sinks.EmitFailureHandler.FAIL_FAST);
+            return true;
+        }
+        
+        private synchronized void finished() {
+            outstanding--;
+            lastUsedAt = System.currentTimeMillis();
+        }
         
-        while (attempt < maxAttempts) {
-            attempt++;
-            try {
-                MDC.put("traceId", traceId);
-                
-                URI uri = UriBuilder.of(callbackUrl).build();
-                HttpRequest<TokenResponse> request = HttpRequest.POST(uri, tokenResponse);
-                
-                HttpResponse<String> response = httpClient.toBlocking().exchange(request, String.class);
-                
-                if (response.getStatus().getCode() >= 200 && response.getStatus().getCode() < 300) {
-                    LOG.info("Token delivered successfully to callback URL: {} on attempt: {}, traceId: {}", 
-                            callbackUrl, attempt, traceId);
-                    return;
-                } else {
-                    LOG.warn("Callback returned status: {} for URL: {}, attempt: {}, traceId: {}", 
-                            response.getStatus().getCode(), callbackUrl, attempt, traceId);
-                }
-            } catch (Exception e) {
-                lastException = e;
-                LOG.warn("Failed to deliver token to callback URL: {} on attempt: {}, traceId: {}", 
-                        callbackUrl, attempt, traceId, e);
-                
-                if (attempt < maxAttempts) {
-                    try {
-                        long delay = backoffMs * (long) Math.pow(2, attempt - 1);
-                        LOG.debug("Waiting {}ms before retry, traceId: {}", delay, traceId);
-                        TimeUnit.MILLISECONDS.sleep(delay);
-                    } catch (InterruptedException ie) {
-                        Thread.currentThread().interrupt();
-                        break;
-                    }
-                }
-            } finally {
-                MDC.remove("traceId");
+        private synchronized boolean retireIfIdle(long idleSince) {
+            if (outstanding > 0 || lastUsedAt > idleSince) {
+                return false;
             }
+            retired = true;
+            subscription.dispose();
+            return true;
         }
         
-        LOG.error("Failed to deliver token after {} attempts to URL: {}, traceId: {}", 
-                maxAttempts, callbackUrl, traceId, lastException);
+        private void dispose() {
+            subscription.dispose();
+        }
     }
     
-    public void shutdown() {
-        if (callbackExecutor != null && !callbackExecutor.isShutdown()) {
-            callbackExecutor.shutdown();
-            try {
-                if (!callbackExecutor.awaitTermination(5, TimeUnit.SECONDS)) {
-                    callbackExecutor.shutdownNow();
-                }
-            } catch (InterruptedException e) {
-                callbackExecutor.shutdownNow();
-                Thread.currentThread().interrupt();
+    private static final class PendingDelivery {
+        private final TokenResponse tokenResponse;
+        private final String traceId;
+        private final String idempotencyKey;
+        private final CompletableFuture<Boolean> result;
+        
+        private PendingDelivery(TokenResponse tokenResponse, String traceId, String idempotencyKey, 
+                                CompletableFuture<Boolean> result) {
+            this.tokenResponse = tokenResponse;
+            this.traceId = traceId;
+            this.idempotencyKey = idempotencyKey;
+            this.result = result;
+        }
+    }
+    
+    // collects deliveries for one callback URL until the batch is full or the window closes
+    private final class Batcher {
+        private final Sinks.Many<PendingDelivery> queue = Sinks.many().unicast().onBackpressureBuffer();
+        private final Disposable subscription;
+        private long lastAddedAt = System.currentTimeMillis();
+        private boolean retired;
+        
+        private Batcher(URI batchUri, int maxSize, long windowMs) {
+            this.subscription = queue.asFlux()
+                    .bufferTimeout(maxSize, Duration.ofMillis(windowMs))
+                    .subscribe(batch -> deliverBatch(batchUri, batch), 
+                            e -> LOG.error("Callback batcher for {} stopped", batchUri, e));
+        }
+        
+        private synchronized boolean add(PendingDelivery delivery) {
+            if (retired) {
+                return false;
             }
-            LOG.info("Callback delivery service shutdown");
+            lastAddedAt = System.currentTimeMillis();
+            queue.emitNext(delivery, Sinks.EmitFailureHandler.FAIL_FAST);
+            return true;
+        }
+        
+        // the idle timeout is at least one window, so the buffer has been flushed; completing flushes it regardless
+        private synchronized boolean retireIfIdle(long idleSince) {
+            if (lastAddedAt > idleSince) {
+                return false;
+            }
+            retired = true;
+            queue.emitComplete(Sinks.EmitFailureHandler.FAIL_FAST);
+            return true;
+        }
+        
+        private void dispose() {
+            subscription.dispose();
         }
     }
 }
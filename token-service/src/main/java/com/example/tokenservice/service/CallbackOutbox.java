@@ -0,0 +1,323 @@
+package com.example.tokenservice.service;
+
+import com.example.tokenservice.dto.OutboxRecord;
+import com.example.tokenservice.dto.TokenResponse;
+import io.micronaut.context.annotation.Property;
+import io.micronaut.json.JsonMapper;
+import jakarta.annotation.PreDestroy;
+import jakarta.inject.Singleton;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+@Singleton
+public class CallbackOutbox {
+    
+    private static final Logger LOG = LoggerFactory.getLogger(CallbackOutbox.class);
+    // redelivery backoff doubles per failed round up to this many doublings
+    private static final int MAX_REDELIVERY_DOUBLINGS = 5;
+    
+    private final CallbackDeliveryService callbackDeliveryService;
+    private final JsonMapper jsonMapper;
+    private final Path path;
+    private final long compactionThreshold;
+    private final long redeliveryIntervalMs;
+    private final Map<String, OutboxRecord> pending = new ConcurrentHashMap<>();
+    // record id -> failed delivery rounds so far, only touched on the dispatcher
+    private final Map<String, Integer> failedRounds = new ConcurrentHashMap<>();
+    // a lock rather than a monitor: fsync under synchronized would pin the carrier of a virtual request thread
+    private final ReentrantLock appendLock = new ReentrantLock();
+    private final ScheduledExecutorService dispatcher;
+    private FileChannel channel;
+    private List<OutboxRecord> awaitingReplay = List.of();
+    private long completedSinceCompaction;
+    
+    public CallbackOutbox(CallbackDeliveryService callbackDeliveryService,
+                          JsonMapper jsonMapper,
+                          @Property(name = "token.callback.outbox.path", defaultValue = "") String outboxPath,
+                          @Property(name = "token.callback.outbox.compaction-threshold", defaultValue = "10000") long compactionThreshold,
+                          @Property(name = "token.callback.outbox.redelivery-interval", defaultValue = "30000") long redeliveryIntervalMs) {
+        this.callbackDeliveryService = callbackDeliveryService;
+        this.jsonMapper = jsonMapper;
+        this.compactionThreshold = compactionThreshold;
+        this.redeliveryIntervalMs = Math.max(1L, redeliveryIntervalMs);
+        this.path = outboxPath == null || outboxPath.isEmpty() ? null : Path.of(outboxPath);
+        this.dispatcher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "outbox-dispatcher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        
+        if (path == null) {
+            LOG.info("Callback outbox disabled, deliveries are not persisted");
+            return;
+        }
+        try {
+            List<OutboxRecord> unfinished = new ArrayList<>();
+            long now = System.currentTimeMillis();
+            for (OutboxRecord record : load()) {
+                if (record.getExpiresAt() <= now) {
+                    LOG.info("Dropping expired outbox delivery: {}, traceId: {}", record.getId(), record.getTraceId());
+                    continue;
+                }
+                // tracked as pending before anything can append, so no compaction can drop a record still owed a delivery
+                pending.put(record.getId(), record);
+                unfinished.add(record);
+            }
+            appendLock.lock();
+            try {
+                rewrite(unfinished);
+            } finally {
+                appendLock.unlock();
+            }
+            awaitingReplay = unfinished;
+            LOG.info("Callback outbox opened at {} with {} unfinished deliveries", path, unfinished.size());
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to open callback outbox: " + path, e);
+        }
+    }
+    
+    public void deliver(String callbackUrl, TokenResponse tokenResponse, String traceId) {
+        if (path == null) {
+            callbackDeliveryService.deliverTokenAsync(callbackUrl, tokenResponse, traceId);
+            return;
+        }
+        
+        long expiresAt = System.currentTimeMillis() + tokenResponse.getExpiresIn() * 1000;
+        OutboxRecord record = new OutboxRecord(OutboxRecord.PENDING, UUID.randomUUID().toString(), 
+                callbackUrl, traceId, expiresAt, tokenResponse);
+        // registered before the append so a concurrent compaction cannot drop it, and on disk
+        // before the caller is told the token is on its way
+        pending.put(record.getId(), record);
+        append(List.of(record), true);
+        dispatch(record);
+    }
+    
+    // one group per callback URL from batch issuance: a single append and fsync, and a single batch request
+    public void deliverAll(String callbackUrl, List<TokenResponse> tokenResponses, String traceId) {
+        if (path == null) {
+            callbackDeliveryService.deliverTokensAsync(callbackUrl, tokenResponses, traceId, null);
+            return;
+        }
+        
+        long now = System.currentTimeMillis();
+        List<OutboxRecord> records = new ArrayList<>(tokenResponses.size());
+        List<String> ids = new ArrayList<>(tokenResponses.size());
+        for (TokenResponse tokenResponse : tokenResponses) {
+            OutboxRecord record = new OutboxRecord(OutboxRecord.PENDING, UUID.randomUUID().toString(), 
+                    callbackUrl, traceId, now + tokenResponse.getExpiresIn() * 1000, tokenResponse);
+            pending.put(record.getId(), record);
+            records.add(record);
+            ids.add(record.getId());
+        }
+        append(records, true);
+        callbackDeliveryService.deliverTokensAsync(callbackUrl, tokenResponses, traceId, ids)
+                .whenComplete((delivered, e) -> completeLater(records, Boolean.TRUE.equals(delivered)));
+    }
+    
+    // called once the server is bound; the records are already pending and on disk, only the dispatch waits,
+    // and the per-host limits in CallbackDeliveryService pace the burst
+    public synchronized void replayUnfinished() {
+        List<OutboxRecord> unfinished = awaitingReplay;
+        awaitingReplay = List.of();
+        if (!unfinished.isEmpty()) {
+            dispatcher.submit(() -> replay(unfinished));
+        }
+    }
+    
+    public int getPendingCount() {
+        return pending.size();
+    }
+    
+    private void dispatch(OutboxRecord record) {
+        callbackDeliveryService.deliverTokenAsync(record.getCallbackUrl(), record.getToken(), record.getTraceId(), record.getId())
+                .whenComplete((delivered, e) -> completeLater(List.of(record), Boolean.TRUE.equals(delivered)));
+    }
+    
+    // completions arrive on HTTP client threads; the append and a possible compaction belong on the dispatcher
+    private void completeLater(List<OutboxRecord> records, boolean delivered) {
+        try {
+            dispatcher.execute(() -> complete(records, delivered));
+        } catch (RejectedExecutionException e) {
+            LOG.debug("Outbox shut down before completion of {} deliveries was recorded", records.size());
+        }
+    }
+    
+    private void complete(List<OutboxRecord> records, boolean delivered) {
+        if (!delivered) {
+            // a receiver that is down past the retry budget still gets its token once it is back, while the token lives
+            records.forEach(this::scheduleRedelivery);
+            return;
+        }
+        List<OutboxRecord> done = new ArrayList<>(records.size());
+        for (OutboxRecord record : records) {
+            pending.remove(record.getId());
+            failedRounds.remove(record.getId());
+            done.add(OutboxRecord.done(record.getId()));
+        }
+        // a lost completion only causes a redelivery, so it does not need its own fsync
+        append(done, false);
+    }
+    
+    private void scheduleRedelivery(OutboxRecord record) {
+        int rounds = failedRounds.merge(record.getId(), 1, Integer::sum);
+        long delayMs = redeliveryIntervalMs << Math.min(rounds - 1, MAX_REDELIVERY_DOUBLINGS);
+        LOG.warn("Callback delivery failed: {} to URL: {}, redelivering in {}ms, traceId: {}", 
+                record.getId(), record.getCallbackUrl(), delayMs, record.getTraceId());
+        try {
+            dispatcher.schedule(() -> redeliver(record), delayMs, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            LOG.debug("Outbox shut down, delivery {} stays pending for the next start", record.getId());
+        }
+    }
+    
+    // false when the token expired and the record was closed instead
+    private boolean redeliver(OutboxRecord record) {
+        long remainingSeconds = (record.getExpiresAt() - System.currentTimeMillis()) / 1000;
+        if (remainingSeconds <= 0) {
+            LOG.info("Dropping expired outbox delivery: {}, traceId: {}", record.getId(), record.getTraceId());
+            pending.remove(record.getId());
+            failedRounds.remove(record.getId());
+            append(List.of(OutboxRecord.done(record.getId())), false);
+            return false;
+        }
+        // receivers compute expiry from expires_in, so report what is left rather than the original lifetime
+        record.getToken().setExpiresIn(remainingSeconds);
+        dispatch(record);
+        return true;
+    }
+    
+    private void replay(List<OutboxRecord> unfinished) {
+        int replayed = 0;
+        for (OutboxRecord record : unfinished) {
+            if (redeliver(record)) {
+                replayed++;
+            }
+        }
+        LOG.info("Replayed {} unfinished callback deliveries", replayed);
+    }
+    
+    private void append(List<OutboxRecord> records, boolean durable) {
+        try {
+            ByteArrayOutputStream lines = new ByteArrayOutputStream();
+            int completed = 0;
+            for (OutboxRecord record : records) {
+                lines.write(jsonMapper.writeValueAsBytes(record));
+                lines.write('\n');
+                if (OutboxRecord.DONE.equals(record.getType())) {
+                    completed++;
+                }
+            }
+            ByteBuffer buffer = ByteBuffer.wrap(lines.toByteArray());
+            appendLock.lock();
+            try {
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                if (durable) {
+                    channel.force(false);
+                }
+                completedSinceCompaction += completed;
+                if (completed > 0 && completedSinceCompaction >= compactionThreshold) {
+                    rewrite(new ArrayList<>(pending.values()));
+                }
+            } finally {
+                appendLock.unlock();
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to write callback outbox record", e);
+        }
+    }
+    
+    private List<OutboxRecord> load() throws IOException {
+        Map<String, OutboxRecord> unfinished = new LinkedHashMap<>();
+        if (Files.exists(path)) {
+            try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (line.isEmpty()) {
+                        continue;
+                    }
+                    OutboxRecord record;
+                    try {
+                        record = jsonMapper.readValue(line, OutboxRecord.class);
+                    } catch (IOException e) {
+                        // only the last line can be torn by a crash mid-write
+                        LOG.warn("Skipping unreadable outbox record: {}", e.getMessage());
+                        continue;
+                    }
+                    if (OutboxRecord.PENDING.equals(record.getType())) {
+                        unfinished.put(record.getId(), record);
+                    } else {
+                        unfinished.remove(record.getId());
+                    }
+                }
+            }
+        }
+        return new ArrayList<>(unfinished.values());
+    }
+    
+    private void rewrite(List<OutboxRecord> records) throws IOException {
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        Path compacted = path.resolveSibling(path.getFileName() + ".compact");
+        try (FileChannel out = FileChannel.open(compacted, StandardOpenOption.CREATE, StandardOpenOption.WRITE, 
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            for (OutboxRecord record : records) {
+                byte[] json = jsonMapper.writeValueAsBytes(record);
+                ByteBuffer line = ByteBuffer.allocate(json.length + 1);
+                line.put(json).put((byte) '\n').flip();
+                while (line.hasRemaining()) {
+                    out.write(line);
+                }
+            }
+            out.force(true);
+        }
+        if (channel != null) {
+            channel.close();
+        }
+        Files.move(compacted, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        completedSinceCompaction = 0;
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        dispatcher.shutdownNow();
+        appendLock.lock();
+        try {
+            if (channel != null) {
+                try {
+                    channel.force(true);
+                    channel.close();
+                } catch (IOException e) {
+                    LOG.error("Error closing callback outbox", e);
+                }
+            }
+        } finally {
+            appendLock.unlock();
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package com.example.tokenservice.service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BooleanSupplier;
+import java.util.function.Function;
+
+// Bounded LRU of hot clients split into independently locked segments, so concurrent lookups of different
+// clients rarely meet on the same lock. Eviction is LRU per segment, which approximates a global LRU once
+// every segment holds more than a handful of clients.
+public class ClientCache {
+    
+    private static final int MAX_SEGMENTS = 64;
+    // below this many clients per segment the per-segment LRU drifts too far from a global one
+    private static final int MIN_SEGMENT_CAPACITY = 16;
+    
+    private final Segment[] segments;
+    private final int mask;
+    // bumped before every invalidation, so a load that raced one is handed out but never cached
+    private final AtomicLong invalidations = new AtomicLong();
+    
+    public ClientCache(int capacity) {
+        int segmentCount = 1;
+        while (segmentCount < MAX_SEGMENTS && (long) segmentCount * 2 * MIN_SEGMENT_CAPACITY <= capacity) {
+            segmentCount <<= 1;
+        }
+        int segmentCapacity = Math.max(1, (capacity + segmentCount - 1) / segmentCount);
+        this.segments = new Segment[segmentCount];
+        for (int i = 0; i < segmentCount; i++) {
+            segments[i] = new Segment(segmentCapacity);
+        }
+        this.mask = segmentCount - 1;
+    }
+    
+    public ClientService.ClientInfo get(String clientId) {
+        return segmentFor(clientId).get(clientId);
+    }
+    
+    // the loader runs outside every lock; whatever is cached by the time it returns wins over its result
+    public ClientService.ClientInfo getOrLoad(String clientId, Function<String, ClientService.ClientInfo> loader) {
+        Segment segment = segmentFor(clientId);
+        ClientService.ClientInfo client = segment.get(clientId);
+        if (client != null) {
+            return client;
+        }
+        long invalidationsBefore = invalidations.get();
+        ClientService.ClientInfo loaded = loader.apply(clientId);
+        if (loaded == null) {
+            return null;
+        }
+        return segment.fill(clientId, loaded, () -> invalidations.get() == invalidationsBefore);
+    }
+    
+    public void put(ClientService.ClientInfo client) {
+        segmentFor(client.getClientId()).put(client.getClientId(), client);
+    }
+    
+    public ClientService.ClientInfo invalidate(String clientId) {
+        invalidations.incrementAndGet();
+        return segmentFor(clientId).remove(clientId);
+    }
+    
+    public void invalidateAll() {
+        invalidations.incrementAndGet();
+        for (Segment segment : segments) {
+            segment.clear();
+        }
+    }
+    
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            size += segment.size();
+        }
+        return size;
+    }
+    
+    public int segmentCount() {
+        return segments.length;
+    }
+    
+    private Segment segmentFor(String clientId) {
+        int h = clientId.hashCode();
+        return segments[(h ^ (h >>> 16)) & mask];
+    }
+    
+    private static final class Segment {
+    
+        private final ReentrantLock lock = new ReentrantLock();
+        // access-ordered, so the least recently used client of the segment falls out once it is full
+        private final LinkedHashMap<String, ClientService.ClientInfo> entries;
+        
+        private Segment(int capacity) {
+            this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, ClientService.ClientInfo> eldest) {
+                    return size() > capacity;
+                }
+            };
+        }
+        
+        private ClientService.ClientInfo get(String clientId) {
+            lock.lock();
+            try {
+                return entries.get(clientId);
+            } finally {
+                lock.unlock();
+            }
+        }
+        
+        private ClientService.ClientInfo fill(String clientId, ClientService.ClientInfo loaded, BooleanSupplier stillCurrent) {
+            lock.lock();
+            try {
+                ClientService.ClientInfo cached = entries.get(clientId);
+                if (cached != null) {
+                    return cached;
+                }
+                // checked under the lock an invalidation's removal also takes, so it either runs after this put or
+                // has already bumped the counter
+                if (stillCurrent.getAsBoolean()) {
+                    entries.put(clientId, loaded);
+                }
+                return loaded;
+            } finally {
+                lock.unlock();
+            }
+        }
+        
+        private void put(String clientId, ClientService.ClientInfo client) {
+            lock.lock();
+            try {
+                entries.put(clientId, client);
+            } finally {
+                lock.unlock();
+            }
+        }
+        
+        private ClientService.ClientInfo remove(String clientId) {
+            lock.lock();
+            try {
+                return entries.remove(clientId);
+            } finally {
+                lock.unlock();
+            }
+        }
+        
+        private void clear() {
+            lock.lock();
+            try {
+                entries.clear();
+            } finally {
+                lock.unlock();
+            }
+        }
+        
+        private int size() {
+            lock.lock();
+            try {
+                return entries.size();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
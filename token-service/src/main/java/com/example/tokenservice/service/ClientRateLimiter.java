@@ -0,0 +1,148 @@
+package com.example.tokenservice.service;
+
+import io.micronaut.context.annotation.Property;
+import jakarta.inject.Singleton;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+@Singleton
+public class ClientRateLimiter {
+    
+    private static final Logger LOG = LoggerFactory.getLogger(ClientRateLimiter.class);
+    
+    // each bucket is one long: milli-tokens in the top 22 bits, last refill time (ms since epoch) in the low 42
+    private static final int TIME_BITS = 42;
+    private static final long TIME_MASK = (1L << TIME_BITS) - 1;
+    private static final long MAX_MILLI_TOKENS = (1L << (64 - TIME_BITS)) - 1;
+    private static final long MILLI_TOKENS_PER_TOKEN = 1000;
+    // slots per set: a client lives in one slot of the set its hash picks
+    private static final int WAYS = 8;
+    private static final long EMPTY = 0L;
+    
+    // keys.get(i) is the 64-bit hash of the client owning buckets.get(i), EMPTY for a slot never used
+    private final AtomicLongArray keys;
+    private final AtomicLongArray buckets;
+    private final int setMask;
+    private final boolean enabled;
+    // tokens per second equals milli-tokens per millisecond, so refill needs no division
+    private final long ratePerSecond;
+    private final long capacity;
+    private final long epoch;
+    
+    public ClientRateLimiter(@Property(name = "token.rate-limit.enabled", defaultValue = "true") boolean enabled,
+                             @Property(name = "token.rate-limit.rate", defaultValue = "10") long ratePerSecond,
+                             @Property(name = "token.rate-limit.burst", defaultValue = "20") long burst,
+                             @Property(name = "token.rate-limit.max-clients", defaultValue = "65536") int maxClients) {
+        if (ratePerSecond <= 0 || burst <= 0 || burst * MILLI_TOKENS_PER_TOKEN > MAX_MILLI_TOKENS) {
+            throw new IllegalArgumentException("Invalid rate limit, rate: " + ratePerSecond + ", burst: " + burst);
+        }
+        int sets = Math.max(1, Integer.highestOneBit(Math.max(maxClients / WAYS, 1) - 1) << 1);
+        this.keys = new AtomicLongArray(sets * WAYS);
+        this.buckets = new AtomicLongArray(sets * WAYS);
+        this.setMask = sets - 1;
+        this.enabled = enabled;
+        this.ratePerSecond = ratePerSecond;
+        this.capacity = burst * MILLI_TOKENS_PER_TOKEN;
+        // an untouched bucket reads as refilled at time zero, so it must already be full by now, with a minute of
+        // slack for callers whose clock reading was taken just before this constructor ran
+        this.epoch = System.currentTimeMillis() - capacity / ratePerSecond - 60_000;
+        LOG.info("Client rate limiter initialized, enabled: {}, rate: {}/s, burst: {}, client slots: {}", 
+                enabled, ratePerSecond, burst, keys.length());
+    }
+    
+    public long tryAcquire(String clientId) {
+        return tryAcquire(clientId, System.currentTimeMillis());
+    }
+    
+    // returns 0 when the request may proceed, otherwise how many milliseconds until the bucket holds a token
+    public long tryAcquire(String clientId, long now) {
+        if (!enabled) {
+            return 0L;
+        }
+        long time = Math.max(0L, now - epoch) & TIME_MASK;
+        int slot = slotOf(keyOf(clientId), time);
+        while (true) {
+            long state = buckets.get(slot);
+            long available = available(state, time);
+            if (available < MILLI_TOKENS_PER_TOKEN) {
+                return (MILLI_TOKENS_PER_TOKEN - available + ratePerSecond - 1) / ratePerSecond;
+            }
+            long next = ((available - MILLI_TOKENS_PER_TOKEN) << TIME_BITS) | time;
+            if (buckets.compareAndSet(slot, state, next)) {
+                return 0L;
+            }
+        }
+    }
+    
+    public int getSlotCount() {
+        return keys.length();
+    }
+    
+    private long available(long state, long time) {
+        long elapsed = Math.max(0L, time - (state & TIME_MASK));
+        return Math.min(capacity, (state >>> TIME_BITS) + Math.min(elapsed, capacity) * ratePerSecond);
+    }
+    
+    // The client's own slot, or a slot claimed for it: an empty one first, then the longest idle slot whose
+    // bucket has refilled completely, which is indistinguishable from a new bucket. Only when every slot of
+    // the set is mid-burst does a client take over a partly drained bucket, and it is reset to full so the
+    // newcomer is not throttled for someone else's traffic. With the default 65536 slots that takes more than
+    // eight clients of one set draining their buckets at once.
+    private int slotOf(long key, long time) {
+        // the high half, where the final multiply leaves the best-mixed bits
+        int base = ((int) (key >>> 32) & setMask) * WAYS;
+        while (true) {
+            int empty = -1;
+            int refilled = -1;
+            long refilledAt = Long.MAX_VALUE;
+            int idlest = base;
+            long idlestRefill = Long.MAX_VALUE;
+            for (int i = base; i < base + WAYS; i++) {
+                long owner = keys.get(i);
+                if (owner == key) {
+                    return i;
+                }
+                if (owner == EMPTY) {
+                    if (empty < 0) {
+                        empty = i;
+                    }
+                    continue;
+                }
+                long state = buckets.get(i);
+                long lastRefill = state & TIME_MASK;
+                if (lastRefill < refilledAt && available(state, time) >= capacity) {
+                    refilledAt = lastRefill;
+                    refilled = i;
+                }
+                if (lastRefill < idlestRefill) {
+                    idlestRefill = lastRefill;
+                    idlest = i;
+                }
+            }
+            int victim = empty >= 0 ? empty : refilled >= 0 ? refilled : idlest;
+            long previous = keys.get(victim);
+            // a lost race means another client just claimed the slot, so look again
+            if (keys.compareAndSet(victim, previous, key)) {
+                if (previous != EMPTY) {
+                    // zero reads as refilled at time zero, i.e. a full bucket
+                    buckets.set(victim, 0L);
+                }
+                return victim;
+            }
+        }
+    }
+    
+    private static long keyOf(String clientId) {
+        long h = 0xCBF29CE484222325L;
+        for (byte b : (clientId != null ? clientId : "").getBytes(StandardCharsets.UTF_8)) {
+            h ^= b & 0xFF;
+            h *= 0x100000001B3L;
+        }
+        h *= 0x9E3779B97F4A7C15L;
+        // EMPTY marks unused slots, so no client may hash to it
+        return h != EMPTY ? h : 1L;
+    }
+}
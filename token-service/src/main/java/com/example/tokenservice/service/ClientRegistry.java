@@ -0,0 +1,364 @@
+package com.example.tokenservice.service;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
+
+// Single-writer, memory-mapped client table: a fixed header, an open-addressing index of
+// (id hash, record offset) slots and an append-only record area. Opening the file only maps it,
+// so startup does not depend on the number of clients.
+public class ClientRegistry implements Closeable {
+    
+    private static final int MAGIC = 0x43524731;
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 64;
+    private static final int SLOT_SIZE = 16;
+    private static final int MIN_SLOTS = 1024;
+    private static final int MIN_DATA_CAPACITY = 1 << 20;
+    private static final float MAX_LOAD_FACTOR = 0.75f;
+    
+    private static final int GENERATION_OFFSET = 8;
+    private static final int SLOT_COUNT_OFFSET = 16;
+    private static final int USED_SLOTS_OFFSET = 20;
+    private static final int DATA_START_OFFSET = 24;
+    private static final int DATA_END_OFFSET = 32;
+    
+    // acquire/release access to index slots and the data end, so readers never see a slot before its record
+    private static final VarHandle LONGS = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.BIG_ENDIAN);
+    
+    private static final class Mapping {
+        private final FileChannel channel;
+        private final MappedByteBuffer buffer;
+        private final long generation;
+        private final int slotCount;
+        private final int dataStart;
+        
+        private Mapping(FileChannel channel, MappedByteBuffer buffer) {
+            this.channel = channel;
+            this.buffer = buffer;
+            this.generation = buffer.getLong(GENERATION_OFFSET);
+            this.slotCount = buffer.getInt(SLOT_COUNT_OFFSET);
+            this.dataStart = (int) buffer.getLong(DATA_START_OFFSET);
+        }
+    }
+    
+    private final Path path;
+    private volatile Mapping mapping;
+    private long lastSeenDataEnd;
+    
+    private ClientRegistry(Path path) {
+        this.path = path;
+    }
+    
+    public static ClientRegistry open(Path path, int expectedClients) throws IOException {
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        ClientRegistry registry = new ClientRegistry(path);
+        if (!Files.exists(path) || Files.size(path) == 0) {
+            Files.deleteIfExists(path);
+            registry.create(path, slotCountFor(expectedClients), MIN_DATA_CAPACITY);
+        }
+        registry.mapping = registry.map(path);
+        registry.lastSeenDataEnd = registry.dataEnd(registry.mapping);
+        return registry;
+    }
+    
+    public ClientService.ClientInfo get(String clientId) {
+        Mapping current = mapping;
+        int slot = findSlot(current, clientId, hash(clientId));
+        if (slot < 0) {
+            return null;
+        }
+        return decode(current, (long) LONGS.getAcquire(current.buffer, slotPosition(slot) + 8));
+    }
+    
+    public synchronized void put(ClientService.ClientInfo client) throws IOException {
+        byte[] record = encode(client);
+        Mapping current = mapping;
+        int used = current.buffer.getInt(USED_SLOTS_OFFSET);
+        long end = dataEnd(current);
+        if (used + 1 > current.slotCount * MAX_LOAD_FACTOR || end + 4 + record.length > current.buffer.capacity()) {
+            rebuild(record.length);
+            current = mapping;
+            end = dataEnd(current);
+        }
+        
+        int offset = (int) end;
+        current.buffer.putInt(offset, record.length);
+        current.buffer.put(offset + 4, record);
+        LONGS.setRelease(current.buffer, DATA_END_OFFSET, end + 4 + record.length);
+        
+        long hash = hash(client.getClientId());
+        int slot = findSlot(current, client.getClientId(), hash);
+        if (slot >= 0) {
+            LONGS.setRelease(current.buffer, slotPosition(slot) + 8, (long) offset);
+        } else {
+            int position = slotPosition(-slot - 1);
+            current.buffer.putLong(position + 8, offset);
+            // the hash is published last, it is what marks the slot as taken
+            LONGS.setRelease(current.buffer, position, hash);
+            current.buffer.putInt(USED_SLOTS_OFFSET, used + 1);
+        }
+    }
+    
+    public int size() {
+        return mapping.buffer.getInt(USED_SLOTS_OFFSET);
+    }
+    
+    public void forEach(Consumer<ClientService.ClientInfo> consumer) {
+        Mapping current = mapping;
+        for (int slot = 0; slot < current.slotCount; slot++) {
+            int position = slotPosition(slot);
+            if ((long) LONGS.getAcquire(current.buffer, position) != 0L) {
+                consumer.accept(decode(current, (long) LONGS.getAcquire(current.buffer, position + 8)));
+            }
+        }
+    }
+    
+    // Picks up records appended by another writer since the last call. Returns the ids that changed,
+    // or null when the file was rebuilt or replaced and every cached entry has to be dropped.
+    public synchronized List<String> refresh() throws IOException {
+        Mapping current = mapping;
+        if (readGeneration(path) != current.generation) {
+            Mapping replaced = map(path);
+            mapping = replaced;
+            current.channel.close();
+            lastSeenDataEnd = dataEnd(replaced);
+            return null;
+        }
+        if (current.channel.size() > current.buffer.capacity()) {
+            Mapping grown = map(path);
+            mapping = grown;
+            current.channel.close();
+            current = grown;
+        }
+        
+        long end = dataEnd(current);
+        List<String> changed = new ArrayList<>();
+        long offset = lastSeenDataEnd;
+        while (offset < end) {
+            int length = current.buffer.getInt((int) offset);
+            changed.add(decode(current, offset).getClientId());
+            offset += 4 + length;
+        }
+        lastSeenDataEnd = end;
+        return changed;
+    }
+    
+    public Path getPath() {
+        return path;
+    }
+    
+    @Override
+    public synchronized void close() throws IOException {
+        mapping.buffer.force();
+        mapping.channel.close();
+    }
+    
+    private int findSlot(Mapping current, String clientId, long hash) {
+        int mask = current.slotCount - 1;
+        int slot = indexFor(hash, mask);
+        for (int probes = 0; probes <= mask; probes++) {
+            int position = slotPosition(slot);
+            long slotHash = (long) LONGS.getAcquire(current.buffer, position);
+            if (slotHash == 0L) {
+                return -slot - 1;
+            }
+            if (slotHash == hash) {
+                long offset = (long) LONGS.getAcquire(current.buffer, position + 8);
+                if (clientId.equals(decode(current, offset).getClientId())) {
+                    return slot;
+                }
+            }
+            slot = (slot + 1) & mask;
+        }
+        throw new IllegalStateException("Client registry index is full: " + path);
+    }
+    
+    // Writes the live records into a fresh file with room to spare and swaps it in. Superseded
+    // records are dropped on the way, so this doubles as compaction.
+    private void rebuild(int pendingRecordLength) throws IOException {
+        Mapping current = mapping;
+        List<byte[]> live = new ArrayList<>();
+        long liveBytes = 0;
+        for (int slot = 0; slot < current.slotCount; slot++) {
+            int position = slotPosition(slot);
+            if (current.buffer.getLong(position) != 0L) {
+                int offset = (int) current.buffer.getLong(position + 8);
+                byte[] record = new byte[current.buffer.getInt(offset)];
+                current.buffer.get(offset + 4, record);
+                live.add(record);
+                liveBytes += 4 + record.length;
+            }
+        }
+        
+        int slotCount = slotCountFor(live.size() * 2 + 1);
+        long dataCapacity = Math.max(MIN_DATA_CAPACITY, 2 * (liveBytes + 4 + pendingRecordLength));
+        Path rebuilt = path.resolveSibling(path.getFileName() + ".rebuild");
+        Files.deleteIfExists(rebuilt);
+        create(rebuilt, slotCount, dataCapacity);
+        Mapping target = map(rebuilt);
+        try {
+            long end = target.dataStart;
+            int mask = slotCount - 1;
+            for (byte[] record : live) {
+                target.buffer.putInt((int) end, record.length);
+                target.buffer.put((int) end + 4, record);
+                long hash = hash(decodeClientId(record));
+                int slot = indexFor(hash, mask);
+                while (target.buffer.getLong(slotPosition(slot)) != 0L) {
+                    slot = (slot + 1) & mask;
+                }
+                target.buffer.putLong(slotPosition(slot), hash);
+                target.buffer.putLong(slotPosition(slot) + 8, end);
+                end += 4 + record.length;
+            }
+            target.buffer.putInt(USED_SLOTS_OFFSET, live.size());
+            target.buffer.putLong(DATA_END_OFFSET, end);
+            target.buffer.force();
+        } finally {
+            target.channel.close();
+        }
+        
+        Files.move(rebuilt, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        Mapping replaced = map(path);
+        mapping = replaced;
+        current.channel.close();
+        lastSeenDataEnd = dataEnd(replaced);
+    }
+    
+    private void create(Path target, int slotCount, long dataCapacity) throws IOException {
+        long dataStart = HEADER_SIZE + (long) slotCount * SLOT_SIZE;
+        long size = dataStart + dataCapacity;
+        if (size > Integer.MAX_VALUE) {
+            throw new IOException("Client registry too large: " + target);
+        }
+        try (FileChannel channel = FileChannel.open(target, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            buffer.putInt(0, MAGIC);
+            buffer.putInt(4, VERSION);
+            long generation;
+            do {
+                generation = ThreadLocalRandom.current().nextLong();
+            } while (generation == 0L);
+            buffer.putLong(GENERATION_OFFSET, generation);
+            buffer.putInt(SLOT_COUNT_OFFSET, slotCount);
+            buffer.putInt(USED_SLOTS_OFFSET, 0);
+            buffer.putLong(DATA_START_OFFSET, dataStart);
+            buffer.putLong(DATA_END_OFFSET, dataStart);
+            buffer.force();
+        }
+    }
+    
+    private Mapping map(Path source) throws IOException {
+        FileChannel channel = FileChannel.open(source, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+        if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+            channel.close();
+            throw new IOException("Not a client registry: " + source);
+        }
+        return new Mapping(channel, buffer);
+    }
+    
+    private static long readGeneration(Path source) throws IOException {
+        try (FileChannel channel = FileChannel.open(source, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            while (header.hasRemaining() && channel.read(header) >= 0) {
+                // keep reading until the header is complete
+            }
+            return header.getLong(GENERATION_OFFSET);
+        }
+    }
+    
+    private long dataEnd(Mapping current) {
+        return (long) LONGS.getAcquire(current.buffer, DATA_END_OFFSET);
+    }
+    
+    private static ClientService.ClientInfo decode(Mapping current, long offset) {
+        byte[] record = new byte[current.buffer.getInt((int) offset)];
+        current.buffer.get((int) offset + 4, record);
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(record))) {
+            String clientId = in.readUTF();
+            String secretHash = in.readUTF();
+            String callbackUrl = in.readUTF();
+            String[] scopes = new String[in.readInt()];
+            for (int i = 0; i < scopes.length; i++) {
+                scopes[i] = in.readUTF();
+            }
+            Date createdAt = new Date(in.readLong());
+            return new ClientService.ClientInfo(clientId, secretHash, callbackUrl.isEmpty() ? null : callbackUrl, scopes, createdAt);
+        } catch (IOException e) {
+            throw new IllegalStateException("Corrupt client registry record at offset " + offset, e);
+        }
+    }
+    
+    private static String decodeClientId(byte[] record) throws IOException {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(record))) {
+            return in.readUTF();
+        }
+    }
+    
+    private static byte[] encode(ClientService.ClientInfo client) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeUTF(client.getClientId());
+            out.writeUTF(client.getSecretHash());
+            out.writeUTF(client.getCallbackUrl() != null ? client.getCallbackUrl() : "");
+            String[] scopes = client.getScopes() != null ? client.getScopes() : new String[0];
+            out.writeInt(scopes.length);
+            for (String scope : scopes) {
+                out.writeUTF(scope);
+            }
+            out.writeLong(client.getCreatedAt().getTime());
+        }
+        return bytes.toByteArray();
+    }
+    
+    private static long hash(String clientId) {
+        // FNV-1a over the UTF-8 bytes; zero marks an empty slot
+        long h = 0xCBF29CE484222325L;
+        for (byte b : clientId.getBytes(StandardCharsets.UTF_8)) {
+            h ^= b & 0xFF;
+            h *= 0x100000001B3L;
+        }
+        return h == 0L ? 1L : h;
+    }
+    
+    private static int slotPosition(int slot) {
+        return HEADER_SIZE + slot * SLOT_SIZE;
+    }
+    
+    private static int slotCountFor(int expectedClients) {
+        long required = (long) Math.ceil(Math.max(expectedClients, 1) / (double) MAX_LOAD_FACTOR);
+        long slots = Long.highestOneBit(Math.max(required, MIN_SLOTS) - 1) << 1;
+        if (slots > (1 << 26)) {
+            throw new IllegalArgumentException("Client registry index too large: " + expectedClients);
+        }
+        return (int) slots;
+    }
+    
+    private static int indexFor(long hash, int mask) {
+        long h = hash * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+}
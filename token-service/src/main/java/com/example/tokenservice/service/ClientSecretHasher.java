@@ -0,0 +1,80 @@
+package com.example.tokenservice.service;
+
+import io.micronaut.context.annotation.Property;
+import jakarta.inject.Singleton;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+
+@Singleton
+public class ClientSecretHasher {
+    
+    private static final Logger LOG = LoggerFactory.getLogger(ClientSecretHasher.class);
+    
+    private static final String SCHEME = "pbkdf2-sha256";
+    private static final String ALGORITHM = "PBKDF2WithHmacSHA256";
+    private static final int SALT_BYTES = 16;
+    private static final int HASH_BITS = 256;
+    
+    private final SecureRandom random = new SecureRandom();
+    private final int iterations;
+    // verified against when the client is unknown, so a miss costs as much as a wrong secret
+    private final String dummyHash;
+    
+    public ClientSecretHasher(@Property(name = "token.client.secret-hash.iterations", defaultValue = "210000") int iterations) {
+        this.iterations = iterations;
+        this.dummyHash = hash("dummy-secret");
+        LOG.info("Client secret hasher initialized with {} iterations", iterations);
+    }
+    
+    // encoded as pbkdf2-sha256$<iterations>$<salt>$<hash>, so the work factor can be raised without rehashing stored secrets
+    public String hash(String secret) {
+        byte[] salt = new byte[SALT_BYTES];
+        random.nextBytes(salt);
+        byte[] hash = derive(secret, salt, iterations);
+        Base64.Encoder encoder = Base64.getEncoder().withoutPadding();
+        return SCHEME + "$" + iterations + "$" + encoder.encodeToString(salt) + "$" + encoder.encodeToString(hash);
+    }
+    
+    public boolean matches(String secret, String encodedHash) {
+        if (secret == null || encodedHash == null) {
+            return false;
+        }
+        String[] parts = encodedHash.split("\\$");
+        if (parts.length != 4 || !SCHEME.equals(parts[0])) {
+            LOG.warn("Unsupported client secret hash format");
+            return false;
+        }
+        try {
+            Base64.Decoder decoder = Base64.getDecoder();
+            byte[] salt = decoder.decode(parts[2]);
+            byte[] expected = decoder.decode(parts[3]);
+            byte[] actual = derive(secret, salt, Integer.parseInt(parts[1]));
+            return MessageDigest.isEqual(expected, actual);
+        } catch (IllegalArgumentException e) {
+            LOG.warn("Malformed client secret hash: {}", e.getMessage());
+            return false;
+        }
+    }
+    
+    public void matchesNothing(String secret) {
+        matches(secret != null ? secret : "", dummyHash);
+    }
+    
+    private static byte[] derive(String secret, byte[] salt, int iterations) {
+        PBEKeySpec spec = new PBEKeySpec(secret.toCharArray(), salt, iterations, HASH_BITS);
+        try {
+            return SecretKeyFactory.getInstance(ALGORITHM).generateSecret(spec).getEncoded();
+        } catch (GeneralSecurityException e) {
+            throw new RuntimeException("Failed to hash client secret", e);
+        } finally {
+            spec.clearPassword();
+        }
+    }
+}
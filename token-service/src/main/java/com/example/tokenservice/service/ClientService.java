@@ -1,126 +1,278 @@
 package com.example.tokenservice.service;
 
-import com.example.tokenservice.dto.TokenResponse;
 import io.micronaut.context.annotation.Property;
+import jakarta.annotation.PreDestroy;
 import jakarta.inject.Singleton;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
 @Singleton
 public class ClientService {
     
     private static final Logger LOG = LoggerFactory.getLogger(ClientService.class);
     
-    private final Map<String, ClientInfo> clients = new ConcurrentHashMap<>();
-    private final Map<String, String> callbackUrls = new ConcurrentHashMap<>();
+    private final ClientRegistry registry;
+    // segmented LRU: lookups of different clients take different locks, and registry reads happen outside them
+    private final ClientCache hotClients;
+    private final Map<String, IssuedToken> issuedTokens = new ConcurrentHashMap<>();
+    private final ClientSecretHasher secretHasher;
+    private final VerifiedCredentialCache credentialCache;
+    private final long reloadIntervalMs;
+    private final Thread registryWatcher;
     
     // Hardcoding client credentials for testing
     private final String preRegisteredClientId = "data-client-service";
     private final String preRegisteredClientSecret = "secret123";
     private final String preRegisteredCallbackUrl = "http://localhost:8082/callback";
     
-    public ClientService() {
+    public ClientService(ClientSecretHasher secretHasher,
+                         VerifiedCredentialCache credentialCache,
+                         @Property(name = "token.client.registry.path", defaultValue = "") String registryPath,
+                         @Property(name = "token.client.registry.expected-clients", defaultValue = "65536") int expectedClients,
+                         @Property(name = "token.client.registry.cache-size", defaultValue = "10000") int cacheSize,
+                         @Property(name = "token.client.registry.reload-interval", defaultValue = "5") long reloadInterval) {
+        this.secretHasher = secretHasher;
+        this.credentialCache = credentialCache;
+        this.reloadIntervalMs = reloadInterval * 1000;
+        this.hotClients = new ClientCache(cacheSize);
+        this.registry = openRegistry(registryPath, expectedClients);
         initializePreRegisteredClient();
+        // a private temp file has no other writers, and watching its directory would watch all of the system temp dir
+        if (registryPath == null || registryPath.isEmpty()) {
+            this.registryWatcher = null;
+        } else {
+            this.registryWatcher = new Thread(this::watchRegistry, "client-registry-watcher");
+            registryWatcher.setDaemon(true);
+            registryWatcher.start();
+        }
+        LOG.info("Client registry opened at: {} with {} clients", registry.getPath(), registry.size());
+    }
+    
+    private ClientRegistry openRegistry(String registryPath, int expectedClients) {
+        try {
+            Path path;
+            if (registryPath == null || registryPath.isEmpty()) {
+                path = Files.createTempFile("client-registry", ".db");
+                path.toFile().deleteOnExit();
+            } else {
+                path = Path.of(registryPath);
+            }
+            return ClientRegistry.open(path, expectedClients);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to open client registry", e);
+        }
     }
     
     private void initializePreRegisteredClient() {
-        ClientInfo clientInfo = new ClientInfo(
-                preRegisteredClientId,
-                preRegisteredClientSecret,
-                preRegisteredCallbackUrl,
-                new String[]{"read", "write"}
-        );
-        clients.put(preRegisteredClientId, clientInfo);
-        callbackUrls.put(preRegisteredClientId, preRegisteredCallbackUrl);
+        if (getClient(preRegisteredClientId) != null) {
+            return;
+        }
+        registerClient(preRegisteredClientId, preRegisteredClientSecret, preRegisteredCallbackUrl, new String[]{"read", "write"});
         LOG.info("Pre-registered client initialized: {}", preRegisteredClientId);
-        LOG.info("Client secret: {}", preRegisteredClientSecret);
         LOG.info("Callback URL: {}", preRegisteredCallbackUrl);
     }
     
+    public void registerClient(String clientId, String clientSecret, String callbackUrl, String[] scopes) {
+        ClientInfo client = new ClientInfo(clientId, secretHasher.hash(clientSecret), callbackUrl, scopes, new Date());
+        store(client);
+        credentialCache.invalidate(clientId);
+        LOG.info("Client registered: {}", clientId);
+    }
+    
     public boolean validateClient(String clientId, String clientSecret) {
-        ClientInfo client = clients.get(clientId);
+        if (clientId == null || clientSecret == null) {
+            return false;
+        }
+        ClientInfo client = getClient(clientId);
         if (client == null) {
+            secretHasher.matchesNothing(clientSecret);
             LOG.warn("Client not found: {}", clientId);
             return false;
         }
-        boolean isValid = client.getClientSecret().equals(clientSecret);
-        if (!isValid) {
+        // the hash costs milliseconds, so a secret that verified recently is accepted on its keyed digest
+        if (credentialCache.contains(clientId, clientSecret)) {
+            return true;
+        }
+        boolean isValid = secretHasher.matches(clientSecret, client.getSecretHash());
+        if (isValid) {
+            credentialCache.put(clientId, clientSecret);
+        } else {
             LOG.warn("Invalid client secret for client: {}", clientId);
         }
         return isValid;
     }
     
     public void registerCallback(String clientId, String callbackUrl, String[] scopes) {
-        ClientInfo client = clients.get(clientId);
+        ClientInfo client = getClient(clientId);
         if (client == null) {
             throw new IllegalArgumentException("Client not found: " + clientId);
         }
         
-        client.setCallbackUrl(callbackUrl);
-        if (scopes != null && scopes.length > 0) {
-            client.setScopes(scopes);
-        }
-        callbackUrls.put(clientId, callbackUrl);
+        store(new ClientInfo(
+                clientId,
+                client.getSecretHash(),
+                callbackUrl,
+                scopes != null && scopes.length > 0 ? scopes : client.getScopes(),
+                client.getCreatedAt()
+        ));
         
         LOG.info("Callback registered for client: {} at URL: {}", clientId, callbackUrl);
     }
     
     public String getCallbackUrl(String clientId) {
-        return callbackUrls.get(clientId);
+        ClientInfo client = getClient(clientId);
+        return client != null ? client.getCallbackUrl() : null;
+    }
+    
+    public void recordTokenIssued(String clientId, String scope, long expiresAt) {
+        if (getClient(clientId) != null) {
+            issuedTokens.put(clientId, new IssuedToken(scope, expiresAt));
+        }
+    }
+    
+    public Map<String, IssuedToken> getIssuedTokens() {
+        return issuedTokens;
     }
     
     public ClientInfo getClient(String clientId) {
-        return clients.get(clientId);
+        if (clientId == null) {
+            return null;
+        }
+        // a registry read that races the watcher's eviction is returned but not cached, see ClientCache.getOrLoad
+        return hotClients.getOrLoad(clientId, registry::get);
+    }
+    
+    public int getClientCount() {
+        return registry.size();
+    }
+    
+    private void store(ClientInfo client) {
+        try {
+            registry.put(client);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to persist client: " + client.getClientId(), e);
+        }
+        hotClients.put(client);
     }
     
-    public Collection<ClientInfo> getAllClients() {
-        return clients.values();
+    private void watchRegistry() {
+        Path directory = registry.getPath().toAbsolutePath().getParent();
+        try (WatchService watchService = FileSystems.getDefault().newWatchService()) {
+            directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+            while (!Thread.currentThread().isInterrupted()) {
+                WatchKey key = watchService.poll(reloadIntervalMs, TimeUnit.MILLISECONDS);
+                if (key != null) {
+                    key.pollEvents();
+                    key.reset();
+                }
+                // writes through another process's mapping do not always raise events, so the timeout doubles as a poll
+                reloadChangedClients();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            LOG.error("Client registry watcher stopped for: {}", directory, e);
+        }
+    }
+    
+    private void reloadChangedClients() {
+        try {
+            List<String> changed = registry.refresh();
+            if (changed == null) {
+                hotClients.invalidateAll();
+                credentialCache.invalidateAll();
+                LOG.info("Client registry replaced on disk, dropped all cached clients");
+                return;
+            }
+            for (String clientId : changed) {
+                ClientInfo cached = hotClients.invalidate(clientId);
+                ClientInfo current = registry.get(clientId);
+                if (cached == null || current == null || !current.getSecretHash().equals(cached.getSecretHash())) {
+                    credentialCache.invalidate(clientId);
+                }
+            }
+            if (!changed.isEmpty()) {
+                LOG.debug("Reloaded {} changed client registry entries", changed.size());
+            }
+        } catch (Exception e) {
+            LOG.error("Error reloading client registry", e);
+        }
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        if (registryWatcher != null) {
+            registryWatcher.interrupt();
+        }
+        try {
+            registry.close();
+        } catch (IOException e) {
+            LOG.error("Error closing client registry", e);
+        }
     }
     
     public static class ClientInfo {
         private final String clientId;
-        private final String clientSecret;
-        private String callbackUrl;
-        private String[] scopes;
+        private final String secretHash;
+        private final String callbackUrl;
+        private final String[] scopes;
         private final Date createdAt;
         
-        public ClientInfo(String clientId, String clientSecret, String callbackUrl, String[] scopes) {
+        public ClientInfo(String clientId, String secretHash, String callbackUrl, String[] scopes, Date createdAt) {
             this.clientId = clientId;
-            this.clientSecret = clientSecret;
+            this.secretHash = secretHash;
             this.callbackUrl = callbackUrl;
             this.scopes = scopes;
-            this.createdAt = new Date();
+            this.createdAt = createdAt;
         }
         
         public String getClientId() {
             return clientId;
         }
         
-        public String getClientSecret() {
-            return clientSecret;
+        public String getSecretHash() {
+            return secretHash;
         }
         
         public String getCallbackUrl() {
             return callbackUrl;
         }
         
-        public void setCallbackUrl(String callbackUrl) {
-            this.callbackUrl = callbackUrl;
-        }
-        
         public String[] getScopes() {
             return scopes;
         }
         
-        public void setScopes(String[] scopes) {
-            this.scopes = scopes;
-        }
-        
         public Date getCreatedAt() {
             return createdAt;
         }
     }
+    
+    public static class IssuedToken {
+        private final String scope;
+        private final long expiresAt;
+        
+        public IssuedToken(String scope, long expiresAt) {
+            this.scope = scope;
+            this.expiresAt = expiresAt;
+        }
+        
+        public String getScope() {
+            return scope;
+        }
+        
+        public long getExpiresAt() {
+            return expiresAt;
+        }
+    }
 }
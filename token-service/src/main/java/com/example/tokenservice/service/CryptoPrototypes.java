@@ -0,0 +1,53 @@
+package com.example.tokenservice.service;
+
+import javax.crypto.Mac;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.MessageDigest;
+import java.util.function.Supplier;
+
+// Keyed MACs and digests are set up once as a prototype that is never updated itself. Every caller works on a clone,
+// which skips the key setup and pins no instance to a (virtual) thread; a provider that cannot clone gets a fresh one.
+final class CryptoPrototypes {
+    
+    private CryptoPrototypes() {
+    }
+    
+    static Supplier<Mac> mac(String algorithm, Key key) {
+        return cloning(algorithm, () -> {
+            Mac mac = Mac.getInstance(algorithm);
+            mac.init(key);
+            return mac;
+        }, mac -> (Mac) mac.clone());
+    }
+    
+    static Supplier<MessageDigest> digest(String algorithm) {
+        return cloning(algorithm, () -> MessageDigest.getInstance(algorithm), digest -> (MessageDigest) digest.clone());
+    }
+    
+    private static <T> Supplier<T> cloning(String algorithm, Factory<T> factory, Cloner<T> cloner) {
+        Supplier<T> fresh = () -> {
+            try {
+                return factory.create();
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException("Failed to initialize " + algorithm, e);
+            }
+        };
+        T prototype = fresh.get();
+        return () -> {
+            try {
+                return cloner.copy(prototype);
+            } catch (CloneNotSupportedException e) {
+                return fresh.get();
+            }
+        };
+    }
+    
+    private interface Factory<T> {
+        T create() throws GeneralSecurityException;
+    }
+    
+    private interface Cloner<T> {
+        T copy(T prototype) throws CloneNotSupportedException;
+    }
+}
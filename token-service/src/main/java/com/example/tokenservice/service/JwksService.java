@@ -0,0 +1,145 @@
+package com.example.tokenservice.service;
+
+import io.micronaut.json.JsonMapper;
+import jakarta.inject.Singleton;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.PublicKey;
+import java.security.interfaces.ECPublicKey;
+import java.security.interfaces.RSAPublicKey;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Singleton
+public class JwksService {
+    
+    private static final Logger LOG = LoggerFactory.getLogger(JwksService.class);
+    private static final Base64.Encoder BASE64_URL = Base64.getUrlEncoder().withoutPadding();
+    
+    private final KeyPairService keyPairService;
+    private final JsonMapper jsonMapper;
+    
+    // the JWKS only changes when the key ring does, so it is serialized once per ring version and served as raw bytes
+    private volatile Document document;
+    
+    public JwksService(KeyPairService keyPairService, JsonMapper jsonMapper) {
+        this.keyPairService = keyPairService;
+        this.jsonMapper = jsonMapper;
+    }
+    
+    public boolean isReady() {
+        return keyPairService.isReady();
+    }
+    
+    public Document getDocument() {
+        Document current = document;
+        long version = keyPairService.getKeyRingVersion();
+        if (current == null || current.version != version) {
+            current = serialize(version);
+            document = current;
+        }
+        return current;
+    }
+    
+    private Document serialize(long version) {
+        List<Map<String, Object>> keys = new ArrayList<>();
+        String algorithm = keyPairService.getSignatureAlgorithm().getValue();
+        if (!keyPairService.getSignatureAlgorithm().isHmac()) {
+            for (SigningKey key : keyPairService.getPublishedKeys()) {
+                keys.add(toJwk(key.getPublicKey(), key.getKeyId(), algorithm));
+            }
+        }
+        
+        Map<String, Object> jwks = new LinkedHashMap<>();
+        jwks.put("keys", keys);
+        try {
+            byte[] serialized = jsonMapper.writeValueAsBytes(jwks);
+            String tag = "\"" + BASE64_URL.encodeToString(Arrays.copyOf(sha256(serialized), 16)) + "\"";
+            LOG.info("JWKS document published with {} keys, etag: {}", keys.size(), tag);
+            return new Document(version, serialized, tag);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to serialize JWKS document", e);
+        }
+    }
+    
+    private static Map<String, Object> toJwk(PublicKey publicKey, String keyId, String algorithm) {
+        Map<String, Object> jwk = new LinkedHashMap<>();
+        if (publicKey instanceof RSAPublicKey) {
+            RSAPublicKey rsaKey = (RSAPublicKey) publicKey;
+            jwk.put("kty", "RSA");
+            jwk.put("n", encodeUnsigned(rsaKey.getModulus(), 0));
+            jwk.put("e", encodeUnsigned(rsaKey.getPublicExponent(), 0));
+        } else if (publicKey instanceof ECPublicKey) {
+            ECPublicKey ecKey = (ECPublicKey) publicKey;
+            int fieldSize = (ecKey.getParams().getCurve().getField().getFieldSize() + 7) / 8;
+            jwk.put("kty", "EC");
+            jwk.put("crv", curveName(fieldSize));
+            jwk.put("x", encodeUnsigned(ecKey.getW().getAffineX(), fieldSize));
+            jwk.put("y", encodeUnsigned(ecKey.getW().getAffineY(), fieldSize));
+        } else {
+            throw new IllegalArgumentException("Unsupported public key type: " + publicKey.getAlgorithm());
+        }
+        jwk.put("kid", keyId);
+        jwk.put("use", "sig");
+        jwk.put("alg", algorithm);
+        return jwk;
+    }
+    
+    private static String curveName(int fieldSize) {
+        switch (fieldSize) {
+            case 48:
+                return "P-384";
+            case 66:
+                return "P-521";
+            default:
+                return "P-256";
+        }
+    }
+    
+    // JWK integers are unsigned big-endian; EC coordinates are additionally left-padded to the field size
+    private static String encodeUnsigned(BigInteger value, int length) {
+        byte[] bytes = value.toByteArray();
+        int offset = bytes.length > 1 && bytes[0] == 0 ? 1 : 0;
+        int size = Math.max(bytes.length - offset, length);
+        byte[] unsigned = new byte[size];
+        System.arraycopy(bytes, offset, unsigned, size - (bytes.length - offset), bytes.length - offset);
+        return BASE64_URL.encodeToString(unsigned);
+    }
+    
+    private static byte[] sha256(byte[] data) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(data);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+    
+    public static final class Document {
+        private final long version;
+        private final byte[] bytes;
+        private final String etag;
+        
+        private Document(long version, byte[] bytes, String etag) {
+            this.version = version;
+            this.bytes = bytes;
+            this.etag = etag;
+        }
+        
+        public byte[] getBytes() {
+            return bytes;
+        }
+        
+        public String getEtag() {
+            return etag;
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.tokenservice.service;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtBuilder;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.SigningKeyResolverAdapter;
+import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureException;
+import io.micronaut.context.annotation.Property;
+import jakarta.inject.Singleton;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.util.Date;
+
+@Singleton
+public class JwtSigningEngine {
+    
+    private static final Logger LOG = LoggerFactory.getLogger(JwtSigningEngine.class);
+    
+    private final SignatureAlgorithm signatureAlgorithm;
+    private final KeyPairService keyPairService;
+    private final Key secretKey;
+    
+    // JwtParser is immutable once built and safe to share across request threads
+    private final JwtParser parser;
+    
+    public JwtSigningEngine(KeyPairService keyPairService,
+                            @Property(name = "micronaut.security.token.jwt.signatures.secret.generator.secret", defaultValue = "pleaseChangeThisSecretForASecretKeyForJWTTokenGeneration") String secret) {
+        this.keyPairService = keyPairService;
+        this.signatureAlgorithm = keyPairService.getSignatureAlgorithm();
+        if (signatureAlgorithm.isHmac()) {
+            this.secretKey = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+            this.parser = Jwts.parserBuilder()
+                    .setSigningKey(secretKey)
+                    .build();
+        } else {
+            this.secretKey = null;
+            this.parser = Jwts.parserBuilder()
+                    .setSigningKeyResolver(new KeyRingResolver())
+                    .build();
+        }
+        LOG.info("JWT signing engine initialized with algorithm: {}", signatureAlgorithm.getValue());
+    }
+    
+    public String sign(JwtBuilder builder) {
+        if (secretKey != null) {
+            return builder.signWith(secretKey, signatureAlgorithm).compact();
+        }
+        // asymmetric tokens carry the kid so verifiers can pick the matching key out of the JWKS
+        SigningKey key = keyPairService.getCurrentKey();
+        return builder.setHeaderParam(JwsHeader.KEY_ID, key.getKeyId())
+                .signWith(key.getPrivateKey(), signatureAlgorithm)
+                .compact();
+    }
+    
+    public Claims verify(String token) {
+        return parser.parseClaimsJws(token).getBody();
+    }
+    
+    // signs and verifies a throwaway token so provider lookup, key parsing and the first JIT passes
+    // happen before readiness instead of on the first real request
+    public void warmUp() {
+        String token = sign(Jwts.builder()
+                .setSubject("startup-warmup")
+                .setExpiration(new Date(System.currentTimeMillis() + 60_000)));
+        verify(token);
+    }
+    
+    public SignatureAlgorithm getSignatureAlgorithm() {
+        return signatureAlgorithm;
+    }
+    
+    private final class KeyRingResolver extends SigningKeyResolverAdapter {
+        @Override
+        public Key resolveSigningKey(JwsHeader header, Claims claims) {
+            String keyId = header.getKeyId();
+            if (keyId == null) {
+                throw new SignatureException("Token has no key ID");
+            }
+            SigningKey key = keyPairService.findKey(keyId);
+            if (key == null) {
+                throw new SignatureException("Unknown signing key ID: " + keyId);
+            }
+            return key.getPublicKey();
+        }
+    }
+}
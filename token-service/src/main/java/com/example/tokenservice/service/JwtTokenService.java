@@ -3,18 +3,15 @@ package com.example.tokenservice.service;
 import com.example.tokenservice.config.TokenConfiguration;
 import com.example.tokenservice.dto.TokenRequest;
 import com.example.tokenservice.dto.TokenResponse;
+import com.example.tokenservice.metrics.TokenMetrics;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.SignatureAlgorithm;
-import io.jsonwebtoken.security.Keys;
-import io.micronaut.context.annotation.Property;
 import jakarta.inject.Singleton;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.slf4j.MDC;
 
-import java.nio.charset.StandardCharsets;
-import java.security.Key;
+import java.security.SecureRandom;
 import java.time.Instant;
 import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
@@ -22,25 +19,52 @@ import java.util.Base64;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.UUID;
 
 @Singleton
 public class JwtTokenService {
     
     private static final Logger LOG = LoggerFactory.getLogger(JwtTokenService.class);
     
+    private static final DateTimeFormatter ISSUED_AT_FORMATTER = DateTimeFormatter.ISO_INSTANT
+            .withZone(ZoneId.of("UTC"));
+    
+    public static final String PROFILE_STANDARD = "standard";
+    public static final String PROFILE_COMPACT = "compact";
+    public static final String PROFILE_CWT = "cwt";
+    
+    private static final int COMPACT_TOKEN_ID_BYTES = 8;
+    private static final Base64.Encoder TOKEN_ID_ENCODER = Base64.getUrlEncoder().withoutPadding();
+    
     private final TokenConfiguration tokenConfiguration;
-    private final KeyPairService keyPairService;
-    private final String secret;
+    private final JwtSigningEngine signingEngine;
+    private final ClientService clientService;
+    private final CwtTokenCodec cwtTokenCodec;
+    private final AuditLog auditLog;
+    private final TokenMetrics tokenMetrics;
+    private final SecureRandom secureRandom = new SecureRandom();
+    private final String profile;
     
     public JwtTokenService(TokenConfiguration tokenConfiguration,
-                          KeyPairService keyPairService,
-                          @Property(name = "micronaut.security.token.jwt.signatures.secret.generator.secret", defaultValue = "pleaseChangeThisSecretForASecretKeyForJWTTokenGeneration") String secret) {
+                          JwtSigningEngine signingEngine,
+                          ClientService clientService,
+                          CwtTokenCodec cwtTokenCodec,
+                          AuditLog auditLog,
+                          TokenMetrics tokenMetrics) {
         this.tokenConfiguration = tokenConfiguration;
-        this.keyPairService = keyPairService;
-        this.secret = secret;
+        this.signingEngine = signingEngine;
+        this.clientService = clientService;
+        this.cwtTokenCodec = cwtTokenCodec;
+        this.auditLog = auditLog;
+        this.tokenMetrics = tokenMetrics;
+        this.profile = tokenConfiguration.getProfile() != null ? tokenConfiguration.getProfile() : PROFILE_STANDARD;
+        if (!PROFILE_STANDARD.equals(profile) && !PROFILE_COMPACT.equals(profile) && !PROFILE_CWT.equals(profile)) {
+            throw new IllegalArgumentException("Unsupported token profile: " + profile);
+        }
     }
     
     public TokenResponse generateToken(TokenRequest request, String traceId) {
+        long startedAt = System.nanoTime();
         try {
             String clientId = request.getClientId();
             String scope = request.getScope() != null ? request.getScope() : "default";
@@ -48,28 +72,10 @@ public class JwtTokenService {
             long expirationTime = System.currentTimeMillis() + (tokenConfiguration.getExpiration() * 1000);
             long issuedAt = System.currentTimeMillis();
             
-            Map<String, Object> claims = new HashMap<>();
-            claims.put("sub", clientId);
-            claims.put("aud", "data-client-service");
-            claims.put("scope", scope);
-            claims.put("client_id", clientId);
-            claims.put("trace_id", traceId);
+            String token = encode(clientId, scope, traceId, issuedAt, expirationTime);
             
-            Key signingKey = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
-            
-            String token = Jwts.builder()
-                    .setClaims(claims)
-                    .setSubject(clientId)
-                    .setIssuer(tokenConfiguration.getIssuer())
-                    .setIssuedAt(new Date(issuedAt))
-                    .setExpiration(new Date(expirationTime))
-                    .setId(keyPairService.getKeyId())
-                    .signWith(signingKey, SignatureAlgorithm.HS256)
-                    .compact();
-            
-            DateTimeFormatter formatter = DateTimeFormatter.ISO_INSTANT
-                    .withZone(ZoneId.of("UTC"));
-            String issuedAtStr = formatter.format(Instant.ofEpochMilli(issuedAt));
+            String issuedAtStr = ISSUED_AT_FORMATTER.format(Instant.ofEpochMilli(issuedAt));
+            clientService.recordTokenIssued(clientId, scope, expirationTime);
             
             TokenResponse response = new TokenResponse(
                     token,
@@ -78,26 +84,68 @@ public class JwtTokenService {
                     issuedAtStr
             );
             
-            LOG.info("JWT token generated successfully for client: {}, traceId: {}", clientId, traceId);
+            // keyed like the revocation table so issued and revoked events can be joined
+            auditLog.recordIssued(clientId, traceId, scope, 
+                    auditLog.isEnabled() ? TokenDigest.of(token).getHigh() : 0L, expirationTime);
+            LOG.debug("JWT token generated successfully for client: {}, traceId: {}", clientId, traceId);
             MDC.put("traceId", traceId);
             
+            tokenMetrics.recordIssue(System.nanoTime() - startedAt, true);
             return response;
         } catch (Exception e) {
+            tokenMetrics.recordIssue(System.nanoTime() - startedAt, false);
             LOG.error("Error generating JWT token for client: {}, traceId: {}", 
                      request.getClientId(), traceId, e);
             throw new RuntimeException("Failed to generate token", e);
         }
     }
     
+    // every hop forwards the access token, so the compact profiles drop the claims the resource
+    // servers never read (aud, iss, client_id duplicating sub, trace_id already carried by headers)
+    private String encode(String clientId, String scope, String traceId, long issuedAt, long expirationTime) {
+        if (PROFILE_CWT.equals(profile)) {
+            return cwtTokenCodec.encode(clientId, scope, randomTokenId(), issuedAt / 1000, expirationTime / 1000);
+        }
+        if (PROFILE_COMPACT.equals(profile)) {
+            return signingEngine.sign(Jwts.builder()
+                    .setSubject(clientId)
+                    .claim("scp", scope)
+                    .setIssuedAt(new Date(issuedAt))
+                    .setExpiration(new Date(expirationTime))
+                    .setId(TOKEN_ID_ENCODER.encodeToString(randomTokenId())));
+        }
+        
+        Map<String, Object> claims = new HashMap<>();
+        claims.put("sub", clientId);
+        claims.put("aud", "data-client-service");
+        claims.put("scope", scope);
+        claims.put("client_id", clientId);
+        claims.put("trace_id", traceId);
+        
+        return signingEngine.sign(Jwts.builder()
+                .setClaims(claims)
+                .setSubject(clientId)
+                .setIssuer(tokenConfiguration.getIssuer())
+                .setIssuedAt(new Date(issuedAt))
+                .setExpiration(new Date(expirationTime))
+                .setId(UUID.randomUUID().toString()));
+    }
+    
+    // the jti / cti only has to keep two tokens minted in the same second distinct for revocation
+    private byte[] randomTokenId() {
+        byte[] tokenId = new byte[COMPACT_TOKEN_ID_BYTES];
+        secureRandom.nextBytes(tokenId);
+        return tokenId;
+    }
+    
+    public String getProfile() {
+        return profile;
+    }
+    
+    // token.validate.duration is recorded on the serving path in TokenValidationService, not by these internal helpers
     public Claims validateToken(String token) {
         try {
-            Key signingKey = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
-            
-            Claims claims = Jwts.parserBuilder()
-                    .setSigningKey(signingKey)
-                    .build()
-                    .parseClaimsJws(token)
-                    .getBody();
+            Claims claims = CwtTokenCodec.isCwt(token) ? verifyCwt(token) : signingEngine.verify(token);
             
             LOG.debug("Token validated successfully for subject: {}", claims.getSubject());
             return claims;
@@ -107,6 +155,22 @@ public class JwtTokenService {
         }
     }
     
+    private Claims verifyCwt(String token) {
+        CwtTokenCodec.CwtClaims cwtClaims = cwtTokenCodec.decode(token);
+        if (cwtClaims == null) {
+            throw new IllegalArgumentException("Malformed or unauthenticated CWT");
+        }
+        if (cwtClaims.getExpiresAt() * 1000 <= System.currentTimeMillis()) {
+            throw new IllegalArgumentException("CWT expired");
+        }
+        Claims claims = Jwts.claims();
+        claims.setSubject(cwtClaims.getSubject());
+        claims.put("scope", cwtClaims.getScope());
+        claims.setIssuedAt(new Date(cwtClaims.getIssuedAt() * 1000));
+        claims.setExpiration(new Date(cwtClaims.getExpiresAt() * 1000));
+        return claims;
+    }
+    
     public boolean isTokenExpired(String token) {
         try {
             Claims claims = validateToken(token);
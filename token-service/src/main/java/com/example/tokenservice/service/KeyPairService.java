@@ -1,51 +1,206 @@
 package com.example.tokenservice.service;
 
 import com.example.tokenservice.config.TokenConfiguration;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.SignatureException;
 import io.micronaut.context.annotation.Property;
 import io.micronaut.core.annotation.NonNull;
+import io.micronaut.core.annotation.Nullable;
+import jakarta.annotation.PreDestroy;
 import jakarta.inject.Singleton;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.nio.charset.StandardCharsets;
 import java.security.*;
+import java.security.spec.ECGenParameterSpec;
 import java.security.spec.PKCS8EncodedKeySpec;
 import java.security.spec.X509EncodedKeySpec;
-import java.util.Base64;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 @Singleton
 public class KeyPairService {
     
     private static final Logger LOG = LoggerFactory.getLogger(KeyPairService.class);
     
-    private final KeyPair keyPair;
-    private final String keyId;
+    private static final long PREGENERATION_RETRY_MS = 1_000L;
+    private static final long MAX_PREGENERATION_RETRY_MS = 300_000L;
+    
+    private final SignatureAlgorithm signatureAlgorithm;
+    private final int keySize;
+    private final long verificationWindowMs;
+    private final CompletableFuture<SigningKey> initialKey;
+    private final ScheduledExecutorService keyExecutor;
+    private final Object rotationLock = new Object();
+    
+    // replaced wholesale on every change so readers never see a half-rotated ring
+    private volatile KeyRing keyRing;
+    // guarded by rotationLock; a pre-generation is queued or running, so rotate must not queue another
+    private boolean pregenerating;
+    private int pregenerationFailures;
     
     public KeyPairService(TokenConfiguration tokenConfiguration,
-                         @Property(name = "token.jwt.rsa.key-size", defaultValue = "2048") int keySize) throws Exception {
-        this.keyId = generateKeyId();
+                         @Property(name = "token.jwt.rsa.key-size", defaultValue = "2048") int keySize,
+                         @Property(name = "token.jwt.key-rotation.interval", defaultValue = "86400") long rotationInterval) throws Exception {
+        this.signatureAlgorithm = resolveAlgorithm(tokenConfiguration.getAlgorithm());
+        this.keySize = keySize;
+        // a retired key must keep verifying until the last token it signed has expired
+        this.verificationWindowMs = tokenConfiguration.getExpiration() * 1000;
+        this.keyExecutor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "key-ring");
+            thread.setDaemon(true);
+            return thread;
+        });
         
         String privateKeyPath = tokenConfiguration.getRsa().getPrivateKeyPath();
         String publicKeyPath = tokenConfiguration.getRsa().getPublicKeyPath();
         
         if (privateKeyPath != null && !privateKeyPath.isEmpty() && 
             publicKeyPath != null && !publicKeyPath.isEmpty()) {
-            LOG.info("Loading RSA key pair from files");
-            this.keyPair = loadKeyPairFromFile(privateKeyPath, publicKeyPath);
-        } else {
-            LOG.info("Generating new RSA key pair");
-            this.keyPair = generateKeyPair(keySize);
+            LOG.info("Loading {} key pair from files, key rotation disabled", keyFactoryAlgorithm());
+            SigningKey loaded = new SigningKey(generateKeyId(), loadKeyPairFromFile(privateKeyPath, publicKeyPath), System.currentTimeMillis());
+            this.keyRing = new KeyRing(loaded, Collections.emptyList(), null, 1L);
+            this.initialKey = CompletableFuture.completedFuture(loaded);
+            return;
         }
         
-        LOG.info("RSA key pair initialized successfully with key ID: {}", keyId);
+        // key generation (hundreds of ms for RSA-2048) stays off the startup path
+        LOG.info("Generating {} signing keys in the background", keyFactoryAlgorithm());
+        this.initialKey = CompletableFuture.supplyAsync(this::generateKey, keyExecutor);
+        initialKey.thenRunAsync(() -> {
+            synchronized (rotationLock) {
+                keyRing = new KeyRing(initialKey.join(), Collections.emptyList(), null, 1L);
+            }
+            LOG.info("Initial signing key ready with key ID: {}, signing algorithm: {}", 
+                    keyRing.current.getKeyId(), signatureAlgorithm.getValue());
+            schedulePregeneration(0L);
+        }, keyExecutor);
+        
+        if (rotationInterval > 0) {
+            keyExecutor.scheduleAtFixedRate(this::rotate, rotationInterval, rotationInterval, TimeUnit.SECONDS);
+        }
+    }
+    
+    public void rotate() {
+        SigningKey promoted;
+        synchronized (rotationLock) {
+            KeyRing ring = keyRing;
+            if (ring == null || ring.next == null) {
+                LOG.warn("Key rotation skipped, next signing key is not ready yet");
+                // a pre-generation that gave up would otherwise leave rotation stalled for good
+                if (ring != null) {
+                    schedulePregeneration(0L);
+                }
+                return;
+            }
+            long now = System.currentTimeMillis();
+            List<SigningKey> previous = new ArrayList<>();
+            previous.add(ring.current.retire(now));
+            for (SigningKey key : ring.previous) {
+                if (key.getRetiredAt() + verificationWindowMs > now) {
+                    previous.add(key);
+                }
+            }
+            promoted = ring.next;
+            keyRing = new KeyRing(promoted, previous, null, ring.version + 1);
+        }
+        LOG.info("Signing key rotated, current key ID: {}", promoted.getKeyId());
+        schedulePregeneration(0L);
+    }
+    
+    private void schedulePregeneration(long delayMs) {
+        synchronized (rotationLock) {
+            if (pregenerating) {
+                return;
+            }
+            pregenerating = true;
+        }
+        keyExecutor.schedule(this::pregenerateNextKey, delayMs, TimeUnit.MILLISECONDS);
+    }
+    
+    private void pregenerateNextKey() {
+        SigningKey next;
+        try {
+            next = generateKey();
+        } catch (Exception e) {
+            int failures;
+            synchronized (rotationLock) {
+                failures = ++pregenerationFailures;
+            }
+            // doubling backoff; pregenerating stays set, so a rotate in the meantime does not queue a second attempt
+            long retryMs = Math.min(MAX_PREGENERATION_RETRY_MS, PREGENERATION_RETRY_MS << Math.min(failures - 1, 20));
+            LOG.error("Failed to pre-generate next signing key, attempt {}, retrying in {}ms", failures, retryMs, e);
+            keyExecutor.schedule(this::pregenerateNextKey, retryMs, TimeUnit.MILLISECONDS);
+            return;
+        }
+        synchronized (rotationLock) {
+            KeyRing ring = keyRing;
+            keyRing = new KeyRing(ring.current, ring.previous, next, ring.version + 1);
+            pregenerating = false;
+            pregenerationFailures = 0;
+        }
+        LOG.info("Next signing key pre-generated with key ID: {}", next.getKeyId());
+    }
+    
+    private static SignatureAlgorithm resolveAlgorithm(String algorithm) {
+        if (algorithm == null || algorithm.isEmpty()) {
+            return SignatureAlgorithm.RS256;
+        }
+        if ("EdDSA".equalsIgnoreCase(algorithm) || algorithm.toUpperCase().startsWith("ED")) {
+            throw new IllegalArgumentException("EdDSA signing is not supported by jjwt 0.11.5, use ES256 or RS256");
+        }
+        try {
+            return SignatureAlgorithm.forName(algorithm.toUpperCase());
+        } catch (SignatureException e) {
+            throw new IllegalArgumentException("Unsupported JWT signing algorithm: " + algorithm, e);
+        }
+    }
+    
+    private String keyFactoryAlgorithm() {
+        // HMAC signing still keeps an RSA pair around for the public-key endpoint
+        return signatureAlgorithm.isEllipticCurve() ? "EC" : "RSA";
+    }
+    
+    private SigningKey generateKey() {
+        try {
+            long startedAt = System.nanoTime();
+            SigningKey key = new SigningKey(generateKeyId(), generateKeyPair(), System.currentTimeMillis());
+            LOG.debug("Generated {} key pair in {}ms", keyFactoryAlgorithm(), 
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt));
+            return key;
+        } catch (GeneralSecurityException e) {
+            throw new RuntimeException("Failed to generate signing key", e);
+        }
     }
     
-    private KeyPair generateKeyPair(int keySize) throws NoSuchAlgorithmException {
-        KeyPairGenerator keyPairGenerator = KeyPairGenerator.getInstance("RSA");
-        keyPairGenerator.initialize(keySize);
+    private KeyPair generateKeyPair() throws GeneralSecurityException {
+        KeyPairGenerator keyPairGenerator = KeyPairGenerator.getInstance(keyFactoryAlgorithm());
+        if (signatureAlgorithm.isEllipticCurve()) {
+            keyPairGenerator.initialize(new ECGenParameterSpec(curveName()));
+        } else {
+            keyPairGenerator.initialize(keySize);
+        }
         return keyPairGenerator.generateKeyPair();
     }
     
+    private String curveName() {
+        switch (signatureAlgorithm) {
+            case ES384:
+                return "secp384r1";
+            case ES512:
+                return "secp521r1";
+            default:
+                return "secp256r1";
+        }
+    }
+    
     private KeyPair loadKeyPairFromFile(String privateKeyPath, String publicKeyPath) throws Exception {
         byte[] privateKeyBytes = java.nio.file.Files.readAllBytes(java.nio.file.Path.of(privateKeyPath));
         byte[] publicKeyBytes = java.nio.file.Files.readAllBytes(java.nio.file.Path.of(publicKeyPath));
@@ -53,7 +208,7 @@ public class KeyPairService {
         PKCS8EncodedKeySpec privateKeySpec = new PKCS8EncodedKeySpec(privateKeyBytes);
         X509EncodedKeySpec publicKeySpec = new X509EncodedKeySpec(publicKeyBytes);
         
-        KeyFactory keyFactory = KeyFactory.getInstance("RSA");
+        KeyFactory keyFactory = KeyFactory.getInstance(keyFactoryAlgorithm());
         PrivateKey privateKey = keyFactory.generatePrivate(privateKeySpec);
         PublicKey publicKey = keyFactory.generatePublic(publicKeySpec);
         
@@ -64,28 +219,91 @@ public class KeyPairService {
         return java.util.UUID.randomUUID().toString().replace("-", "");
     }
     
+    private KeyRing ring() {
+        KeyRing ring = keyRing;
+        if (ring != null) {
+            return ring;
+        }
+        // only the first callers after startup can get here, before the initial key is published
+        SigningKey key = initialKey.join();
+        ring = keyRing;
+        return ring != null ? ring : new KeyRing(key, Collections.emptyList(), null, 0L);
+    }
+    
+    // false only while the first key is still generating; until then ring() blocks its callers
+    public boolean isReady() {
+        return keyRing != null;
+    }
+    
     @NonNull
-    public KeyPair getKeyPair() {
-        return keyPair;
+    public SignatureAlgorithm getSignatureAlgorithm() {
+        return signatureAlgorithm;
     }
     
     @NonNull
-    public PublicKey getPublicKey() {
-        return keyPair.getPublic();
+    public SigningKey getCurrentKey() {
+        return ring().current;
     }
     
+    @Nullable
+    public SigningKey findKey(String keyId) {
+        return ring().byKeyId.get(keyId);
+    }
+    
+    // current first, then the pre-generated next key and the retired keys still inside their verification window
     @NonNull
-    public PrivateKey getPrivateKey() {
-        return keyPair.getPrivate();
+    public List<SigningKey> getPublishedKeys() {
+        KeyRing ring = ring();
+        List<SigningKey> keys = new ArrayList<>(ring.previous.size() + 2);
+        keys.add(ring.current);
+        if (ring.next != null) {
+            keys.add(ring.next);
+        }
+        keys.addAll(ring.previous);
+        return keys;
+    }
+    
+    public long getKeyRingVersion() {
+        return ring().version;
     }
     
     @NonNull
     public String getKeyId() {
-        return keyId;
+        return getCurrentKey().getKeyId();
     }
     
     @NonNull
     public String getPublicKeyAsString() {
-        return Base64.getEncoder().encodeToString(keyPair.getPublic().getEncoded());
+        return getCurrentKey().getPublicKeyAsString();
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        keyExecutor.shutdownNow();
+    }
+    
+    private static final class KeyRing {
+        private final SigningKey current;
+        private final List<SigningKey> previous;
+        private final SigningKey next;
+        private final Map<String, SigningKey> byKeyId;
+        private final long version;
+        
+        private KeyRing(SigningKey current, List<SigningKey> previous, SigningKey next, long version) {
+            this.current = current;
+            this.previous = previous;
+            this.next = next;
+            this.version = version;
+            Map<String, SigningKey> keys = new HashMap<>();
+            keys.put(current.getKeyId(), current);
+            for (SigningKey key : previous) {
+                keys.put(key.getKeyId(), key);
+            }
+            // verifiers may see the next key in the JWKS before it signs anything
+            if (next != null) {
+                keys.put(next.getKeyId(), next);
+            }
+            this.byKeyId = keys;
+        }
     }
 }
@@ -0,0 +1,105 @@
+package com.example.tokenservice.service;
+
+import io.micronaut.context.annotation.Property;
+import jakarta.inject.Singleton;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.ByteBuffer;
+import java.security.SecureRandom;
+import java.util.Base64;
+
+@Singleton
+public class RefreshTokenService {
+    
+    private static final Logger LOG = LoggerFactory.getLogger(RefreshTokenService.class);
+    
+    private static final int TOKEN_BYTES = 16;
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+    
+    private final SecureRandom random = new SecureRandom();
+    private final RefreshTokenStore store;
+    private final boolean enabled;
+    private final long lifetimeMs;
+    
+    public RefreshTokenService(@Property(name = "token.refresh-token.enabled", defaultValue = "true") boolean enabled,
+                               @Property(name = "token.refresh-token.expiration", defaultValue = "86400") long expiration,
+                               @Property(name = "token.refresh-token.expected-tokens", defaultValue = "1024") int expectedTokens) {
+        this.enabled = enabled;
+        this.lifetimeMs = expiration * 1000;
+        this.store = new RefreshTokenStore(expectedTokens);
+        LOG.info("Refresh token service initialized, enabled: {}, lifetime: {}s", enabled, expiration);
+    }
+    
+    public boolean isEnabled() {
+        return enabled;
+    }
+    
+    public String issue(String clientId, String scope) {
+        long now = System.currentTimeMillis();
+        return issue(clientId, scope, nextNonZeroLong(), now + lifetimeMs, now);
+    }
+    
+    public RefreshTokenStore.Redemption redeem(String refreshToken, String clientId) {
+        if (!enabled || refreshToken == null || clientId == null) {
+            return null;
+        }
+        byte[] bytes;
+        try {
+            bytes = DECODER.decode(refreshToken);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        if (bytes.length != TOKEN_BYTES) {
+            return null;
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        RefreshTokenStore.Redemption redemption = store.redeem(buffer.getLong(), buffer.getLong(), clientId, System.currentTimeMillis());
+        if (redemption.getStatus() == RefreshTokenStore.Status.REUSED) {
+            LOG.warn("Refresh token reuse detected for client: {}, token family revoked", clientId);
+        }
+        return redemption;
+    }
+    
+    // called once the renewal's tokens exist, so a renewal that failed before this point can be retried with the same token
+    public boolean commit(RefreshTokenStore.Redemption redemption) {
+        if (store.commit(redemption)) {
+            return true;
+        }
+        LOG.warn("Refresh token spent concurrently for client: {}, token family revoked", redemption.getClientId());
+        return false;
+    }
+    
+    // the replacement stays in the same family and keeps its absolute expiry, so rotation never extends a session
+    public String rotate(RefreshTokenStore.Redemption redemption) {
+        return issue(redemption.getClientId(), redemption.getScope(), redemption.getFamilyId(),
+                redemption.getExpiresAt(), System.currentTimeMillis());
+    }
+    
+    public int getActiveTokenCount() {
+        return store.size();
+    }
+    
+    private String issue(String clientId, String scope, long familyId, long expiresAt, long now) {
+        long id = nextNonZeroLong();
+        long verifier = random.nextLong();
+        try {
+            store.put(id, verifier, familyId, expiresAt, clientId, scope, now);
+        } catch (IllegalStateException e) {
+            // the access token is still good, the client just renews with its credentials next time
+            LOG.warn("Refresh token not issued for client: {}", clientId, e);
+            return null;
+        }
+        byte[] bytes = ByteBuffer.allocate(TOKEN_BYTES).putLong(id).putLong(verifier).array();
+        return ENCODER.encodeToString(bytes);
+    }
+    
+    private long nextNonZeroLong() {
+        long value;
+        do {
+            value = random.nextLong();
+        } while (value == 0L);
+        return value;
+    }
+}
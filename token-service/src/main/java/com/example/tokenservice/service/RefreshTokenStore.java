@@ -0,0 +1,276 @@
+package com.example.tokenservice.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public class RefreshTokenStore {
+    
+    public enum Status {
+        ROTATED,
+        UNKNOWN,
+        EXPIRED,
+        REUSED,
+        CLIENT_MISMATCH,
+        SUPERSEDED
+    }
+    
+    public static final class Redemption {
+        private final Status status;
+        private final long tokenId;
+        private final String clientId;
+        private final String scope;
+        private final long familyId;
+        private final long expiresAt;
+        
+        private Redemption(Status status, long tokenId, String clientId, String scope, long familyId, long expiresAt) {
+            this.status = status;
+            this.tokenId = tokenId;
+            this.clientId = clientId;
+            this.scope = scope;
+            this.familyId = familyId;
+            this.expiresAt = expiresAt;
+        }
+        
+        public Status getStatus() {
+            return status;
+        }
+        
+        public String getClientId() {
+            return clientId;
+        }
+        
+        public String getScope() {
+            return scope;
+        }
+        
+        public long getFamilyId() {
+            return familyId;
+        }
+        
+        public long getExpiresAt() {
+            return expiresAt;
+        }
+    }
+    
+    private static final long EMPTY = 0L;
+    private static final byte ACTIVE = 1;
+    private static final byte USED = 2;
+    private static final float MAX_LOAD_FACTOR = 0.75f;
+    private static final int MIN_CAPACITY = 16;
+    
+    private static final Redemption UNKNOWN = new Redemption(Status.UNKNOWN, 0L, null, null, 0L, 0L);
+    private static final Redemption EXPIRED = new Redemption(Status.EXPIRED, 0L, null, null, 0L, 0L);
+    private static final Redemption REUSED = new Redemption(Status.REUSED, 0L, null, null, 0L, 0L);
+    private static final Redemption CLIENT_MISMATCH = new Redemption(Status.CLIENT_MISMATCH, 0L, null, null, 0L, 0L);
+    private static final Redemption SUPERSEDED = new Redemption(Status.SUPERSEDED, 0L, null, null, 0L, 0L);
+    
+    // family id -> family expiry, for families shut down after a used token was replayed
+    private final RevocationTable revokedFamilies = new RevocationTable(64);
+    // client id -> its only live family; starting a new family retires the previous one, which bounds
+    // the table by the number of clients instead of by issuance rate x lifetime
+    private final Map<String, Long> currentFamilies = new HashMap<>();
+    
+    private long[] ids;
+    private long[] verifiers;
+    private long[] families;
+    private long[] expiries;
+    private byte[] states;
+    private String[] clientIds;
+    private String[] scopes;
+    private int mask;
+    private int size;
+    private int resizeThreshold;
+    
+    public RefreshTokenStore(int expectedEntries) {
+        allocate(capacityFor(expectedEntries));
+    }
+    
+    public synchronized void put(long id, long verifier, long familyId, long expiresAt,
+                                 String clientId, String scope, long now) {
+        if (size >= resizeThreshold) {
+            rebuild(now);
+        }
+        int index = indexFor(id, mask);
+        while (ids[index] != EMPTY) {
+            if (ids[index] == id) {
+                throw new IllegalStateException("Duplicate refresh token id");
+            }
+            index = (index + 1) & mask;
+        }
+        ids[index] = id;
+        verifiers[index] = verifier;
+        families[index] = familyId;
+        expiries[index] = expiresAt;
+        states[index] = ACTIVE;
+        clientIds[index] = clientId;
+        scopes[index] = scope;
+        size++;
+        currentFamilies.put(clientId, familyId);
+    }
+    
+    public synchronized Redemption redeem(long id, long verifier, String clientId, long now) {
+        int index = find(id);
+        if (index < 0 || verifiers[index] != verifier) {
+            return UNKNOWN;
+        }
+        if (!clientIds[index].equals(clientId)) {
+            return CLIENT_MISMATCH;
+        }
+        long familyId = families[index];
+        if (revokedFamilies.containsKey(familyId)) {
+            return REUSED;
+        }
+        if (expiries[index] <= now) {
+            return EXPIRED;
+        }
+        Long current = currentFamilies.get(clientIds[index]);
+        if (current == null || current != familyId) {
+            return SUPERSEDED;
+        }
+        if (states[index] == USED) {
+            // a rotated token came back, so whoever holds the family may be an attacker: drop the whole chain
+            revokedFamilies.put(familyId, expiries[index]);
+            return REUSED;
+        }
+        // still ACTIVE: the token is only spent by commit, once its replacement has been minted
+        return new Redemption(Status.ROTATED, id, clientIds[index], scopes[index], familyId, expiries[index]);
+    }
+    
+    // marks a ROTATED redemption's token as used; false when another renewal already spent it, which is
+    // treated as a replay and shuts the family down
+    public synchronized boolean commit(Redemption redemption) {
+        int index = find(redemption.tokenId);
+        if (index < 0 || families[index] != redemption.familyId || revokedFamilies.containsKey(redemption.familyId)) {
+            return false;
+        }
+        if (states[index] == USED) {
+            revokedFamilies.put(redemption.familyId, expiries[index]);
+            return false;
+        }
+        states[index] = USED;
+        return true;
+    }
+    
+    public synchronized int size() {
+        return size;
+    }
+    
+    public synchronized int capacity() {
+        return ids.length;
+    }
+    
+    public int revokedFamilyCount() {
+        return revokedFamilies.size();
+    }
+    
+    public synchronized int liveFamilyCount() {
+        return currentFamilies.size();
+    }
+    
+    private int find(long id) {
+        int index = indexFor(id, mask);
+        for (int probes = 0; probes <= mask; probes++) {
+            long current = ids[index];
+            if (current == EMPTY) {
+                return -1;
+            }
+            if (current == id) {
+                return index;
+            }
+            index = (index + 1) & mask;
+        }
+        return -1;
+    }
+    
+    // used tokens stay in the table until expiry so replays can be detected, and are only
+    // dropped here together with retired families, which keeps the probe sequences free of tombstones
+    private void rebuild(long now) {
+        List<Long> expiredFamilies = new ArrayList<>();
+        revokedFamilies.forEachEntry((familyId, expiresAt) -> {
+            if (expiresAt <= now) {
+                expiredFamilies.add(familyId);
+            }
+        });
+        for (Long familyId : expiredFamilies) {
+            revokedFamilies.remove(familyId);
+        }
+        
+        int live = 0;
+        for (int i = 0; i < ids.length; i++) {
+            if (isLive(ids[i], families[i], expiries[i], clientIds[i], now)) {
+                live++;
+            }
+        }
+        
+        long[] oldIds = ids;
+        long[] oldVerifiers = verifiers;
+        long[] oldFamilies = families;
+        long[] oldExpiries = expiries;
+        byte[] oldStates = states;
+        String[] oldClientIds = clientIds;
+        String[] oldScopes = scopes;
+        allocate(live * 2 >= resizeThreshold ? oldIds.length << 1 : oldIds.length);
+        Set<Long> keptFamilies = new HashSet<>();
+        for (int i = 0; i < oldIds.length; i++) {
+            long id = oldIds[i];
+            if (!isLive(id, oldFamilies[i], oldExpiries[i], oldClientIds[i], now)) {
+                continue;
+            }
+            keptFamilies.add(oldFamilies[i]);
+            int index = indexFor(id, mask);
+            while (ids[index] != EMPTY) {
+                index = (index + 1) & mask;
+            }
+            ids[index] = id;
+            verifiers[index] = oldVerifiers[i];
+            families[index] = oldFamilies[i];
+            expiries[index] = oldExpiries[i];
+            states[index] = oldStates[i];
+            clientIds[index] = oldClientIds[i];
+            scopes[index] = oldScopes[i];
+        }
+        size = live;
+        currentFamilies.values().removeIf(familyId -> !keptFamilies.contains(familyId));
+    }
+    
+    private boolean isLive(long id, long familyId, long expiresAt, String clientId, long now) {
+        if (id == EMPTY || expiresAt <= now || revokedFamilies.containsKey(familyId)) {
+            return false;
+        }
+        Long current = currentFamilies.get(clientId);
+        return current != null && current == familyId;
+    }
+    
+    private void allocate(int capacity) {
+        if (capacity > (1 << 30)) {
+            throw new IllegalStateException("Refresh token store capacity too large: " + capacity);
+        }
+        ids = new long[capacity];
+        verifiers = new long[capacity];
+        families = new long[capacity];
+        expiries = new long[capacity];
+        states = new byte[capacity];
+        clientIds = new String[capacity];
+        scopes = new String[capacity];
+        mask = capacity - 1;
+        resizeThreshold = (int) (capacity * MAX_LOAD_FACTOR);
+    }
+    
+    private static int capacityFor(int expectedEntries) {
+        long required = (long) Math.ceil(Math.max(expectedEntries, 1) / (double) MAX_LOAD_FACTOR);
+        long capacity = Long.highestOneBit(Math.max(required, MIN_CAPACITY) - 1) << 1;
+        if (capacity > (1 << 30)) {
+            throw new IllegalArgumentException("Refresh token store capacity too large: " + expectedEntries);
+        }
+        return (int) capacity;
+    }
+    
+    private static int indexFor(long id, int mask) {
+        long h = id * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.tokenservice.service;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+public class RevocationBloomFilter {
+    
+    private static final int BITS_PER_ENTRY = 10;
+    private static final int HASH_FUNCTIONS = 7;
+    
+    private final AtomicLongArray words;
+    private final long bitCount;
+    private final int capacity;
+    
+    public RevocationBloomFilter(int expectedEntries) {
+        this.capacity = Math.max(expectedEntries, 1024);
+        int wordCount = (int) (((long) capacity * BITS_PER_ENTRY + 63) / 64);
+        this.words = new AtomicLongArray(wordCount);
+        this.bitCount = (long) wordCount * 64;
+    }
+    
+    public void add(long key) {
+        long h1 = key;
+        long h2 = Long.rotateLeft(key * 0x9E3779B97F4A7C15L, 31) | 1L;
+        for (int i = 0; i < HASH_FUNCTIONS; i++) {
+            long bit = Long.remainderUnsigned(h1 + i * h2, bitCount);
+            int word = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            long current = words.get(word);
+            while ((current & mask) == 0 && !words.compareAndSet(word, current, current | mask)) {
+                current = words.get(word);
+            }
+        }
+    }
+    
+    public boolean mightContain(long key) {
+        long h1 = key;
+        long h2 = Long.rotateLeft(key * 0x9E3779B97F4A7C15L, 31) | 1L;
+        for (int i = 0; i < HASH_FUNCTIONS; i++) {
+            long bit = Long.remainderUnsigned(h1 + i * h2, bitCount);
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    public int capacity() {
+        return capacity;
+    }
+}
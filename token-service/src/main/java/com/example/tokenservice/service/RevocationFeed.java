@@ -0,0 +1,79 @@
+package com.example.tokenservice.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+public class RevocationFeed {
+    
+    private final long[] keys;
+    private final long[] expiries;
+    private final int mask;
+    private final List<CompletableFuture<Long>> waiters = new ArrayList<>();
+    private long sequence;
+    
+    public RevocationFeed(int capacity) {
+        int size = Integer.highestOneBit(Math.max(capacity, 64) - 1) << 1;
+        this.keys = new long[size];
+        this.expiries = new long[size];
+        this.mask = size - 1;
+    }
+    
+    public void publish(long key, long expiresAt) {
+        List<CompletableFuture<Long>> ready;
+        long published;
+        synchronized (this) {
+            int slot = (int) (sequence & mask);
+            keys[slot] = key;
+            expiries[slot] = expiresAt;
+            published = ++sequence;
+            if (waiters.isEmpty()) {
+                return;
+            }
+            ready = new ArrayList<>(waiters);
+            waiters.clear();
+        }
+        // complete outside the lock so waiter callbacks never run while publishers are blocked
+        for (CompletableFuture<Long> waiter : ready) {
+            waiter.complete(published);
+        }
+    }
+    
+    public synchronized long sequence() {
+        return sequence;
+    }
+    
+    public synchronized boolean covers(long since) {
+        return since >= 0 && since <= sequence && sequence - since <= keys.length;
+    }
+    
+    // Returns the sequence of the last entry handed to the consumer, or -1 if the ring no longer holds 'since'
+    public synchronized long read(long since, int limit, RevocationTable.EntryConsumer consumer) {
+        if (!covers(since)) {
+            return -1L;
+        }
+        long end = Math.min(sequence, since + limit);
+        for (long seq = since; seq < end; seq++) {
+            int slot = (int) (seq & mask);
+            consumer.accept(keys[slot], expiries[slot]);
+        }
+        return end;
+    }
+    
+    public synchronized CompletableFuture<Long> awaitAfter(long since) {
+        if (sequence > since) {
+            return CompletableFuture.completedFuture(sequence);
+        }
+        CompletableFuture<Long> waiter = new CompletableFuture<>();
+        waiters.add(waiter);
+        return waiter;
+    }
+    
+    public synchronized void cancel(CompletableFuture<Long> waiter) {
+        waiters.remove(waiter);
+    }
+    
+    public int capacity() {
+        return keys.length;
+    }
+}
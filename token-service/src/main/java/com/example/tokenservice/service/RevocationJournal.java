@@ -0,0 +1,152 @@
+package com.example.tokenservice.service;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+public class RevocationJournal implements Closeable {
+    
+    public interface RecordHandler {
+        void record(long key, long entry);
+    }
+    
+    public interface RecordSource {
+        void forEach(RecordHandler handler);
+    }
+    
+    private static final int MAGIC = 0x52564A31;
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 32;
+    private static final int RECORD_SIZE = 16;
+    private static final long MIN_CAPACITY = HEADER_SIZE + RECORD_SIZE * 4096L;
+    private static final long MAX_CAPACITY = HEADER_SIZE + RECORD_SIZE * ((Integer.MAX_VALUE - HEADER_SIZE) / RECORD_SIZE);
+    
+    private final Path path;
+    private FileChannel channel;
+    private MappedByteBuffer buffer;
+    private long capacity;
+    private long position;
+    private boolean dirty;
+    
+    private RevocationJournal(Path path) {
+        this.path = path;
+    }
+    
+    public static RevocationJournal open(Path path, RecordHandler replayHandler) throws IOException {
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        RevocationJournal journal = new RevocationJournal(path);
+        journal.map(FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE));
+        journal.replay(replayHandler);
+        return journal;
+    }
+    
+    public void append(long key, long entry) throws IOException {
+        if (position + RECORD_SIZE > capacity) {
+            grow();
+        }
+        int offset = (int) position;
+        // the key is written last and acts as the commit marker for the record
+        buffer.putLong(offset + 8, entry);
+        buffer.putLong(offset, normalize(key));
+        position += RECORD_SIZE;
+        dirty = true;
+    }
+    
+    public void force() {
+        if (dirty) {
+            buffer.force();
+            dirty = false;
+        }
+    }
+    
+    public long recordCount() {
+        return (position - HEADER_SIZE) / RECORD_SIZE;
+    }
+    
+    public void compact(RecordSource liveRecords) throws IOException {
+        Path compacted = path.resolveSibling(path.getFileName() + ".compact");
+        Files.deleteIfExists(compacted);
+        RevocationJournal target = new RevocationJournal(compacted);
+        target.map(FileChannel.open(compacted, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE));
+        target.position = HEADER_SIZE;
+        try {
+            liveRecords.forEach((key, entry) -> {
+                try {
+                    target.append(key, entry);
+                } catch (IOException e) {
+                    throw new IllegalStateException("Failed to write compacted revocation journal", e);
+                }
+            });
+            target.dirty = true;
+            target.force();
+        } finally {
+            target.channel.close();
+        }
+        
+        channel.close();
+        Files.move(compacted, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        map(FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE));
+        position = target.position;
+        dirty = false;
+    }
+    
+    @Override
+    public void close() throws IOException {
+        force();
+        channel.close();
+    }
+    
+    private void replay(RecordHandler handler) throws IOException {
+        position = HEADER_SIZE;
+        while (position + RECORD_SIZE <= capacity) {
+            int offset = (int) position;
+            long key = buffer.getLong(offset);
+            if (key == 0L) {
+                break;
+            }
+            handler.record(key, buffer.getLong(offset + 8));
+            position += RECORD_SIZE;
+        }
+    }
+    
+    private void map(FileChannel fileChannel) throws IOException {
+        this.channel = fileChannel;
+        long size = fileChannel.size();
+        if (size == 0) {
+            remap(MIN_CAPACITY);
+            buffer.putInt(0, MAGIC);
+            buffer.putInt(4, VERSION);
+            buffer.putInt(8, RECORD_SIZE);
+            dirty = true;
+            return;
+        }
+        remap(size);
+        if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+            throw new IOException("Not a revocation journal: " + path);
+        }
+    }
+    
+    private void grow() throws IOException {
+        if (capacity >= MAX_CAPACITY) {
+            throw new IOException("Revocation journal is full: " + path);
+        }
+        force();
+        remap(Math.min(capacity * 2, MAX_CAPACITY));
+    }
+    
+    private void remap(long newCapacity) throws IOException {
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, newCapacity);
+        capacity = newCapacity;
+    }
+    
+    private static long normalize(long key) {
+        return key == 0L ? 1L : key;
+    }
+}
@@ -0,0 +1,205 @@
+package com.example.tokenservice.service;
+
+import java.util.concurrent.locks.StampedLock;
+
+public class RevocationTable {
+    
+    public interface EntryConsumer {
+        void accept(long key, long value);
+    }
+    
+    private static final long EMPTY = 0L;
+    private static final float MAX_LOAD_FACTOR = 0.75f;
+    private static final int MIN_CAPACITY = 16;
+    
+    private final StampedLock lock = new StampedLock();
+    
+    private long[] keys;
+    private long[] values;
+    private int mask;
+    private int size;
+    private int resizeThreshold;
+    
+    public RevocationTable(int expectedEntries) {
+        allocate(capacityFor(expectedEntries));
+    }
+    
+    public boolean containsKey(long key) {
+        return get(key, EMPTY) != EMPTY;
+    }
+    
+    public long get(long key, long defaultValue) {
+        long slotKey = normalize(key);
+        long stamp = lock.tryOptimisticRead();
+        // a resize may swap the arrays mid-read, so take one snapshot and derive the mask from it; a torn
+        // snapshot (keys and values from different generations) never gets indexed and fails validation anyway
+        long[] currentKeys = keys;
+        long[] currentValues = values;
+        long result = defaultValue;
+        if (currentValues.length == currentKeys.length) {
+            result = find(currentKeys, currentValues, slotKey, defaultValue);
+        }
+        if (currentValues.length != currentKeys.length || !lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                result = find(keys, values, slotKey, defaultValue);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        return result;
+    }
+    
+    public void put(long key, long value) {
+        long slotKey = normalize(key);
+        long stamp = lock.writeLock();
+        try {
+            if (size >= resizeThreshold) {
+                resize(keys.length << 1);
+            }
+            int index = indexFor(slotKey, mask);
+            while (keys[index] != EMPTY) {
+                if (keys[index] == slotKey) {
+                    values[index] = value;
+                    return;
+                }
+                index = (index + 1) & mask;
+            }
+            keys[index] = slotKey;
+            values[index] = value;
+            size++;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+    
+    public boolean remove(long key) {
+        long slotKey = normalize(key);
+        long stamp = lock.writeLock();
+        try {
+            int index = indexFor(slotKey, mask);
+            while (keys[index] != EMPTY) {
+                if (keys[index] == slotKey) {
+                    deleteAt(index);
+                    return true;
+                }
+                index = (index + 1) & mask;
+            }
+            return false;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+    
+    public void forEachEntry(EntryConsumer consumer) {
+        long stamp = lock.readLock();
+        try {
+            for (int i = 0; i < keys.length; i++) {
+                if (keys[i] != EMPTY) {
+                    consumer.accept(keys[i], values[i]);
+                }
+            }
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+    
+    public int size() {
+        long stamp = lock.tryOptimisticRead();
+        int result = size;
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                result = size;
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        return result;
+    }
+    
+    public int capacity() {
+        long stamp = lock.readLock();
+        try {
+            return keys.length;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+    
+    private static long find(long[] keys, long[] values, long slotKey, long defaultValue) {
+        int mask = keys.length - 1;
+        int index = indexFor(slotKey, mask);
+        for (int probes = 0; probes < keys.length; probes++) {
+            long current = keys[index];
+            if (current == EMPTY) {
+                return defaultValue;
+            }
+            if (current == slotKey) {
+                return values[index];
+            }
+            index = (index + 1) & mask;
+        }
+        return defaultValue;
+    }
+    
+    private void deleteAt(int index) {
+        int hole = index;
+        int next = (hole + 1) & mask;
+        while (keys[next] != EMPTY) {
+            int home = indexFor(keys[next], mask);
+            // move the entry back if the hole lies cyclically between its home slot and its current slot
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                keys[hole] = keys[next];
+                values[hole] = values[next];
+                hole = next;
+            }
+            next = (next + 1) & mask;
+        }
+        keys[hole] = EMPTY;
+        values[hole] = 0L;
+        size--;
+    }
+    
+    private void resize(int newCapacity) {
+        long[] oldKeys = keys;
+        long[] oldValues = values;
+        allocate(newCapacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            long key = oldKeys[i];
+            if (key != EMPTY) {
+                int index = indexFor(key, mask);
+                while (keys[index] != EMPTY) {
+                    index = (index + 1) & mask;
+                }
+                keys[index] = key;
+                values[index] = oldValues[i];
+            }
+        }
+    }
+    
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new long[capacity];
+        mask = capacity - 1;
+        resizeThreshold = (int) (capacity * MAX_LOAD_FACTOR);
+    }
+    
+    private static int capacityFor(int expectedEntries) {
+        long required = (long) Math.ceil(Math.max(expectedEntries, 1) / (double) MAX_LOAD_FACTOR);
+        long capacity = Long.highestOneBit(Math.max(required, MIN_CAPACITY) - 1) << 1;
+        if (capacity > (1 << 30)) {
+            throw new IllegalArgumentException("Revocation table capacity too large: " + expectedEntries);
+        }
+        return (int) capacity;
+    }
+    
+    private static long normalize(long key) {
+        return key == EMPTY ? 1L : key;
+    }
+    
+    private static int indexFor(long key, int mask) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+}
@@ -0,0 +1,127 @@
+package com.example.tokenservice.service;
+
+import java.util.Arrays;
+
+public class RevocationTimingWheel {
+    
+    public interface ExpiryHandler {
+        void expired(long key, long expiresAt);
+    }
+    
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+    private static final int LEVELS = 4;
+    
+    private final long tickMs;
+    private final Bucket[][] wheels = new Bucket[LEVELS][SLOTS];
+    private long currentTick;
+    private int size;
+    
+    public RevocationTimingWheel(long tickMs, long startTimeMs) {
+        this.tickMs = tickMs;
+        this.currentTick = startTimeMs / tickMs;
+        for (int level = 0; level < LEVELS; level++) {
+            for (int slot = 0; slot < SLOTS; slot++) {
+                wheels[level][slot] = new Bucket();
+            }
+        }
+    }
+    
+    public void schedule(long key, long expiresAt) {
+        // the current tick has already been processed, so the earliest slot is the next one
+        long expiryTick = Math.max(tickOf(expiresAt), currentTick + 1);
+        insert(key, expiresAt, expiryTick);
+        size++;
+    }
+    
+    public int advanceTo(long nowMs, ExpiryHandler handler) {
+        long targetTick = nowMs / tickMs;
+        int expired = 0;
+        while (currentTick < targetTick) {
+            currentTick++;
+            for (int level = 1; level < LEVELS; level++) {
+                if ((currentTick & ((1L << (SLOT_BITS * level)) - 1)) != 0) {
+                    break;
+                }
+                cascade(wheels[level][slotOf(currentTick, level)]);
+            }
+            Bucket due = wheels[0][slotOf(currentTick, 0)];
+            for (int i = 0; i < due.size; i++) {
+                handler.expired(due.keys[i], due.expirations[i]);
+            }
+            expired += due.size;
+            size -= due.size;
+            due.clear();
+        }
+        return expired;
+    }
+    
+    public int size() {
+        return size;
+    }
+    
+    private void cascade(Bucket bucket) {
+        int count = bucket.size;
+        long[] keys = bucket.keys;
+        long[] expirations = bucket.expirations;
+        bucket.detach();
+        for (int i = 0; i < count; i++) {
+            // entries in a cascading slot are due no earlier than the current tick
+            insert(keys[i], expirations[i], Math.max(tickOf(expirations[i]), currentTick));
+        }
+    }
+    
+    private void insert(long key, long expiresAt, long expiryTick) {
+        long delta = expiryTick - currentTick;
+        int level = 0;
+        while (level < LEVELS - 1 && delta >= (1L << (SLOT_BITS * (level + 1)))) {
+            level++;
+        }
+        long maxDelta = (1L << (SLOT_BITS * LEVELS)) - 1;
+        // beyond the outermost wheel: park in the furthest slot and re-insert when it cascades
+        long slotTick = delta > maxDelta ? currentTick + maxDelta : expiryTick;
+        wheels[level][slotOf(slotTick, level)].add(key, expiresAt);
+    }
+    
+    private long tickOf(long timeMs) {
+        return (timeMs + tickMs - 1) / tickMs;
+    }
+    
+    private static int slotOf(long tick, int level) {
+        return (int) (tick >>> (SLOT_BITS * level)) & SLOT_MASK;
+    }
+    
+    private static final class Bucket {
+        private static final long[] EMPTY = new long[0];
+        
+        private long[] keys = EMPTY;
+        private long[] expirations = EMPTY;
+        private int size;
+        
+        void add(long key, long expiresAt) {
+            if (size == keys.length) {
+                int capacity = Math.max(8, size << 1);
+                keys = Arrays.copyOf(keys, capacity);
+                expirations = Arrays.copyOf(expirations, capacity);
+            }
+            keys[size] = key;
+            expirations[size] = expiresAt;
+            size++;
+        }
+        
+        void clear() {
+            if (keys.length > 1024) {
+                detach();
+            } else {
+                size = 0;
+            }
+        }
+        
+        void detach() {
+            keys = EMPTY;
+            expirations = EMPTY;
+            size = 0;
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.tokenservice.service;
+
+import java.security.KeyPair;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.util.Base64;
+
+public final class SigningKey {
+    
+    private final String keyId;
+    private final KeyPair keyPair;
+    private final long createdAt;
+    private final long retiredAt;
+    
+    SigningKey(String keyId, KeyPair keyPair, long createdAt) {
+        this(keyId, keyPair, createdAt, 0L);
+    }
+    
+    private SigningKey(String keyId, KeyPair keyPair, long createdAt, long retiredAt) {
+        this.keyId = keyId;
+        this.keyPair = keyPair;
+        this.createdAt = createdAt;
+        this.retiredAt = retiredAt;
+    }
+    
+    SigningKey retire(long now) {
+        return new SigningKey(keyId, keyPair, createdAt, now);
+    }
+    
+    public String getKeyId() {
+        return keyId;
+    }
+    
+    public PublicKey getPublicKey() {
+        return keyPair.getPublic();
+    }
+    
+    public PrivateKey getPrivateKey() {
+        return keyPair.getPrivate();
+    }
+    
+    public String getPublicKeyAsString() {
+        return Base64.getEncoder().encodeToString(keyPair.getPublic().getEncoded());
+    }
+    
+    public long getCreatedAt() {
+        return createdAt;
+    }
+    
+    public long getRetiredAt() {
+        return retiredAt;
+    }
+}
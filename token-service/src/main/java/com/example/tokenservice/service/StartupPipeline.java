@@ -0,0 +1,169 @@
+package com.example.tokenservice.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micronaut.context.event.ApplicationEventListener;
+import io.micronaut.runtime.server.event.ServerStartupEvent;
+import jakarta.annotation.PreDestroy;
+import jakarta.inject.Singleton;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Critical phases run in parallel and gate readiness; deferred phases wait until the HTTP port is bound.
+// Every phase is timed and exported as token.startup.phase.duration so slow scale-outs can be traced to a phase.
+@Singleton
+public class StartupPipeline implements ApplicationEventListener<ServerStartupEvent> {
+    
+    private static final Logger LOG = LoggerFactory.getLogger(StartupPipeline.class);
+    
+    public static final String PHASE_SERVER_BIND = "server.bind";
+    public static final String PHASE_READY = "ready";
+    
+    private final MeterRegistry meterRegistry;
+    private final ExecutorService executor;
+    private final Map<String, CompletableFuture<Void>> critical = new ConcurrentHashMap<>();
+    private final Map<String, Long> phaseNanos = new ConcurrentHashMap<>();
+    private final List<Runnable> deferred = new ArrayList<>();
+    private volatile boolean serverStarted;
+    private volatile boolean ready;
+    
+    public StartupPipeline(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(Math.max(2, Runtime.getRuntime().availableProcessors()), r -> {
+            Thread thread = new Thread(r, "startup-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        Gauge.builder("token.startup.ready", this, pipeline -> pipeline.isReady() ? 1 : 0)
+                .description("1 once every critical startup phase has completed and the server is bound")
+                .register(meterRegistry);
+    }
+    
+    public CompletableFuture<Void> critical(String phase, Runnable task) {
+        CompletableFuture<Void> future = CompletableFuture.runAsync(timed(phase, task), executor);
+        critical.put(phase, future);
+        future.whenComplete((result, error) -> {
+            if (error != null) {
+                LOG.error("Critical startup phase failed: {}, service will not report ready", phase, error);
+            }
+            checkReady();
+        });
+        return future;
+    }
+    
+    public void deferred(String phase, Runnable task) {
+        Runnable timedTask = timed(phase, task);
+        synchronized (deferred) {
+            if (!serverStarted) {
+                deferred.add(timedTask);
+                return;
+            }
+        }
+        executor.execute(timedTask);
+    }
+    
+    @Override
+    public void onApplicationEvent(ServerStartupEvent event) {
+        record(PHASE_SERVER_BIND, TimeUnit.MILLISECONDS.toNanos(ManagementFactory.getRuntimeMXBean().getUptime()));
+        List<Runnable> pending;
+        synchronized (deferred) {
+            serverStarted = true;
+            pending = new ArrayList<>(deferred);
+            deferred.clear();
+        }
+        LOG.info("Server bound after {}ms, running {} deferred startup phases",
+                TimeUnit.NANOSECONDS.toMillis(phaseNanos.get(PHASE_SERVER_BIND)), pending.size());
+        pending.forEach(executor::execute);
+        checkReady();
+    }
+    
+    public boolean isReady() {
+        return ready;
+    }
+    
+    public boolean isLive() {
+        // a failed critical phase never recovers on its own, so the instance should be replaced
+        return critical.values().stream().noneMatch(CompletableFuture::isCompletedExceptionally);
+    }
+    
+    public List<String> getPendingPhases() {
+        List<String> pending = new ArrayList<>();
+        critical.forEach((phase, future) -> {
+            if (!future.isDone() || future.isCompletedExceptionally()) {
+                pending.add(phase);
+            }
+        });
+        if (!serverStarted) {
+            pending.add(PHASE_SERVER_BIND);
+        }
+        return pending;
+    }
+    
+    public Map<String, Long> getPhaseDurationsMs() {
+        Map<String, Long> durations = new LinkedHashMap<>();
+        phaseNanos.forEach((phase, nanos) -> durations.put(phase, TimeUnit.NANOSECONDS.toMillis(nanos)));
+        return durations;
+    }
+    
+    private void checkReady() {
+        if (ready || !serverStarted) {
+            return;
+        }
+        for (CompletableFuture<Void> future : critical.values()) {
+            if (!future.isDone() || future.isCompletedExceptionally()) {
+                return;
+            }
+        }
+        synchronized (this) {
+            if (ready) {
+                return;
+            }
+            record(PHASE_READY, TimeUnit.MILLISECONDS.toNanos(ManagementFactory.getRuntimeMXBean().getUptime()));
+            ready = true;
+        }
+        LOG.info("Token service ready after {}ms, startup phases: {}",
+                TimeUnit.NANOSECONDS.toMillis(phaseNanos.get(PHASE_READY)), getPhaseDurationsMs());
+    }
+    
+    private Runnable timed(String phase, Runnable task) {
+        return () -> {
+            long startedAt = System.nanoTime();
+            try {
+                task.run();
+            } finally {
+                record(phase, System.nanoTime() - startedAt);
+                LOG.debug("Startup phase {} finished in {}ms", phase,
+                        TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt));
+            }
+        };
+    }
+    
+    private void record(String phase, long nanos) {
+        if (phaseNanos.put(phase, nanos) == null) {
+            TimeGauge.builder("token.startup.phase.duration", phaseNanos, TimeUnit.NANOSECONDS,
+                            durations -> durations.getOrDefault(phase, 0L))
+                    .description("Wall time of each startup phase; server.bind and ready are measured from JVM start")
+                    .tag("phase", phase)
+                    .register(meterRegistry);
+        }
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -1,12 +1,20 @@
 package com.example.tokenservice.service;
 
+import com.example.tokenservice.dto.RevocationEntry;
+import com.example.tokenservice.dto.RevocationFeedResponse;
+import com.example.tokenservice.metrics.TokenMetrics;
 import io.micronaut.context.annotation.Property;
+import jakarta.annotation.PreDestroy;
 import jakarta.inject.Singleton;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
@@ -16,60 +24,322 @@ public class TokenBlacklistService {
     
     private static final Logger LOG = LoggerFactory.getLogger(TokenBlacklistService.class);
     
-    private final Map<String, Long> blacklistedTokens = new ConcurrentHashMap<>();
+    private final RevocationTable revokedTokens;
+    private final RevocationTimingWheel expiryWheel;
+    private final RevocationJournal journal;
+    private final RevocationFeed revocationFeed;
+    private final AuditLog auditLog;
+    private final TokenMetrics tokenMetrics;
+    // a fresh epoch per process tells feed consumers that sequence numbers restarted
+    private final String feedEpoch = UUID.randomUUID().toString();
+    private final int expectedRevocations;
+    private final long defaultTokenLifetimeMs;
+    private final long compactionIntervalMs;
+    private volatile RevocationBloomFilter bloomFilter;
+    private volatile Snapshot latestSnapshot;
+    private int evictedSinceRebuild;
+    private long lastCompactionAt;
+    private final Object writeLock = new Object();
     private final ScheduledExecutorService cleanupExecutor;
-    private final long cleanupInterval;
+    private final long tickMs;
     
-    public TokenBlacklistService(@Property(name = "token.blacklist.cleanup-interval", defaultValue = "3600") long cleanupInterval) {
-        this.cleanupInterval = cleanupInterval;
+    public TokenBlacklistService(AuditLog auditLog,
+                                 TokenMetrics tokenMetrics,
+                                 @Property(name = "token.blacklist.wheel.tick", defaultValue = "1000") long tickMs,
+                                 @Property(name = "token.blacklist.expected-revocations", defaultValue = "100000") int expectedRevocations,
+                                 @Property(name = "token.jwt.expiration", defaultValue = "3600") long tokenExpiration,
+                                 @Property(name = "token.blacklist.journal.path", defaultValue = "") String journalPath,
+                                 @Property(name = "token.blacklist.journal.compaction-interval", defaultValue = "600") long compactionInterval,
+                                 @Property(name = "token.blacklist.feed.capacity", defaultValue = "65536") int feedCapacity) {
+        this.auditLog = auditLog;
+        this.tokenMetrics = tokenMetrics;
+        this.tickMs = tickMs;
+        this.expectedRevocations = expectedRevocations;
+        this.defaultTokenLifetimeMs = tokenExpiration * 1000;
+        this.compactionIntervalMs = compactionInterval * 1000;
+        this.revokedTokens = new RevocationTable(expectedRevocations);
+        this.bloomFilter = new RevocationBloomFilter(expectedRevocations);
+        this.expiryWheel = new RevocationTimingWheel(tickMs, System.currentTimeMillis());
+        this.revocationFeed = new RevocationFeed(feedCapacity);
+        this.journal = journalPath == null || journalPath.isEmpty() ? null : openJournal(Path.of(journalPath));
+        this.lastCompactionAt = System.currentTimeMillis();
         this.cleanupExecutor = Executors.newSingleThreadScheduledExecutor();
         startCleanupTask();
-        LOG.info("Token blacklist service initialized with cleanup interval: {} seconds", cleanupInterval);
+        LOG.info("Token blacklist service initialized with expiry tick: {}ms, expected revocations: {}, journal: {}", 
+                tickMs, expectedRevocations, journal != null ? journalPath : "disabled");
     }
     
     public void revokeToken(String token, String reason) {
+        revokeToken(token, System.currentTimeMillis() + defaultTokenLifetimeMs, reason);
+    }
+    
+    public void revokeToken(String token, long expiresAt, String reason) {
         long revokedAt = System.currentTimeMillis();
-        blacklistedTokens.put(token, revokedAt);
-        LOG.info("Token revoked at: {}, reason: {}", revokedAt, reason);
+        long key = keyOf(TokenDigest.of(token));
+        long entry = packEntry(revokedAt, expiresAt);
+        synchronized (writeLock) {
+            if (journal != null) {
+                appendToJournal(key, entry);
+            }
+            // publish to the filter first so a reader never sees a table entry the filter would reject
+            bloomFilter.add(key);
+            revokedTokens.put(key, entry);
+            expiryWheel.schedule(key, expiresAt);
+            if (revokedTokens.size() > bloomFilter.capacity()) {
+                rebuildBloomFilter();
+            }
+            revocationFeed.publish(key, expiresAtOf(entry));
+        }
+        auditLog.recordRevoked(key, expiresAt, reason);
+        LOG.debug("Token revoked at: {}, expires at: {}, reason: {}", revokedAt, expiresAt, reason);
     }
     
     public boolean isTokenRevoked(String token) {
-        return blacklistedTokens.containsKey(token);
+        return isTokenRevoked(TokenDigest.of(token));
+    }
+    
+    public boolean isTokenRevoked(TokenDigest digest) {
+        if (!tokenMetrics.sampleRevocationLookup()) {
+            return lookup(digest);
+        }
+        long start = System.nanoTime();
+        boolean revoked = lookup(digest);
+        tokenMetrics.recordRevocationLookup(System.nanoTime() - start, revoked);
+        return revoked;
+    }
+    
+    private boolean lookup(TokenDigest digest) {
+        long key = keyOf(digest);
+        return bloomFilter.mightContain(key) && revokedTokens.containsKey(key);
     }
     
     public long getRevocationTime(String token) {
-        return blacklistedTokens.getOrDefault(token, 0L);
+        long key = keyOf(TokenDigest.of(token));
+        if (!bloomFilter.mightContain(key)) {
+            return 0L;
+        }
+        long entry = revokedTokens.get(key, 0L);
+        return entry == 0L ? 0L : (entry >>> 32) * 1000;
     }
     
     public int getRevokedTokenCount() {
-        return blacklistedTokens.size();
+        return revokedTokens.size();
+    }
+    
+    public RevocationFeedResponse readRevocations(String epoch, long since, String cursor, int limit) {
+        List<RevocationEntry> entries = new ArrayList<>();
+        if (feedEpoch.equals(epoch) && (cursor == null || cursor.isEmpty())) {
+            long last = revocationFeed.read(since, limit, (key, expiresAt) -> entries.add(new RevocationEntry(key, expiresAt)));
+            if (last >= 0) {
+                return new RevocationFeedResponse(feedEpoch, last, false, last < revocationFeed.sequence(), entries);
+            }
+        }
+        
+        // unknown epoch or a consumer that fell behind the ring: hand out the live set page by page
+        Snapshot snapshot = latestSnapshot;
+        int offset = snapshot != null ? snapshot.offsetOf(cursor) : -1;
+        if (offset < 0) {
+            offset = 0;
+            snapshot = currentSnapshot();
+        }
+        int end = Math.min(snapshot.keys.length, offset + limit);
+        for (int i = offset; i < end; i++) {
+            entries.add(new RevocationEntry(snapshot.keys[i], expiresAtOf(snapshot.entries[i])));
+        }
+        boolean hasMore = end < snapshot.keys.length;
+        if (offset == 0) {
+            LOG.info("Revocation feed snapshot started with {} entries at sequence: {}", snapshot.keys.length, snapshot.sequence);
+        }
+        return new RevocationFeedResponse(feedEpoch, snapshot.sequence, true, hasMore, entries, 
+                hasMore ? snapshot.cursorAt(end) : null, offset);
+    }
+    
+    // a snapshot stays usable as long as the ring still covers its sequence, since consumers catch up from there
+    private Snapshot currentSnapshot() {
+        Snapshot snapshot = latestSnapshot;
+        if (snapshot != null && revocationFeed.covers(snapshot.sequence)) {
+            return snapshot;
+        }
+        long sequence;
+        long[] keys;
+        long[] entries;
+        // only a primitive copy under the lock; entries are built and serialized per page outside it
+        synchronized (writeLock) {
+            sequence = revocationFeed.sequence();
+            keys = new long[revokedTokens.size()];
+            entries = new long[keys.length];
+            int[] count = new int[1];
+            revokedTokens.forEachEntry((key, entry) -> {
+                keys[count[0]] = key;
+                entries[count[0]++] = entry;
+            });
+        }
+        snapshot = new Snapshot(UUID.randomUUID().toString(), sequence, keys, entries);
+        latestSnapshot = snapshot;
+        return snapshot;
+    }
+    
+    public boolean hasRevocationsAfter(String epoch, long since) {
+        // a consumer ahead of the feed is replaying an old sequence and needs a snapshot right away
+        return !feedEpoch.equals(epoch) || revocationFeed.sequence() != since;
+    }
+    
+    public CompletableFuture<Long> awaitRevocations(long since) {
+        return revocationFeed.awaitAfter(since);
+    }
+    
+    public void cancelAwait(CompletableFuture<Long> waiter) {
+        revocationFeed.cancel(waiter);
+    }
+    
+    private RevocationJournal openJournal(Path path) {
+        long startedAt = System.nanoTime();
+        long now = System.currentTimeMillis();
+        int[] replayed = new int[2];
+        try {
+            RevocationJournal opened = RevocationJournal.open(path, (key, entry) -> {
+                replayed[0]++;
+                long expiresAt = expiresAtOf(entry);
+                if (expiresAt > now) {
+                    revokedTokens.put(key, entry);
+                    expiryWheel.schedule(key, expiresAt);
+                    replayed[1]++;
+                }
+            });
+            rebuildBloomFilter();
+            LOG.info("Revocation journal replayed {} records ({} live) from {} in {}ms", 
+                    replayed[0], replayed[1], path, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt));
+            return opened;
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to open revocation journal: " + path, e);
+        }
+    }
+    
+    private void appendToJournal(long key, long entry) {
+        try {
+            journal.append(key, entry);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to append to revocation journal", e);
+        }
     }
     
     private void startCleanupTask() {
-        cleanupExecutor.scheduleAtFixedRate(this::cleanupExpiredTokens, 
-                cleanupInterval, cleanupInterval, TimeUnit.SECONDS);
+        cleanupExecutor.scheduleAtFixedRate(this::evictExpiredTokens, 
+                tickMs, tickMs, TimeUnit.MILLISECONDS);
     }
     
-    private void cleanupExpiredTokens() {
+    private void evictExpiredTokens() {
         try {
-            long now = System.currentTimeMillis();
-            long expirationThreshold = now - (3600 * 1000);
-            
-            int beforeSize = blacklistedTokens.size();
-            blacklistedTokens.entrySet().removeIf(entry -> entry.getValue() < expirationThreshold);
-            int afterSize = blacklistedTokens.size();
+            int evicted;
+            synchronized (writeLock) {
+                evicted = expiryWheel.advanceTo(System.currentTimeMillis(), this::evictIfCurrent);
+                evictedSinceRebuild += evicted;
+                // stale filter bits only raise the false-positive rate; rebuild once they dominate
+                if (evictedSinceRebuild > Math.max(revokedTokens.size(), expectedRevocations / 2)) {
+                    rebuildBloomFilter();
+                }
+                if (journal != null) {
+                    journal.force();
+                    compactJournalIfDue();
+                }
+            }
             
-            if (beforeSize > afterSize) {
-                LOG.info("Cleaned up {} expired revoked tokens", beforeSize - afterSize);
+            if (evicted > 0) {
+                LOG.debug("Evicted {} expired revoked tokens", evicted);
             }
         } catch (Exception e) {
-            LOG.error("Error during token blacklist cleanup", e);
+            LOG.error("Error during token blacklist eviction", e);
+        }
+    }
+    
+    private void evictIfCurrent(long key, long expiresAt) {
+        long entry = revokedTokens.get(key, 0L);
+        // a token revoked again with a later expiry keeps its entry until that expiry fires
+        if (entry != 0L && (entry & 0xFFFFFFFFL) == expiresAt / 1000) {
+            revokedTokens.remove(key);
+        }
+    }
+    
+    private void compactJournalIfDue() throws IOException {
+        long now = System.currentTimeMillis();
+        long records = journal.recordCount();
+        int live = revokedTokens.size();
+        if (now - lastCompactionAt < compactionIntervalMs || records <= Math.max(2L * live, 1024)) {
+            return;
+        }
+        long startedAt = System.nanoTime();
+        journal.compact(handler -> revokedTokens.forEachEntry(handler::record));
+        lastCompactionAt = now;
+        LOG.info("Revocation journal compacted from {} to {} records in {}ms", 
+                records, live, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt));
+    }
+    
+    private void rebuildBloomFilter() {
+        RevocationBloomFilter rebuilt = new RevocationBloomFilter(Math.max(expectedRevocations, revokedTokens.size() * 2));
+        revokedTokens.forEachEntry((key, value) -> rebuilt.add(key));
+        bloomFilter = rebuilt;
+        evictedSinceRebuild = 0;
+        LOG.debug("Revocation bloom filter rebuilt with capacity: {}", rebuilt.capacity());
+    }
+    
+    private static long keyOf(TokenDigest digest) {
+        // zero marks an empty slot in the table and the end of the journal
+        long key = digest.getHigh();
+        return key == 0L ? 1L : key;
+    }
+    
+    private static long packEntry(long revokedAt, long expiresAt) {
+        return ((revokedAt / 1000) << 32) | ((expiresAt / 1000) & 0xFFFFFFFFL);
+    }
+    
+    private static long expiresAtOf(long entry) {
+        return (entry & 0xFFFFFFFFL) * 1000;
+    }
+    
+    private static final class Snapshot {
+        private final String id;
+        private final long sequence;
+        private final long[] keys;
+        private final long[] entries;
+        
+        private Snapshot(String id, long sequence, long[] keys, long[] entries) {
+            this.id = id;
+            this.sequence = sequence;
+            this.keys = keys;
+            this.entries = entries;
+        }
+        
+        private String cursorAt(int offset) {
+            return id + ":" + offset;
+        }
+        
+        // -1 when the cursor belongs to a snapshot that has since been replaced, or is not a cursor at all
+        private int offsetOf(String cursor) {
+            if (cursor == null || !cursor.startsWith(id + ":")) {
+                return -1;
+            }
+            try {
+                int offset = Integer.parseInt(cursor.substring(id.length() + 1));
+                return offset >= 0 && offset <= keys.length ? offset : -1;
+            } catch (NumberFormatException e) {
+                return -1;
+            }
         }
     }
     
+    @PreDestroy
     public void shutdown() {
         if (cleanupExecutor != null && !cleanupExecutor.isShutdown()) {
             cleanupExecutor.shutdown();
+            synchronized (writeLock) {
+                if (journal != null) {
+                    try {
+                        journal.close();
+                    } catch (IOException e) {
+                        LOG.error("Error closing revocation journal", e);
+                    }
+                }
+            }
             LOG.info("Token blacklist service shutdown");
         }
     }
@@ -0,0 +1,55 @@
+package com.example.tokenservice.service;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.function.Supplier;
+
+public final class TokenDigest {
+    
+    private static final Supplier<MessageDigest> SHA_256 = CryptoPrototypes.digest("SHA-256");
+    
+    private final long high;
+    private final long low;
+    
+    private TokenDigest(long high, long low) {
+        this.high = high;
+        this.low = low;
+    }
+    
+    public static TokenDigest of(String token) {
+        byte[] hash = SHA_256.get().digest(token.getBytes(StandardCharsets.UTF_8));
+        ByteBuffer buffer = ByteBuffer.wrap(hash);
+        return new TokenDigest(buffer.getLong(0), buffer.getLong(8));
+    }
+    
+    public long getHigh() {
+        return high;
+    }
+    
+    public long getLow() {
+        return low;
+    }
+    
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof TokenDigest)) {
+            return false;
+        }
+        TokenDigest other = (TokenDigest) o;
+        return high == other.high && low == other.low;
+    }
+    
+    @Override
+    public int hashCode() {
+        return Long.hashCode(high ^ low);
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("%016x%016x", high, low);
+    }
+}
@@ -0,0 +1,153 @@
+package com.example.tokenservice.service;
+
+import com.example.tokenservice.dto.TokenRequest;
+import com.example.tokenservice.dto.TokenResponse;
+import io.micronaut.context.annotation.Property;
+import io.micronaut.context.annotation.Requires;
+import jakarta.annotation.PreDestroy;
+import jakarta.inject.Singleton;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// started by TokenServiceStartup once the server is bound
+@Singleton
+@Requires(property = "token.refresh-ahead.enabled", value = "true")
+public class TokenRefreshScheduler {
+    
+    private static final Logger LOG = LoggerFactory.getLogger(TokenRefreshScheduler.class);
+    
+    private final ClientService clientService;
+    private final JwtTokenService jwtTokenService;
+    private final CallbackOutbox callbackOutbox;
+    private final long leadTimeMs;
+    private final long jitterMs;
+    private final int maxConsecutivePushes;
+    private final ScheduledExecutorService refreshExecutor;
+    
+    // client id -> expiry of the token a push has already been scheduled for
+    private final Map<String, Long> scheduled = new ConcurrentHashMap<>();
+    // client id -> pushes in a row with no token request from the client in between
+    private final Map<String, PushStreak> pushStreaks = new ConcurrentHashMap<>();
+    
+    public TokenRefreshScheduler(ClientService clientService,
+                                 JwtTokenService jwtTokenService,
+                                 CallbackOutbox callbackOutbox,
+                                 @Property(name = "token.refresh-ahead.lead-time", defaultValue = "420") long leadTime,
+                                 @Property(name = "token.refresh-ahead.jitter", defaultValue = "60") long jitter,
+                                 @Property(name = "token.refresh-ahead.check-interval", defaultValue = "10") long checkInterval,
+                                 @Property(name = "token.refresh-ahead.max-consecutive-pushes", defaultValue = "3") int maxConsecutivePushes) {
+        this.clientService = clientService;
+        this.jwtTokenService = jwtTokenService;
+        this.callbackOutbox = callbackOutbox;
+        this.leadTimeMs = leadTime * 1000;
+        this.jitterMs = jitter * 1000;
+        this.maxConsecutivePushes = maxConsecutivePushes;
+        this.refreshExecutor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "token-refresh-ahead");
+            thread.setDaemon(true);
+            return thread;
+        });
+        refreshExecutor.scheduleWithFixedDelay(this::scheduleDueRefreshes, checkInterval, checkInterval, TimeUnit.SECONDS);
+        LOG.info("Refresh-ahead scheduler started with lead time: {}s, jitter: {}s, max consecutive pushes: {}", 
+                leadTime, jitter, maxConsecutivePushes);
+    }
+    
+    void scheduleDueRefreshes() {
+        try {
+            long now = System.currentTimeMillis();
+            for (Map.Entry<String, ClientService.IssuedToken> issued : clientService.getIssuedTokens().entrySet()) {
+                String clientId = issued.getKey();
+                long expiresAt = issued.getValue().getExpiresAt();
+                if (expiresAt <= now) {
+                    clientService.getIssuedTokens().remove(clientId, issued.getValue());
+                    pushStreaks.remove(clientId);
+                    continue;
+                }
+                if (expiresAt - now > leadTimeMs) {
+                    continue;
+                }
+                PushStreak streak = pushStreaks.get(clientId);
+                if (streak != null && streak.expiresAt == expiresAt && streak.count >= maxConsecutivePushes) {
+                    // every recent token was our own push: the client may be gone, so stop until it asks for one again
+                    clientService.getIssuedTokens().remove(clientId, issued.getValue());
+                    pushStreaks.remove(clientId, streak);
+                    LOG.info("Refresh-ahead stopped for client: {} after {} pushes without a token request of its own", 
+                            clientId, streak.count);
+                    continue;
+                }
+                if (scheduled.putIfAbsent(clientId, expiresAt) != null) {
+                    continue;
+                }
+                // spread pushes over the jitter window, but never so late that the client refreshes on its own first
+                long window = Math.min(jitterMs, Math.max(0L, (expiresAt - now) / 2));
+                long delay = window > 0 ? ThreadLocalRandom.current().nextLong(window) : 0L;
+                refreshExecutor.schedule(() -> pushReplacement(clientId, expiresAt), delay, TimeUnit.MILLISECONDS);
+            }
+        } catch (Exception e) {
+            LOG.error("Error scheduling refresh-ahead tokens", e);
+        }
+    }
+    
+    void pushReplacement(String clientId, long expiringAt) {
+        String traceId = UUID.randomUUID().toString();
+        try {
+            ClientService.IssuedToken issued = clientService.getIssuedTokens().get(clientId);
+            String callbackUrl = clientService.getCallbackUrl(clientId);
+            if (issued == null || callbackUrl == null || callbackUrl.isEmpty()) {
+                return;
+            }
+            if (issued.getExpiresAt() != expiringAt) {
+                // the client already fetched a newer token on its own
+                return;
+            }
+            
+            TokenRequest request = new TokenRequest();
+            request.setClientId(clientId);
+            request.setScope(issued.getScope());
+            TokenResponse tokenResponse = jwtTokenService.generateToken(request, traceId);
+            callbackOutbox.deliver(callbackUrl, tokenResponse, traceId);
+            recordPush(clientId, expiringAt);
+            LOG.info("Refresh-ahead token pushed for client: {}, traceId: {}", clientId, traceId);
+        } catch (Exception e) {
+            LOG.error("Failed to push refresh-ahead token for client: {}, traceId: {}", clientId, traceId, e);
+        } finally {
+            scheduled.remove(clientId, expiringAt);
+        }
+    }
+    
+    private void recordPush(String clientId, long replacedExpiresAt) {
+        ClientService.IssuedToken pushed = clientService.getIssuedTokens().get(clientId);
+        if (pushed == null) {
+            return;
+        }
+        PushStreak previous = pushStreaks.get(clientId);
+        // the streak continues only if the token just replaced was itself a push
+        int count = previous != null && previous.expiresAt == replacedExpiresAt ? previous.count + 1 : 1;
+        pushStreaks.put(clientId, new PushStreak(pushed.getExpiresAt(), count));
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        refreshExecutor.shutdownNow();
+        LOG.info("Refresh-ahead scheduler shutdown");
+    }
+    
+    private static final class PushStreak {
+        // expiry of the last pushed token; a client-initiated request replaces it and breaks the streak
+        private final long expiresAt;
+        private final int count;
+        
+        private PushStreak(long expiresAt, int count) {
+            this.expiresAt = expiresAt;
+            this.count = count;
+        }
+    }
+}
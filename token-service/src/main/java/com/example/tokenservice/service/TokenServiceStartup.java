@@ -0,0 +1,40 @@
+package com.example.tokenservice.service;
+
+import com.example.tokenservice.metrics.TokenServiceGauges;
+import io.micronaut.context.BeanProvider;
+import io.micronaut.context.annotation.Context;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+// Builds the heavy singletons on the startup pool instead of lazily on the first request. The independent
+// ones run side by side while Netty binds; work that only matters once traffic flows waits for the bind.
+@Context
+public class TokenServiceStartup {
+    
+    private static final Logger LOG = LoggerFactory.getLogger(TokenServiceStartup.class);
+    
+    public TokenServiceStartup(StartupPipeline startupPipeline,
+                               BeanProvider<KeyPairService> keyPairService,
+                               BeanProvider<JwtSigningEngine> signingEngine,
+                               BeanProvider<TokenBlacklistService> tokenBlacklistService,
+                               BeanProvider<ClientService> clientService,
+                               BeanProvider<CallbackOutbox> callbackOutbox,
+                               BeanProvider<JwksService> jwksService,
+                               BeanProvider<TokenRefreshScheduler> tokenRefreshScheduler,
+                               BeanProvider<TokenServiceGauges> tokenServiceGauges) {
+        // readiness waits for these: tokens cannot be signed, or revoked ones would validate, until they finish
+        startupPipeline.critical("signing.key", () -> keyPairService.get().getCurrentKey());
+        startupPipeline.critical("signing.warmup", () -> signingEngine.get().warmUp());
+        startupPipeline.critical("revocation.journal", tokenBlacklistService::get);
+        startupPipeline.critical("client.registry", clientService::get);
+        startupPipeline.critical("callback.outbox", callbackOutbox::get);
+        
+        // opening the outbox already tracks every unfinished record, so live traffic can compact it safely;
+        // only re-sending them waits until the port is bound
+        startupPipeline.deferred("callback.outbox.replay", () -> callbackOutbox.get().replayUnfinished());
+        startupPipeline.deferred("jwks.document", () -> jwksService.get().getDocument());
+        startupPipeline.deferred("metrics.gauges", tokenServiceGauges::get);
+        startupPipeline.deferred("refresh-ahead", () -> tokenRefreshScheduler.ifPresent(scheduler -> { }));
+        LOG.info("Startup pipeline scheduled");
+    }
+}
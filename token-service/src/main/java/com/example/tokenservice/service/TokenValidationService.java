@@ -0,0 +1,203 @@
+package com.example.tokenservice.service;
+
+import com.example.tokenservice.dto.TokenValidationResult;
+import com.example.tokenservice.metrics.TokenMetrics;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import io.micronaut.context.annotation.Property;
+import jakarta.annotation.PreDestroy;
+import jakarta.inject.Singleton;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Singleton
+public class TokenValidationService {
+    
+    private static final Logger LOG = LoggerFactory.getLogger(TokenValidationService.class);
+    
+    private final JwtSigningEngine signingEngine;
+    private final CwtTokenCodec cwtTokenCodec;
+    private final TokenBlacklistService tokenBlacklistService;
+    private final VerifiedClaimsCache verifiedClaimsCache;
+    private final AuditLog auditLog;
+    private final TokenMetrics tokenMetrics;
+    private final ExecutorService verificationExecutor;
+    private final int parallelism;
+    private final int minParallelBatch;
+    
+    public TokenValidationService(JwtSigningEngine signingEngine,
+                                  CwtTokenCodec cwtTokenCodec,
+                                  TokenBlacklistService tokenBlacklistService,
+                                  VerifiedClaimsCache verifiedClaimsCache,
+                                  AuditLog auditLog,
+                                  TokenMetrics tokenMetrics,
+                                  @Property(name = "token.validation.batch.parallelism", defaultValue = "0") int parallelism,
+                                  @Property(name = "token.validation.batch.min-parallel", defaultValue = "16") int minParallelBatch) {
+        this.signingEngine = signingEngine;
+        this.cwtTokenCodec = cwtTokenCodec;
+        this.tokenBlacklistService = tokenBlacklistService;
+        this.verifiedClaimsCache = verifiedClaimsCache;
+        this.auditLog = auditLog;
+        this.tokenMetrics = tokenMetrics;
+        this.parallelism = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        this.minParallelBatch = minParallelBatch;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.verificationExecutor = Executors.newFixedThreadPool(this.parallelism, r -> {
+            Thread thread = new Thread(r, "token-verification-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+    
+    public TokenValidationResult validate(String token) {
+        TokenDigest digest = TokenDigest.of(token);
+        TokenValidationResult result;
+        if (tokenBlacklistService.isTokenRevoked(digest)) {
+            result = new TokenValidationResult(TokenValidationResult.Status.REVOKED);
+        } else {
+            result = verifiedClaimsCache.get(digest);
+            if (result == null) {
+                result = verify(token);
+                verifiedClaimsCache.put(digest, result);
+            }
+        }
+        tokenMetrics.recordValidationResult(result.getStatus());
+        Long expiresAt = result.getExpiresAt();
+        auditLog.recordValidated(result.getClientId(), result.getStatus().name(), digest.getHigh(), 
+                expiresAt != null ? expiresAt : 0L);
+        return result;
+    }
+    
+    // for callers that act on a token rather than validate it, e.g. revocation: no validation metrics or audit event
+    public TokenValidationResult verifyClaims(String token) {
+        TokenValidationResult cached = verifiedClaimsCache.get(TokenDigest.of(token));
+        return cached != null ? cached : verifyToken(token);
+    }
+    
+    public List<TokenValidationResult> validateAll(List<String> tokens) {
+        int count = tokens.size();
+        TokenValidationResult[] results = new TokenValidationResult[count];
+        TokenDigest[] digests = new TokenDigest[count];
+        int[] pending = new int[count];
+        int pendingCount = 0;
+        
+        // blacklist and cache lookups are a few hundred nanoseconds each, so only signature checks fan out
+        for (int i = 0; i < count; i++) {
+            String token = tokens.get(i);
+            if (token == null || token.isEmpty()) {
+                results[i] = new TokenValidationResult(TokenValidationResult.Status.INVALID);
+                continue;
+            }
+            digests[i] = TokenDigest.of(token);
+            if (tokenBlacklistService.isTokenRevoked(digests[i])) {
+                results[i] = new TokenValidationResult(TokenValidationResult.Status.REVOKED);
+                continue;
+            }
+            TokenValidationResult cached = verifiedClaimsCache.get(digests[i]);
+            if (cached != null) {
+                results[i] = cached;
+                continue;
+            }
+            pending[pendingCount++] = i;
+        }
+        
+        if (pendingCount < minParallelBatch || parallelism == 1) {
+            verifySlice(tokens, digests, pending, 0, pendingCount, results);
+        } else {
+            int[] indexes = Arrays.copyOf(pending, pendingCount);
+            int chunkSize = (pendingCount + parallelism - 1) / parallelism;
+            List<CompletableFuture<Void>> slices = new ArrayList<>();
+            for (int start = 0; start < pendingCount; start += chunkSize) {
+                int from = start;
+                int to = Math.min(pendingCount, start + chunkSize);
+                slices.add(CompletableFuture.runAsync(() -> verifySlice(tokens, digests, indexes, from, to, results), verificationExecutor));
+            }
+            CompletableFuture.allOf(slices.toArray(new CompletableFuture[0])).join();
+        }
+        return Arrays.asList(results);
+    }
+    
+    private void verifySlice(List<String> tokens, TokenDigest[] digests, int[] indexes, int from, int to, 
+                             TokenValidationResult[] results) {
+        for (int n = from; n < to; n++) {
+            int i = indexes[n];
+            TokenValidationResult result = verify(tokens.get(i));
+            verifiedClaimsCache.put(digests[i], result);
+            results[i] = result;
+        }
+    }
+    
+    public void invalidate(String token) {
+        verifiedClaimsCache.invalidate(TokenDigest.of(token));
+    }
+    
+    // only cache misses get here, so the timer measures real signature and MAC checks
+    private TokenValidationResult verify(String token) {
+        long startedAt = System.nanoTime();
+        TokenValidationResult result = verifyToken(token);
+        tokenMetrics.recordValidate(System.nanoTime() - startedAt, result.getStatus() == TokenValidationResult.Status.VALID);
+        return result;
+    }
+    
+    private TokenValidationResult verifyToken(String token) {
+        return CwtTokenCodec.isCwt(token) ? verifyCwt(token) : verifyJws(token);
+    }
+    
+    private TokenValidationResult verifyJws(String token) {
+        try {
+            Claims claims = signingEngine.verify(token);
+            Date expiration = claims.getExpiration();
+            // compact profile tokens carry the client only as sub and the scope as scp
+            String clientId = claims.get("client_id", String.class);
+            String scope = claims.get("scope", String.class);
+            return new TokenValidationResult(
+                    TokenValidationResult.Status.VALID,
+                    claims.getSubject(),
+                    clientId != null ? clientId : claims.getSubject(),
+                    scope != null ? scope : claims.get("scp", String.class),
+                    expiration != null ? expiration.getTime() : null
+            );
+        } catch (ExpiredJwtException e) {
+            LOG.debug("Token expired at: {}", e.getClaims().getExpiration());
+            return new TokenValidationResult(TokenValidationResult.Status.EXPIRED);
+        } catch (JwtException | IllegalArgumentException e) {
+            LOG.debug("Token verification failed: {}", e.getMessage());
+            return new TokenValidationResult(TokenValidationResult.Status.INVALID);
+        }
+    }
+    
+    private TokenValidationResult verifyCwt(String token) {
+        CwtTokenCodec.CwtClaims claims = cwtTokenCodec.decode(token);
+        if (claims == null) {
+            LOG.debug("CWT verification failed");
+            return new TokenValidationResult(TokenValidationResult.Status.INVALID);
+        }
+        long expiresAt = claims.getExpiresAt() * 1000;
+        if (expiresAt <= System.currentTimeMillis()) {
+            LOG.debug("Token expired at: {}", new Date(expiresAt));
+            return new TokenValidationResult(TokenValidationResult.Status.EXPIRED);
+        }
+        return new TokenValidationResult(
+                TokenValidationResult.Status.VALID,
+                claims.getSubject(),
+                claims.getSubject(),
+                claims.getScope(),
+                expiresAt
+        );
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        verificationExecutor.shutdown();
+    }
+}
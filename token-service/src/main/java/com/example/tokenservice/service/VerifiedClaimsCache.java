@@ -0,0 +1,79 @@
+package com.example.tokenservice.service;
+
+import com.example.tokenservice.dto.TokenValidationResult;
+import io.micronaut.context.annotation.Property;
+import jakarta.inject.Singleton;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Singleton
+public class VerifiedClaimsCache {
+    
+    private static final Logger LOG = LoggerFactory.getLogger(VerifiedClaimsCache.class);
+    
+    private static final long SWEEP_INTERVAL_MS = 1000;
+    
+    private final Map<TokenDigest, TokenValidationResult> entries = new ConcurrentHashMap<>();
+    private final AtomicLong lastSweepAt = new AtomicLong();
+    private final boolean enabled;
+    private final int maxEntries;
+    
+    public VerifiedClaimsCache(@Property(name = "token.validation.cache.enabled", defaultValue = "true") boolean enabled,
+                               @Property(name = "token.validation.cache.max-entries", defaultValue = "10000") int maxEntries) {
+        this.enabled = enabled;
+        this.maxEntries = maxEntries;
+        LOG.info("Verified claims cache initialized, enabled: {}, max entries: {}", enabled, maxEntries);
+    }
+    
+    public TokenValidationResult get(TokenDigest digest) {
+        if (!enabled) {
+            return null;
+        }
+        TokenValidationResult cached = entries.get(digest);
+        if (cached == null) {
+            return null;
+        }
+        if (cached.getExpiresAt() <= System.currentTimeMillis()) {
+            entries.remove(digest, cached);
+            return null;
+        }
+        return cached;
+    }
+    
+    public void put(TokenDigest digest, TokenValidationResult result) {
+        if (!enabled || !result.isValid() || result.getExpiresAt() == null) {
+            return;
+        }
+        if (entries.size() >= maxEntries) {
+            makeRoom();
+        }
+        entries.put(digest, result);
+    }
+    
+    public void invalidate(TokenDigest digest) {
+        entries.remove(digest);
+    }
+    
+    public int size() {
+        return entries.size();
+    }
+    
+    private void makeRoom() {
+        long now = System.currentTimeMillis();
+        long lastSweep = lastSweepAt.get();
+        if (now - lastSweep >= SWEEP_INTERVAL_MS && lastSweepAt.compareAndSet(lastSweep, now)) {
+            entries.values().removeIf(result -> result.getExpiresAt() <= now);
+        }
+        // Still full of live tokens: drop an arbitrary entry, it is re-verified on its next lookup
+        Iterator<TokenDigest> iterator = entries.keySet().iterator();
+        while (entries.size() >= maxEntries && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+        }
+    }
+}
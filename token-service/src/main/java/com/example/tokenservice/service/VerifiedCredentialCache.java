@@ -0,0 +1,115 @@
+package com.example.tokenservice.service;
+
+import io.micronaut.context.annotation.Property;
+import jakarta.inject.Singleton;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+@Singleton
+public class VerifiedCredentialCache {
+    
+    private static final Logger LOG = LoggerFactory.getLogger(VerifiedCredentialCache.class);
+    
+    private static final String MAC_ALGORITHM = "HmacSHA256";
+    private static final long SWEEP_INTERVAL_MS = 1000;
+    
+    // only a keyed digest of the secret is held, and the key never leaves this process
+    private final Supplier<Mac> macs;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    // a full cache would otherwise scan every entry on each new client's insert
+    private final AtomicLong lastSweepAt = new AtomicLong();
+    private final boolean enabled;
+    private final long ttlMs;
+    private final int maxEntries;
+    
+    public VerifiedCredentialCache(@Property(name = "token.client.credential-cache.enabled", defaultValue = "true") boolean enabled,
+                                   @Property(name = "token.client.credential-cache.ttl", defaultValue = "300") long ttl,
+                                   @Property(name = "token.client.credential-cache.max-entries", defaultValue = "10000") int maxEntries) {
+        this.enabled = enabled;
+        this.ttlMs = ttl * 1000;
+        this.maxEntries = maxEntries;
+        byte[] key = new byte[32];
+        new SecureRandom().nextBytes(key);
+        this.macs = CryptoPrototypes.mac(MAC_ALGORITHM, new SecretKeySpec(key, MAC_ALGORITHM));
+        LOG.info("Verified credential cache initialized, enabled: {}, ttl: {}s, max entries: {}", enabled, ttl, maxEntries);
+    }
+    
+    public boolean contains(String clientId, String secret) {
+        if (!enabled) {
+            return false;
+        }
+        Entry entry = entries.get(clientId);
+        if (entry == null) {
+            return false;
+        }
+        if (entry.expiresAt <= System.currentTimeMillis()) {
+            entries.remove(clientId, entry);
+            return false;
+        }
+        return MessageDigest.isEqual(entry.digest, digest(clientId, secret));
+    }
+    
+    public void put(String clientId, String secret) {
+        if (!enabled) {
+            return;
+        }
+        if (entries.size() >= maxEntries && !entries.containsKey(clientId)) {
+            makeRoom();
+        }
+        entries.put(clientId, new Entry(digest(clientId, secret), System.currentTimeMillis() + ttlMs));
+    }
+    
+    public void invalidate(String clientId) {
+        entries.remove(clientId);
+    }
+    
+    public void invalidateAll() {
+        entries.clear();
+    }
+    
+    public int size() {
+        return entries.size();
+    }
+    
+    private byte[] digest(String clientId, String secret) {
+        Mac mac = macs.get();
+        mac.update(clientId.getBytes(StandardCharsets.UTF_8));
+        mac.update((byte) 0);
+        return mac.doFinal(secret.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    private void makeRoom() {
+        long now = System.currentTimeMillis();
+        long lastSweep = lastSweepAt.get();
+        if (now - lastSweep >= SWEEP_INTERVAL_MS && lastSweepAt.compareAndSet(lastSweep, now)) {
+            entries.values().removeIf(entry -> entry.expiresAt <= now);
+        }
+        // Still full: drop an arbitrary entry, that client pays for one full hash on its next request
+        Iterator<String> iterator = entries.keySet().iterator();
+        while (entries.size() >= maxEntries && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+        }
+    }
+    
+    private static final class Entry {
+        private final byte[] digest;
+        private final long expiresAt;
+        
+        private Entry(byte[] digest, long expiresAt) {
+            this.digest = digest;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.tokenservice.config;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RequestExecutorFactoryTest {
+
+    @Test
+    @DisplayName("Should run on a bounded platform pool unless virtual threads are opted into")
+    void testPlatformPoolByDefault() throws Exception {
+        ExecutorService executor = new RequestExecutorFactory().requestExecutor(false, 4, 16);
+        try {
+            ThreadPoolExecutor pool = assertInstanceOf(ThreadPoolExecutor.class, executor);
+            assertEquals(4, pool.getMaximumPoolSize());
+            assertEquals(16, pool.getQueue().remainingCapacity());
+            String threadName = executor.submit(() -> Thread.currentThread().getName()).get(5, TimeUnit.SECONDS);
+            assertTrue(threadName.startsWith("request-"));
+            assertFalse(threadName.startsWith("request-vt-"));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Should run on virtual threads when opted in on JDK 21+ and on the platform pool before")
+    void testVirtualThreadsOptIn() throws Exception {
+        ExecutorService executor = RequestExecutorFactory.create(true, 4, 16);
+        try {
+            String threadName = executor.submit(() -> Thread.currentThread().getName()).get(5, TimeUnit.SECONDS);
+            if (Runtime.version().feature() >= 21) {
+                assertFalse(executor instanceof ThreadPoolExecutor);
+                assertTrue(threadName.startsWith("request-vt-"));
+            } else {
+                assertEquals(4, assertInstanceOf(ThreadPoolExecutor.class, executor).getMaximumPoolSize());
+                assertTrue(threadName.startsWith("request-"));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Should reject work once the platform pool and its queue are full")
+    void testPlatformPoolIsBounded() {
+        ExecutorService executor = RequestExecutorFactory.create(false, 1, 1);
+        CountDownLatch gate = new CountDownLatch(1);
+        try {
+            Runnable blocked = () -> {
+                try {
+                    gate.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            };
+            executor.execute(blocked);
+            executor.execute(blocked);
+            assertThrows(RejectedExecutionException.class, () -> executor.execute(blocked));
+        } finally {
+            gate.countDown();
+            executor.shutdownNow();
+        }
+    }
+}
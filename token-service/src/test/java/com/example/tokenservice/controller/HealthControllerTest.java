@@ -0,0 +1,98 @@
+package com.example.tokenservice.controller;
+
+import com.example.tokenservice.service.StartupPipeline;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micronaut.http.HttpStatus;
+import io.micronaut.runtime.server.event.ServerStartupEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class HealthControllerTest {
+
+    private final StartupPipeline pipeline = new StartupPipeline(new SimpleMeterRegistry());
+    private final HealthController controller = new HealthController(pipeline);
+
+    @AfterEach
+    void tearDown() {
+        pipeline.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should answer 503 on /health and /health/readiness until the critical phases finish and the port is bound")
+    void testUnavailableUntilReady() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Void> signingKey = pipeline.critical("signing.key", () -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, controller.health().getStatus());
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, controller.readiness().getStatus());
+        assertEquals(List.of("signing.key", StartupPipeline.PHASE_SERVER_BIND), 
+                controller.readiness().body().get("pending"));
+
+        // bound, but a critical phase is still running
+        pipeline.onApplicationEvent(mock(ServerStartupEvent.class));
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, controller.health().getStatus());
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, controller.readiness().getStatus());
+        assertEquals(List.of("signing.key"), controller.readiness().body().get("pending"));
+        assertEquals(HttpStatus.OK, controller.liveness().getStatus());
+
+        release.countDown();
+        signingKey.get(5, TimeUnit.SECONDS);
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (!pipeline.isReady() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+
+        assertEquals(HttpStatus.OK, controller.health().getStatus());
+        assertEquals(HttpStatus.OK, controller.readiness().getStatus());
+        assertEquals(List.of(), controller.readiness().body().get("pending"));
+        assertEquals(HttpStatus.OK, controller.detailedHealth().getStatus());
+    }
+
+    @Test
+    @DisplayName("Should answer 503 until the port is bound even when every critical phase has finished")
+    void testUnavailableBeforeBind() throws Exception {
+        pipeline.critical("signing.key", () -> { }).get(5, TimeUnit.SECONDS);
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, controller.health().getStatus());
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, controller.readiness().getStatus());
+        assertEquals(HttpStatus.OK, controller.liveness().getStatus());
+
+        pipeline.onApplicationEvent(mock(ServerStartupEvent.class));
+        assertEquals(HttpStatus.OK, controller.health().getStatus());
+        assertEquals(HttpStatus.OK, controller.readiness().getStatus());
+    }
+
+    @Test
+    @DisplayName("Should fail liveness only once a critical phase has failed")
+    void testLivenessFailsOnFailedCriticalPhase() {
+        assertEquals(HttpStatus.OK, controller.liveness().getStatus());
+
+        CompletableFuture<Void> journal = pipeline.critical("revocation.journal", () -> {
+            throw new IllegalStateException("journal unreadable");
+        });
+        assertThrows(Exception.class, () -> journal.get(5, TimeUnit.SECONDS));
+        pipeline.onApplicationEvent(mock(ServerStartupEvent.class));
+
+        Map<String, Object> health = controller.health().body();
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, controller.liveness().getStatus());
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, controller.readiness().getStatus());
+        assertEquals("DOWN", health.get("liveness"));
+        assertEquals("DOWN", health.get("readiness"));
+    }
+}
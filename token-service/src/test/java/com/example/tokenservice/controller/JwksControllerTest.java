@@ -0,0 +1,91 @@
+package com.example.tokenservice.controller;
+
+import com.example.tokenservice.service.JwksService;
+import io.micronaut.context.annotation.Property;
+import io.micronaut.http.HttpHeaders;
+import io.micronaut.http.HttpRequest;
+import io.micronaut.http.HttpResponse;
+import io.micronaut.http.HttpStatus;
+import io.micronaut.http.client.HttpClient;
+import io.micronaut.http.client.annotation.Client;
+import io.micronaut.json.JsonMapper;
+import io.micronaut.test.extensions.junit5.annotation.MicronautTest;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@MicronautTest
+@Property(name = "token.jwt.algorithm", value = "ES256")
+class JwksControllerTest {
+
+    @Inject
+    @Client("/")
+    private HttpClient httpClient;
+
+    @Inject
+    private JsonMapper jsonMapper;
+
+    @Test
+    @DisplayName("Should publish ES256 signing keys as P-256 JWKs")
+    @SuppressWarnings("unchecked")
+    void testJwksShape() throws Exception {
+        HttpResponse<String> response = httpClient.toBlocking().exchange(
+                HttpRequest.GET("/.well-known/jwks.json"), String.class);
+
+        assertEquals(HttpStatus.OK, response.getStatus());
+        Map<String, Object> jwks = jsonMapper.readValue(response.body(), Map.class);
+        List<Map<String, Object>> keys = (List<Map<String, Object>>) jwks.get("keys");
+        assertFalse(keys.isEmpty());
+        for (Map<String, Object> key : keys) {
+            assertEquals("EC", key.get("kty"));
+            assertEquals("P-256", key.get("crv"));
+            assertEquals("sig", key.get("use"));
+            assertEquals("ES256", key.get("alg"));
+            assertNotNull(key.get("kid"));
+            // coordinates are left-padded to the 32-byte field size
+            assertEquals(32, Base64.getUrlDecoder().decode((String) key.get("x")).length);
+            assertEquals(32, Base64.getUrlDecoder().decode((String) key.get("y")).length);
+        }
+    }
+
+    @Test
+    @DisplayName("Should answer a matching If-None-Match with 304 and no body")
+    void testNotModified() {
+        HttpResponse<String> first = httpClient.toBlocking().exchange(
+                HttpRequest.GET("/.well-known/jwks.json"), String.class);
+        String etag = first.header(HttpHeaders.ETAG);
+        assertNotNull(etag);
+        assertEquals("public, max-age=300", first.header(HttpHeaders.CACHE_CONTROL));
+
+        HttpResponse<String> revalidated = httpClient.toBlocking().exchange(
+                HttpRequest.GET("/.well-known/jwks.json").header(HttpHeaders.IF_NONE_MATCH, etag), String.class);
+        assertEquals(HttpStatus.NOT_MODIFIED, revalidated.getStatus());
+        assertEquals(etag, revalidated.header(HttpHeaders.ETAG));
+        assertFalse(revalidated.getBody().isPresent());
+
+        HttpResponse<String> stale = httpClient.toBlocking().exchange(
+                HttpRequest.GET("/.well-known/jwks.json").header(HttpHeaders.IF_NONE_MATCH, "\"stale\""), String.class);
+        assertEquals(HttpStatus.OK, stale.getStatus());
+        assertEquals(etag, stale.header(HttpHeaders.ETAG));
+    }
+
+    @Test
+    @DisplayName("Should answer 503 with Retry-After while the first signing key is still generating")
+    void testUnavailableBeforeFirstKey() {
+        JwksService startingJwks = mock(JwksService.class);
+        when(startingJwks.isReady()).thenReturn(false);
+
+        HttpResponse<byte[]> response = new JwksController(startingJwks, 300).getJwks(null);
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatus());
+        assertEquals("1", response.header(HttpHeaders.RETRY_AFTER));
+        verify(startingJwks, never()).getDocument();
+    }
+}
@@ -0,0 +1,124 @@
+package com.example.tokenservice.controller;
+
+import com.example.tokenservice.dto.TokenRequest;
+import com.example.tokenservice.dto.TokenResponse;
+import com.example.tokenservice.service.AdmissionLimiter;
+import com.example.tokenservice.service.BatchTokenService;
+import com.example.tokenservice.service.CallbackOutbox;
+import com.example.tokenservice.service.ClientRateLimiter;
+import com.example.tokenservice.service.ClientService;
+import com.example.tokenservice.service.JwtTokenService;
+import com.example.tokenservice.service.RefreshTokenService;
+import io.micronaut.http.HttpResponse;
+import io.micronaut.http.HttpStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class TokenControllerTest {
+
+    private JwtTokenService jwtTokenService;
+    private ClientService clientService;
+    private ClientRateLimiter clientRateLimiter;
+    private AdmissionLimiter admissionLimiter;
+    private TokenController controller;
+
+    @BeforeEach
+    void setUp() {
+        jwtTokenService = mock(JwtTokenService.class);
+        clientService = mock(ClientService.class);
+        clientRateLimiter = mock(ClientRateLimiter.class);
+        // a 1ms target, so anything that fed back the 5ms credential check below would cut the limit
+        admissionLimiter = new AdmissionLimiter(true, 1, 64, 4, 256);
+        when(jwtTokenService.generateToken(any(TokenRequest.class), anyString())).thenAnswer(invocation ->
+                new TokenResponse("token", 3600L, "read", "2024-01-01T00:00:00Z"));
+        when(clientService.validateClient(anyString(), anyString())).thenAnswer(invocation -> {
+            Thread.sleep(5);
+            return "secret".equals(invocation.getArgument(1));
+        });
+        controller = new TokenController(jwtTokenService, clientService, mock(CallbackOutbox.class),
+                mock(BatchTokenService.class), mock(RefreshTokenService.class), clientRateLimiter, admissionLimiter);
+    }
+
+    @Test
+    @DisplayName("Should leave the admission limit unchanged under a flood of bad credentials")
+    void testBadCredentialsKeepLimit() {
+        for (int i = 0; i < 20; i++) {
+            HttpResponse<?> response = controller.issueToken(request("wrong"));
+            assertEquals(HttpStatus.UNAUTHORIZED, response.getStatus());
+        }
+
+        assertEquals(64, admissionLimiter.getLimit());
+        assertEquals(0, admissionLimiter.getInFlight());
+        verify(jwtTokenService, never()).generateToken(any(TokenRequest.class), anyString());
+    }
+
+    @Test
+    @DisplayName("Should leave the admission limit unchanged for requests over the client's rate limit")
+    void testRateLimitedKeepLimit() {
+        when(clientRateLimiter.tryAcquire(eq("client-a"))).thenReturn(500L);
+
+        for (int i = 0; i < 20; i++) {
+            HttpResponse<?> response = controller.issueToken(request("secret"));
+            assertEquals(HttpStatus.TOO_MANY_REQUESTS, response.getStatus());
+            assertEquals("1", response.header("Retry-After"));
+        }
+
+        assertEquals(64, admissionLimiter.getLimit());
+        assertEquals(0, admissionLimiter.getInFlight());
+    }
+
+    @Test
+    @DisplayName("Should feed only the signing time back once the client is authenticated")
+    void testSigningLatencyFeedsLimit() {
+        HttpResponse<?> response = controller.issueToken(request("secret"));
+
+        assertEquals(HttpStatus.OK, response.getStatus());
+        // the 5ms credential check is outside the timed section, so a fast signature reads as fast
+        assertEquals(64, admissionLimiter.getLimit());
+        assertEquals(0, admissionLimiter.getInFlight());
+    }
+
+    @Test
+    @DisplayName("Should accept the same refresh token again after a renewal failed to sign")
+    void testRetryAfterFailedRenewal() {
+        RefreshTokenService refreshTokenService = new RefreshTokenService(true, 3600, 16);
+        TokenController refreshController = new TokenController(jwtTokenService, clientService, mock(CallbackOutbox.class),
+                mock(BatchTokenService.class), refreshTokenService, clientRateLimiter, admissionLimiter);
+        String refreshToken = refreshTokenService.issue("client-a", "read");
+        when(jwtTokenService.generateToken(any(TokenRequest.class), anyString()))
+                .thenThrow(new IllegalStateException("signing failed"))
+                .thenAnswer(invocation -> new TokenResponse("token", 3600L, "read", "2024-01-01T00:00:00Z"));
+
+        assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, refreshController.issueToken(refresh(refreshToken)).getStatus());
+        HttpResponse<?> retry = refreshController.issueToken(refresh(refreshToken));
+
+        assertEquals(HttpStatus.OK, retry.getStatus());
+        String rotated = ((TokenResponse) retry.body()).getRefreshToken();
+        assertNotNull(rotated);
+        // the retry spent the original, so presenting it once more is a replay
+        assertEquals(HttpStatus.BAD_REQUEST, refreshController.issueToken(refresh(refreshToken)).getStatus());
+    }
+
+    private static TokenRequest refresh(String refreshToken) {
+        TokenRequest request = request("secret");
+        request.setGrantType(TokenRequest.GRANT_TYPE_REFRESH_TOKEN);
+        request.setRefreshToken(refreshToken);
+        return request;
+    }
+
+    private static TokenRequest request(String secret) {
+        TokenRequest request = new TokenRequest();
+        request.setClientId("client-a");
+        request.setClientSecret(secret);
+        request.setScope("read");
+        request.setResponseMode(TokenRequest.RESPONSE_MODE_INLINE);
+        return request;
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.tokenservice.metrics;
+
+import com.example.tokenservice.dto.TokenValidationResult;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenMetricsTest {
+    
+    @Test
+    @DisplayName("Should record issuance timings and outcomes on pre-registered meters")
+    void testRecording() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        TokenMetrics metrics = new TokenMetrics(registry);
+        
+        metrics.recordIssue(TimeUnit.MILLISECONDS.toNanos(2), true);
+        metrics.recordIssue(TimeUnit.MILLISECONDS.toNanos(3), false);
+        metrics.recordValidationResult(TokenValidationResult.Status.REVOKED);
+        metrics.recordCallbackAttempt();
+        metrics.recordCallbackAttempt();
+        metrics.recordCallbackOutcome(true);
+        metrics.recordRevocationLookup(80, false);
+        
+        assertEquals(1, registry.get("token.issue.duration").tag("outcome", "success").timer().count());
+        assertEquals(1, registry.get("token.issue.duration").tag("outcome", "error").timer().count());
+        assertEquals(1.0, registry.get("token.validation.results").tag("status", "revoked").counter().count());
+        assertEquals(0.0, registry.get("token.validation.results").tag("status", "valid").counter().count());
+        assertEquals(2.0, registry.get("token.callback.attempts").counter().count());
+        assertEquals(1.0, registry.get("token.callback.deliveries").tag("outcome", "delivered").counter().count());
+        assertEquals(1, registry.get("token.revocation.lookup.duration").tag("outcome", "clear").timer().count());
+        assertEquals(0, registry.get("token.revocation.lookup.duration").tag("outcome", "revoked").timer().count());
+    }
+}
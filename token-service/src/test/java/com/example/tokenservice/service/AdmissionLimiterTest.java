@@ -0,0 +1,96 @@
+package com.example.tokenservice.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdmissionLimiterTest {
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(100);
+
+    @Test
+    @DisplayName("Should refuse requests beyond the limit until one is released")
+    void testRejectsAtLimit() {
+        AdmissionLimiter limiter = new AdmissionLimiter(true, 50, 4, 4, 8);
+
+        for (int i = 0; i < 4; i++) {
+            assertTrue(limiter.tryAcquire());
+        }
+        assertFalse(limiter.tryAcquire());
+        assertEquals(4, limiter.getInFlight());
+
+        limiter.release(FAST);
+        assertEquals(3, limiter.getInFlight());
+        assertTrue(limiter.tryAcquire());
+    }
+
+    @Test
+    @DisplayName("Should grow the limit by one per limit's worth of fast requests, up to the maximum")
+    void testAdditiveIncrease() {
+        AdmissionLimiter limiter = new AdmissionLimiter(true, 50, 4, 2, 8);
+
+        // 4 + 1/4 + 1/4.25 + ... passes 5 on the fifth fast release
+        for (int i = 0; i < 4; i++) {
+            assertTrue(limiter.tryAcquire());
+            limiter.release(FAST);
+        }
+        assertEquals(4, limiter.getLimit());
+        assertTrue(limiter.tryAcquire());
+        limiter.release(FAST);
+        assertEquals(5, limiter.getLimit());
+
+        for (int i = 0; i < 100; i++) {
+            assertTrue(limiter.tryAcquire());
+            limiter.release(FAST);
+        }
+        assertEquals(8, limiter.getLimit());
+    }
+
+    @Test
+    @DisplayName("Should cut the limit by 10% on a slow request, at most once per target latency and never below the minimum")
+    void testMultiplicativeDecrease() {
+        AdmissionLimiter limiter = new AdmissionLimiter(true, 50, 64, 4, 256);
+
+        assertTrue(limiter.tryAcquire());
+        limiter.release(SLOW);
+        assertEquals(57, limiter.getLimit());
+
+        // a second slow request inside the same interval belongs to the same burst
+        assertTrue(limiter.tryAcquire());
+        limiter.release(SLOW);
+        assertEquals(57, limiter.getLimit());
+
+        AdmissionLimiter atFloor = new AdmissionLimiter(true, 50, 4, 4, 256);
+        assertTrue(atFloor.tryAcquire());
+        atFloor.release(SLOW);
+        assertEquals(4, atFloor.getLimit());
+    }
+
+    @Test
+    @DisplayName("Should free the slot without moving the limit when released without a latency")
+    void testReleaseWithoutFeedback() {
+        AdmissionLimiter limiter = new AdmissionLimiter(true, 50, 4, 2, 8);
+
+        for (int i = 0; i < 100; i++) {
+            assertTrue(limiter.tryAcquire());
+            limiter.release();
+        }
+        assertEquals(4, limiter.getLimit());
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    @DisplayName("Should admit everything when disabled")
+    void testDisabled() {
+        AdmissionLimiter limiter = new AdmissionLimiter(false, 50, 4, 4, 8);
+
+        for (int i = 0; i < 100; i++) {
+            assertTrue(limiter.tryAcquire());
+        }
+        assertEquals(0, limiter.getInFlight());
+    }
+}
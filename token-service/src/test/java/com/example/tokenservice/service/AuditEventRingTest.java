@@ -0,0 +1,66 @@
+package com.example.tokenservice.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AuditEventRingTest {
+    
+    @Test
+    @DisplayName("Should hand every event to the consumer in publish order per producer")
+    void testConcurrentProducers() throws Exception {
+        AuditEventRing ring = new AuditEventRing(1024);
+        int producers = 4;
+        int perProducer = 50_000;
+        List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            byte type = (byte) p;
+            Thread thread = new Thread(() -> {
+                for (long i = 1; i <= perProducer; i++) {
+                    while (!ring.tryPublish(type, i, "client", "trace", "detail", i, 0L)) {
+                        Thread.onSpinWait();
+                    }
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        
+        long[] lastSeen = new long[producers];
+        long[] received = {0};
+        boolean[] outOfOrder = {false};
+        while (received[0] < (long) producers * perProducer) {
+            ring.drain((type, timestamp, clientId, traceId, detail, tokenKey, expiresAt) -> {
+                if (tokenKey != lastSeen[type] + 1 || !"client".equals(clientId)) {
+                    outOfOrder[0] = true;
+                }
+                lastSeen[type] = tokenKey;
+                received[0]++;
+            }, 256);
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        
+        assertFalse(outOfOrder[0]);
+        assertEquals(0, ring.size());
+    }
+    
+    @Test
+    @DisplayName("Should drop events instead of blocking when the ring is full")
+    void testDropWhenFull() {
+        AuditEventRing ring = new AuditEventRing(64);
+        for (int i = 0; i < 64; i++) {
+            assertTrue(ring.tryPublish((byte) 0, i, null, null, null, i + 1, 0L));
+        }
+        
+        assertFalse(ring.tryPublish((byte) 0, 64, null, null, null, 65, 0L));
+        assertEquals(1, ring.dropped());
+        assertEquals(10, ring.drain((type, timestamp, clientId, traceId, detail, tokenKey, expiresAt) -> { }, 10));
+        assertTrue(ring.tryPublish((byte) 0, 65, null, null, null, 66, 0L));
+    }
+}
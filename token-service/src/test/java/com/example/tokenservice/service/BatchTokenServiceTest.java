@@ -0,0 +1,138 @@
+package com.example.tokenservice.service;
+
+import com.example.tokenservice.dto.BatchTokenResponse;
+import com.example.tokenservice.dto.BatchTokenResult;
+import com.example.tokenservice.dto.TokenRequest;
+import com.example.tokenservice.dto.TokenResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class BatchTokenServiceTest {
+
+    private JwtTokenService jwtTokenService;
+    private ClientService clientService;
+    private CallbackOutbox callbackOutbox;
+    private BatchTokenService batchTokenService;
+
+    @BeforeEach
+    void setUp() {
+        jwtTokenService = mock(JwtTokenService.class);
+        clientService = mock(ClientService.class);
+        callbackOutbox = mock(CallbackOutbox.class);
+        when(jwtTokenService.generateToken(any(TokenRequest.class), anyString())).thenAnswer(invocation -> 
+                new TokenResponse("token", 3600L, "read", "2024-01-01T00:00:00Z"));
+        when(clientService.validateClient(anyString(), eq("secret"))).thenReturn(true);
+        when(clientService.getCallbackUrl("client-a")).thenReturn("http://a/callback");
+        when(clientService.getCallbackUrl("client-b")).thenReturn("http://b/callback");
+        when(clientService.getCallbackUrl("client-c")).thenReturn("http://a/callback");
+        // burst of 2 per client
+        batchTokenService = new BatchTokenService(jwtTokenService, clientService, callbackOutbox, 
+                new ClientRateLimiter(true, 10, 2, 64), 500, 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        batchTokenService.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should reject entries with wrong credentials or a refresh grant without signing them")
+    void testRejectedCredentials() {
+        TokenRequest refresh = entry("client-b", "secret");
+        refresh.setGrantType(TokenRequest.GRANT_TYPE_REFRESH_TOKEN);
+
+        BatchTokenResponse response = batchTokenService.issueTokens(
+                List.of(entry("client-a", "wrong"), entry("client-a", "secret"), refresh), "trace");
+
+        assertEquals(1, response.getIssued());
+        assertEquals(2, response.getFailed());
+        assertResult(response.getResults().get(0), "error", "Invalid client credentials");
+        assertResult(response.getResults().get(1), "queued", "Token queued for callback delivery");
+        assertEquals("error", response.getResults().get(2).getStatus());
+        assertTrue(response.getResults().get(2).getMessage().startsWith("Unsupported grant type"));
+        verify(jwtTokenService, times(1)).generateToken(any(TokenRequest.class), anyString());
+    }
+
+    @Test
+    @DisplayName("Should turn entries over the client's rate limit into per-entry errors")
+    void testRateLimitedEntries() {
+        BatchTokenResponse response = batchTokenService.issueTokens(
+                List.of(entry("client-a", "secret"), entry("client-a", "secret"), entry("client-a", "secret")), "trace");
+
+        // slices admit concurrently, so which of the three entries loses the race is not fixed
+        assertEquals(2, response.getIssued());
+        assertEquals(1, response.getResults().stream()
+                .filter(result -> "Rate limit exceeded".equals(result.getMessage())).count());
+        verify(jwtTokenService, times(2)).generateToken(any(TokenRequest.class), anyString());
+    }
+
+    @Test
+    @DisplayName("Should not charge the client's bucket for entries that fail authentication")
+    void testFailedAuthenticationKeepsBucket() {
+        BatchTokenResponse response = batchTokenService.issueTokens(List.of(
+                entry("client-a", "wrong"), entry("client-a", "wrong"), entry("client-a", "wrong"), 
+                entry("client-a", "secret"), entry("client-a", "secret")), "trace");
+
+        assertEquals(2, response.getIssued());
+        assertResult(response.getResults().get(3), "queued", "Token queued for callback delivery");
+        assertResult(response.getResults().get(4), "queued", "Token queued for callback delivery");
+    }
+
+    @Test
+    @DisplayName("Should deliver one group per callback URL and skip clients without one before signing")
+    void testGroupingByCallbackUrl() {
+        BatchTokenResponse response = batchTokenService.issueTokens(List.of(
+                entry("client-a", "secret"), entry("client-b", "secret"), 
+                entry("client-c", "secret"), entry("client-x", "secret")), "trace");
+
+        assertEquals(3, response.getIssued());
+        assertResult(response.getResults().get(3), "error", "No callback URL registered for client");
+        verify(jwtTokenService, times(3)).generateToken(any(TokenRequest.class), anyString());
+        verify(callbackOutbox).deliverAll(eq("http://a/callback"), argThat(tokens -> tokens.size() == 2), eq("trace"));
+        verify(callbackOutbox).deliverAll(eq("http://b/callback"), argThat(tokens -> tokens.size() == 1), eq("trace"));
+        verifyNoMoreInteractions(callbackOutbox);
+    }
+
+    @Test
+    @DisplayName("Should authenticate entries on the signing threads rather than the request thread")
+    void testAdmissionRunsInSlices() {
+        Set<String> authenticatingThreads = ConcurrentHashMap.newKeySet();
+        when(clientService.validateClient(anyString(), eq("secret"))).thenAnswer(invocation -> {
+            authenticatingThreads.add(Thread.currentThread().getName());
+            return true;
+        });
+
+        BatchTokenResponse response = batchTokenService.issueTokens(List.of(
+                entry("client-a", "secret"), entry("client-b", "secret")), "trace");
+
+        assertEquals(2, response.getIssued());
+        assertFalse(authenticatingThreads.isEmpty());
+        assertTrue(authenticatingThreads.stream().allMatch(name -> name.startsWith("token-signing-")));
+    }
+
+    private static TokenRequest entry(String clientId, String clientSecret) {
+        TokenRequest request = new TokenRequest();
+        request.setClientId(clientId);
+        request.setClientSecret(clientSecret);
+        request.setScope("read");
+        return request;
+    }
+
+    private static void assertResult(BatchTokenResult result, String status, String message) {
+        assertEquals(status, result.getStatus());
+        assertEquals(message, result.getMessage());
+    }
+}
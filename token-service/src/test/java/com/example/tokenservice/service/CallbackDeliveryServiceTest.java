@@ -0,0 +1,153 @@
+package com.example.tokenservice.service;
+
+import com.example.tokenservice.dto.TokenResponse;
+import com.example.tokenservice.metrics.TokenMetrics;
+import com.sun.net.httpserver.HttpServer;
+import io.micronaut.http.client.HttpClient;
+import io.micronaut.json.JsonMapper;
+import io.micronaut.test.extensions.junit5.annotation.MicronautTest;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@MicronautTest
+class CallbackDeliveryServiceTest {
+
+    @Inject
+    private HttpClient httpClient;
+
+    @Inject
+    private AuditLog auditLog;
+
+    @Inject
+    private TokenMetrics tokenMetrics;
+
+    @Inject
+    private JsonMapper jsonMapper;
+
+    private HttpServer receiver;
+    private final List<Received> received = Collections.synchronizedList(new ArrayList<>());
+
+    @BeforeEach
+    void setUp() throws Exception {
+        receiver = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        receiver.createContext("/callback", exchange -> {
+            byte[] body;
+            try (InputStream in = exchange.getRequestBody()) {
+                body = in.readAllBytes();
+            }
+            received.add(new Received(exchange.getRequestURI().getPath(), 
+                    jsonMapper.readValue(body, List.class).size(), 
+                    exchange.getRequestHeaders().getFirst("Idempotency-Key")));
+            exchange.sendResponseHeaders(200, -1);
+            exchange.close();
+        });
+        receiver.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        receiver.stop(0);
+    }
+
+    @Test
+    @DisplayName("Should flush a batch as soon as it reaches the maximum size")
+    void testBatchFlushesBySize() throws Exception {
+        // the window is far longer than the test timeout, so only a full batch can complete the deliveries
+        CallbackDeliveryService deliveryService = deliveryService(3, 60_000);
+        try {
+            List<CompletableFuture<Boolean>> results = new ArrayList<>();
+            for (int i = 0; i < 3; i++) {
+                results.add(deliveryService.deliverTokenAsync(callbackUrl(), token(), "trace-" + i, "key-" + i));
+            }
+            for (CompletableFuture<Boolean> result : results) {
+                assertTrue(result.get(5, TimeUnit.SECONDS));
+            }
+
+            assertEquals(1, received.size());
+            assertEquals("/callback/batch", received.get(0).path);
+            assertEquals(3, received.get(0).tokens);
+            assertEquals("key-0,key-1,key-2", received.get(0).idempotencyKeys);
+        } finally {
+            deliveryService.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Should flush a partial batch when the window closes")
+    void testBatchFlushesByTimeout() throws Exception {
+        CallbackDeliveryService deliveryService = deliveryService(50, 200);
+        try {
+            long start = System.nanoTime();
+            CompletableFuture<Boolean> first = deliveryService.deliverTokenAsync(callbackUrl(), token(), "trace-0", "key-0");
+            CompletableFuture<Boolean> second = deliveryService.deliverTokenAsync(callbackUrl(), token(), "trace-1", "key-1");
+            assertFalse(first.isDone());
+
+            assertTrue(first.get(5, TimeUnit.SECONDS));
+            assertTrue(second.get(5, TimeUnit.SECONDS));
+            assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) >= 200);
+
+            assertEquals(1, received.size());
+            assertEquals("/callback/batch", received.get(0).path);
+            assertEquals(2, received.get(0).tokens);
+        } finally {
+            deliveryService.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Should omit batch idempotency keys when any delivery has none")
+    void testBatchWithKeylessDelivery() throws Exception {
+        CallbackDeliveryService deliveryService = deliveryService(2, 60_000);
+        try {
+            CompletableFuture<Boolean> first = deliveryService.deliverTokenAsync(callbackUrl(), token(), "trace-0");
+            CompletableFuture<Boolean> second = deliveryService.deliverTokenAsync(callbackUrl(), token(), "trace-1", "key-1");
+            assertTrue(first.get(5, TimeUnit.SECONDS));
+            assertTrue(second.get(5, TimeUnit.SECONDS));
+
+            assertEquals(1, received.size());
+            assertEquals(2, received.get(0).tokens);
+            // a shorter list would pair key-1 with the first token
+            assertNull(received.get(0).idempotencyKeys);
+        } finally {
+            deliveryService.shutdown();
+        }
+    }
+
+    private CallbackDeliveryService deliveryService(int batchMaxSize, long batchWindowMs) {
+        return new CallbackDeliveryService(httpClient, auditLog, tokenMetrics, 1, 0, 5_000, 4, 
+                true, batchMaxSize, batchWindowMs, "/batch", 60_000);
+    }
+
+    private String callbackUrl() {
+        return "http://127.0.0.1:" + receiver.getAddress().getPort() + "/callback";
+    }
+
+    private static TokenResponse token() {
+        return new TokenResponse("token", 3600L, "read", "2024-01-01T00:00:00Z");
+    }
+
+    private static final class Received {
+        private final String path;
+        private final int tokens;
+        private final String idempotencyKeys;
+
+        private Received(String path, int tokens, String idempotencyKeys) {
+            this.path = path;
+            this.tokens = tokens;
+            this.idempotencyKeys = idempotencyKeys;
+        }
+    }
+}
@@ -0,0 +1,209 @@
+package com.example.tokenservice.service;
+
+import com.example.tokenservice.dto.TokenResponse;
+import io.micronaut.json.JsonMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CallbackOutboxTest {
+
+    @TempDir
+    Path tempDir;
+
+    private final JsonMapper jsonMapper = JsonMapper.createDefault();
+
+    @Test
+    @DisplayName("Should redeliver every unfinished record after a crash")
+    void testReplayAfterCrash() throws Exception {
+        Path path = tempDir.resolve("outbox.ndjson");
+        RecordingDelivery hanging = new RecordingDelivery(false);
+        CallbackOutbox crashed = new CallbackOutbox(hanging, jsonMapper, path.toString(), 10_000, 60_000);
+        for (int i = 0; i < 3; i++) {
+            crashed.deliver("http://client/callback", token(3600), "trace-" + i);
+        }
+        awaitTrue(() -> hanging.keys.size() == 3);
+
+        // the first instance is abandoned without shutdown, as if the process had died
+        RecordingDelivery succeeding = new RecordingDelivery(true);
+        CallbackOutbox restarted = new CallbackOutbox(succeeding, jsonMapper, path.toString(), 10_000, 60_000);
+        assertEquals(3, restarted.getPendingCount());
+        restarted.replayUnfinished();
+        awaitTrue(() -> restarted.getPendingCount() == 0);
+        assertEquals(new HashSet<>(hanging.keys), new HashSet<>(succeeding.keys));
+        restarted.shutdown();
+
+        CallbackOutbox reopened = new CallbackOutbox(new RecordingDelivery(false), jsonMapper, path.toString(), 10_000, 60_000);
+        assertEquals(0, reopened.getPendingCount());
+        reopened.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should keep records not yet replayed when replay triggers a compaction")
+    void testCompactionDuringReplay() throws Exception {
+        Path path = tempDir.resolve("outbox.ndjson");
+        RecordingDelivery hanging = new RecordingDelivery(false);
+        CallbackOutbox crashed = new CallbackOutbox(hanging, jsonMapper, path.toString(), 10_000, 60_000);
+        crashed.deliver("http://client/callback", token(0), "expired");
+        for (int i = 0; i < 3; i++) {
+            crashed.deliver("http://client/callback", token(3600), "trace-" + i);
+        }
+        awaitTrue(() -> hanging.keys.size() == 4);
+
+        // threshold 1: the expired record is dropped on open and the live ones are compacted back in
+        RecordingDelivery stillHanging = new RecordingDelivery(false);
+        CallbackOutbox replaying = new CallbackOutbox(stillHanging, jsonMapper, path.toString(), 1, 60_000);
+        assertEquals(3, replaying.getPendingCount());
+        replaying.replayUnfinished();
+        awaitTrue(() -> stillHanging.keys.size() == 3);
+
+        CallbackOutbox reopened = new CallbackOutbox(new RecordingDelivery(false), jsonMapper, path.toString(), 10_000, 60_000);
+        assertEquals(3, reopened.getPendingCount());
+        reopened.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should keep records awaiting replay when live deliveries compact the outbox first")
+    void testLiveCompactionBeforeReplay() throws Exception {
+        Path path = tempDir.resolve("outbox.ndjson");
+        RecordingDelivery hanging = new RecordingDelivery(false);
+        CallbackOutbox crashed = new CallbackOutbox(hanging, jsonMapper, path.toString(), 10_000, 60_000);
+        for (int i = 0; i < 3; i++) {
+            crashed.deliver("http://client/callback", token(3600), "trace-" + i);
+        }
+        awaitTrue(() -> hanging.keys.size() == 3);
+
+        // traffic arrives between the port binding and the deferred replay; its completion compacts at threshold 1
+        RecordingDelivery succeeding = new RecordingDelivery(true);
+        CallbackOutbox restarted = new CallbackOutbox(succeeding, jsonMapper, path.toString(), 1, 60_000);
+        restarted.deliver("http://client/callback", token(3600), "live");
+        awaitTrue(() -> restarted.getPendingCount() == 3);
+        assertEquals(1, succeeding.keys.size());
+
+        // crashing again before the replay ran must not lose the three records still owed a delivery
+        CallbackOutbox reopened = new CallbackOutbox(new RecordingDelivery(false), jsonMapper, path.toString(), 10_000, 60_000);
+        assertEquals(3, reopened.getPendingCount());
+        reopened.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should persist a callback group as one batch delivery and complete it together")
+    void testGroupedDelivery() throws Exception {
+        Path path = tempDir.resolve("outbox.ndjson");
+        RecordingDelivery hanging = new RecordingDelivery(false);
+        CallbackOutbox crashed = new CallbackOutbox(hanging, jsonMapper, path.toString(), 10_000, 60_000);
+        crashed.deliverAll("http://client/callback", List.of(token(3600), token(3600), token(3600)), "batch");
+        assertEquals(1, hanging.batches.size());
+        assertEquals(3, hanging.batches.get(0).size());
+        assertEquals(3, crashed.getPendingCount());
+
+        RecordingDelivery succeeding = new RecordingDelivery(true);
+        CallbackOutbox restarted = new CallbackOutbox(succeeding, jsonMapper, path.toString(), 10_000, 60_000);
+        assertEquals(3, restarted.getPendingCount());
+        restarted.deliverAll("http://client/callback", List.of(token(3600), token(3600)), "batch");
+        awaitTrue(() -> restarted.getPendingCount() == 3);
+        restarted.shutdown();
+
+        CallbackOutbox reopened = new CallbackOutbox(new RecordingDelivery(false), jsonMapper, path.toString(), 10_000, 60_000);
+        assertEquals(3, reopened.getPendingCount());
+        reopened.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should keep a delivery pending past the retry budget and redeliver it until it succeeds")
+    void testRedeliveryAfterFailure() throws Exception {
+        Path path = tempDir.resolve("outbox.ndjson");
+        RecordingDelivery flaky = new RecordingDelivery(true, 2);
+        CallbackOutbox outbox = new CallbackOutbox(flaky, jsonMapper, path.toString(), 10_000, 20);
+        outbox.deliver("http://client/callback", token(3600), "trace");
+        awaitTrue(() -> flaky.keys.size() == 3);
+        awaitTrue(() -> outbox.getPendingCount() == 0);
+        // every redelivery carries the same key, so the receiver can dedupe a late success
+        assertEquals(1, new HashSet<>(flaky.keys).size());
+        outbox.shutdown();
+
+        CallbackOutbox reopened = new CallbackOutbox(new RecordingDelivery(false), jsonMapper, path.toString(), 10_000, 60_000);
+        assertEquals(0, reopened.getPendingCount());
+        reopened.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should redeliver a failed batch record by record and close records whose token expired")
+    void testFailedBatchRedelivery() throws Exception {
+        Path path = tempDir.resolve("outbox.ndjson");
+        RecordingDelivery failing = new RecordingDelivery(false, Integer.MAX_VALUE);
+        CallbackOutbox outbox = new CallbackOutbox(failing, jsonMapper, path.toString(), 10_000, 20);
+        outbox.deliverAll("http://client/callback", List.of(token(3600), token(1)), "batch");
+        // both stay pending after the batch fails; the short-lived one is closed once it expires
+        awaitTrue(() -> outbox.getPendingCount() == 1 && !failing.keys.isEmpty());
+        assertTrue(failing.batches.get(0).containsAll(failing.keys));
+        outbox.shutdown();
+
+        CallbackOutbox reopened = new CallbackOutbox(new RecordingDelivery(false), jsonMapper, path.toString(), 10_000, 60_000);
+        assertEquals(1, reopened.getPendingCount());
+        reopened.shutdown();
+    }
+
+    private static TokenResponse token(long expiresIn) {
+        return new TokenResponse("token", expiresIn, "read", "2024-01-01T00:00:00Z");
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline, "condition not met within 5s");
+            Thread.sleep(10);
+        }
+    }
+
+    // records idempotency keys instead of sending; the first `failures` deliveries report an exhausted retry
+    // budget, and after that unsucceeding deliveries never complete, like a crash mid-flight
+    private static final class RecordingDelivery extends CallbackDeliveryService {
+        private final List<String> keys = Collections.synchronizedList(new ArrayList<>());
+        private final List<List<String>> batches = Collections.synchronizedList(new ArrayList<>());
+        private final boolean succeed;
+        private final AtomicInteger failures;
+
+        private RecordingDelivery(boolean succeed) {
+            this(succeed, 0);
+        }
+
+        private RecordingDelivery(boolean succeed, int failures) {
+            super(null, null, null, 1, 0, 1_000, 4, false, 1, 1, "/batch", 60_000);
+            this.succeed = succeed;
+            this.failures = new AtomicInteger(failures);
+        }
+
+        @Override
+        public CompletableFuture<Boolean> deliverTokenAsync(String callbackUrl, TokenResponse tokenResponse,
+                                                            String traceId, String idempotencyKey) {
+            keys.add(idempotencyKey);
+            return outcome();
+        }
+
+        @Override
+        public CompletableFuture<Boolean> deliverTokensAsync(String callbackUrl, List<TokenResponse> tokenResponses,
+                                                             String traceId, List<String> idempotencyKeys) {
+            batches.add(idempotencyKeys);
+            return outcome();
+        }
+
+        private CompletableFuture<Boolean> outcome() {
+            if (failures.getAndUpdate(n -> n > 0 ? n - 1 : 0) > 0) {
+                return CompletableFuture.completedFuture(false);
+            }
+            return succeed ? CompletableFuture.completedFuture(true) : new CompletableFuture<>();
+        }
+    }
+}
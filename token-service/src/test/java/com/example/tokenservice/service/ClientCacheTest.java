@@ -0,0 +1,90 @@
+package com.example.tokenservice.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.util.Date;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ClientCacheTest {
+
+    @Test
+    @DisplayName("Should load a missing client once and serve it from the cache afterwards")
+    void testLoadsOnce() {
+        ClientCache cache = new ClientCache(16);
+        AtomicInteger loads = new AtomicInteger();
+
+        for (int i = 0; i < 5; i++) {
+            ClientService.ClientInfo client = cache.getOrLoad("client-a", clientId -> {
+                loads.incrementAndGet();
+                return client(clientId, "http://a/callback");
+            });
+            assertEquals("http://a/callback", client.getCallbackUrl());
+        }
+        assertEquals(1, loads.get());
+        assertNull(cache.getOrLoad("missing", clientId -> null));
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    @DisplayName("Should stay within its capacity and evict the least recently used client of a segment")
+    void testBoundedLru() {
+        // below two segments' worth of minimum capacity, so a single segment with exact LRU order
+        ClientCache cache = new ClientCache(3);
+        assertEquals(1, cache.segmentCount());
+        cache.put(client("a", "http://a"));
+        cache.put(client("b", "http://b"));
+        cache.put(client("c", "http://c"));
+
+        assertNotNull(cache.get("a"));
+        cache.put(client("d", "http://d"));
+
+        assertEquals(3, cache.size());
+        assertNotNull(cache.get("a"));
+        assertNull(cache.get("b"));
+
+        ClientCache large = new ClientCache(10_000);
+        assertEquals(64, large.segmentCount());
+        for (int i = 0; i < 20_000; i++) {
+            large.put(client("client-" + i, "http://callback"));
+        }
+        assertTrue(large.size() <= 10_000 + 64);
+    }
+
+    @Test
+    @DisplayName("Should hand out but not cache a load that raced an invalidation")
+    void testRacingInvalidationIsNotCached() {
+        ClientCache cache = new ClientCache(16);
+
+        // the watcher evicts the client while the registry read is still in flight
+        ClientService.ClientInfo stale = cache.getOrLoad("client-a", clientId -> {
+            cache.invalidate(clientId);
+            return client(clientId, "http://stale/callback");
+        });
+
+        assertEquals("http://stale/callback", stale.getCallbackUrl());
+        assertNull(cache.get("client-a"));
+        assertEquals("http://fresh/callback",
+                cache.getOrLoad("client-a", clientId -> client(clientId, "http://fresh/callback")).getCallbackUrl());
+    }
+
+    @Test
+    @DisplayName("Should keep a client stored during a load rather than the loaded copy")
+    void testStoreWinsOverLoad() {
+        ClientCache cache = new ClientCache(16);
+
+        ClientService.ClientInfo result = cache.getOrLoad("client-a", clientId -> {
+            cache.put(client(clientId, "http://registered/callback"));
+            return client(clientId, "http://old/callback");
+        });
+
+        assertEquals("http://registered/callback", result.getCallbackUrl());
+        assertEquals("http://registered/callback", cache.get("client-a").getCallbackUrl());
+    }
+
+    private static ClientService.ClientInfo client(String clientId, String callbackUrl) {
+        return new ClientService.ClientInfo(clientId, "hash", callbackUrl, new String[]{"read"}, new Date());
+    }
+}
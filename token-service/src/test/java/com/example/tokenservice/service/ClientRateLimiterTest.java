@@ -0,0 +1,90 @@
+package com.example.tokenservice.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ClientRateLimiterTest {
+
+    @Test
+    @DisplayName("Should allow a full burst and then report when the next token arrives")
+    void testBurstAndRetryAfter() {
+        ClientRateLimiter limiter = new ClientRateLimiter(true, 10, 5, 64);
+        long now = System.currentTimeMillis();
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0L, limiter.tryAcquire("client", now));
+        }
+        assertEquals(100L, limiter.tryAcquire("client", now));
+        assertEquals(50L, limiter.tryAcquire("client", now + 50));
+        assertEquals(0L, limiter.tryAcquire("client", now + 100));
+    }
+
+    @Test
+    @DisplayName("Should refill up to the burst size only")
+    void testRefillIsCapped() {
+        ClientRateLimiter limiter = new ClientRateLimiter(true, 10, 2, 64);
+        long now = System.currentTimeMillis();
+
+        assertEquals(0L, limiter.tryAcquire("client", now));
+        assertEquals(0L, limiter.tryAcquire("client", now));
+
+        long later = now + 60_000;
+        assertEquals(0L, limiter.tryAcquire("client", later));
+        assertEquals(0L, limiter.tryAcquire("client", later));
+        assertTrue(limiter.tryAcquire("client", later) > 0);
+    }
+
+    @Test
+    @DisplayName("Should keep the number of buckets fixed")
+    void testBoundedFootprint() {
+        ClientRateLimiter limiter = new ClientRateLimiter(true, 10, 1, 1000);
+        long now = System.currentTimeMillis();
+
+        for (int i = 0; i < 100_000; i++) {
+            limiter.tryAcquire("client-" + i, now);
+        }
+        assertEquals(1024, limiter.getSlotCount());
+    }
+
+    @Test
+    @DisplayName("Should not throttle other clients while one client is over its limit")
+    void testClientsDoNotShareBuckets() {
+        ClientRateLimiter limiter = new ClientRateLimiter(true, 10, 2, 65536);
+        long now = System.currentTimeMillis();
+
+        assertEquals(0L, limiter.tryAcquire("noisy", now));
+        assertEquals(0L, limiter.tryAcquire("noisy", now));
+        assertTrue(limiter.tryAcquire("noisy", now) > 0);
+
+        // far more clients than the old 4096 stripes, each still gets its own full burst
+        for (int i = 0; i < 20_000; i++) {
+            assertEquals(0L, limiter.tryAcquire("client-" + i, now), "client-" + i);
+            assertEquals(0L, limiter.tryAcquire("client-" + i, now), "client-" + i);
+        }
+        assertTrue(limiter.tryAcquire("noisy", now) > 0);
+    }
+
+    @Test
+    @DisplayName("Should hand the slot of an idle, refilled client to a new one and give the old one a fresh bucket")
+    void testIdleSlotIsReused() {
+        // a single set of eight slots
+        ClientRateLimiter limiter = new ClientRateLimiter(true, 10, 1, 8);
+        long now = System.currentTimeMillis();
+
+        for (int i = 0; i < 8; i++) {
+            assertEquals(0L, limiter.tryAcquire("client-" + i, now));
+        }
+        // everyone is drained, so a ninth client takes over the idlest slot with a full bucket of its own
+        assertEquals(0L, limiter.tryAcquire("newcomer", now));
+        assertTrue(limiter.tryAcquire("newcomer", now) > 0);
+
+        // a second later every bucket has refilled; the evicted client comes back to a full bucket
+        long later = now + 1_000;
+        for (int i = 0; i < 8; i++) {
+            assertEquals(0L, limiter.tryAcquire("client-" + i, later));
+        }
+        assertEquals(8, limiter.getSlotCount());
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.tokenservice.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ClientRegistryTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("Should keep clients across reopen and grow past the initial index")
+    void testPersistAndGrow() throws Exception {
+        Path path = tempDir.resolve("clients.db");
+        try (ClientRegistry registry = ClientRegistry.open(path, 16)) {
+            for (int i = 0; i < 5_000; i++) {
+                registry.put(client("client-" + i, "http://client-" + i + "/callback"));
+            }
+            registry.put(client("client-7", "http://moved/callback"));
+            assertEquals(5_000, registry.size());
+        }
+
+        try (ClientRegistry registry = ClientRegistry.open(path, 16)) {
+            assertEquals(5_000, registry.size());
+            assertEquals("http://client-4999/callback", registry.get("client-4999").getCallbackUrl());
+            assertEquals("http://moved/callback", registry.get("client-7").getCallbackUrl());
+            assertArrayEquals(new String[]{"read", "write"}, registry.get("client-0").getScopes());
+            assertNull(registry.get("client-5000"));
+        }
+    }
+
+    @Test
+    @DisplayName("Should report entries appended by another writer")
+    void testRefresh() throws Exception {
+        Path path = tempDir.resolve("clients.db");
+        try (ClientRegistry writer = ClientRegistry.open(path, 16);
+             ClientRegistry reader = ClientRegistry.open(path, 16)) {
+            writer.put(client("client-a", "http://a/callback"));
+            writer.put(client("client-b", "http://b/callback"));
+
+            assertEquals(List.of("client-a", "client-b"), reader.refresh());
+            assertEquals("http://b/callback", reader.get("client-b").getCallbackUrl());
+            assertTrue(reader.refresh().isEmpty());
+        }
+    }
+
+    private static ClientService.ClientInfo client(String clientId, String callbackUrl) {
+        return new ClientService.ClientInfo(clientId, "pbkdf2-sha256$1$c2FsdA$aGFzaA", callbackUrl,
+                new String[]{"read", "write"}, new Date());
+    }
+}
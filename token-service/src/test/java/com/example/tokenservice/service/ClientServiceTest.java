@@ -0,0 +1,61 @@
+package com.example.tokenservice.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ClientServiceTest {
+
+    @TempDir
+    Path tempDir;
+
+    private final VerifiedCredentialCache credentialCache = new VerifiedCredentialCache(true, 300, 100);
+    private final ClientService clientService = new ClientService(new ClientSecretHasher(1000), credentialCache, "", 16, 16, 5);
+
+    @Test
+    @DisplayName("Should verify the pre-registered secret against its hash")
+    void testValidateClient() {
+        assertTrue(clientService.validateClient("data-client-service", "secret123"));
+        assertFalse(clientService.validateClient("data-client-service", "secret124"));
+        assertFalse(clientService.validateClient("unknown-client", "secret123"));
+        assertFalse(clientService.getClient("data-client-service").getSecretHash().contains("secret123"));
+    }
+
+    @Test
+    @DisplayName("Should serve repeated verifications from the credential cache")
+    void testCredentialCache() {
+        assertTrue(clientService.validateClient("data-client-service", "secret123"));
+        assertEquals(1, credentialCache.size());
+
+        assertTrue(credentialCache.contains("data-client-service", "secret123"));
+        assertFalse(credentialCache.contains("data-client-service", "secret124"));
+        assertFalse(clientService.validateClient("data-client-service", "secret124"));
+    }
+
+    @Test
+    @DisplayName("Should stop serving a cached client once another writer changes it")
+    void testReloadEvictsCachedClient() throws Exception {
+        Path path = tempDir.resolve("clients.db");
+        ClientService watched = new ClientService(new ClientSecretHasher(1000), credentialCache, path.toString(), 16, 16, 1);
+        try (ClientRegistry writer = ClientRegistry.open(path, 16)) {
+            assertEquals("http://localhost:8082/callback", watched.getCallbackUrl("data-client-service"));
+            ClientService.ClientInfo cached = watched.getClient("data-client-service");
+
+            writer.put(new ClientService.ClientInfo("data-client-service", cached.getSecretHash(), "http://moved/callback",
+                    cached.getScopes(), new Date()));
+
+            long deadline = System.currentTimeMillis() + 5_000;
+            while (!"http://moved/callback".equals(watched.getCallbackUrl("data-client-service"))) {
+                assertTrue(System.currentTimeMillis() < deadline, "change not picked up within 5s");
+                Thread.sleep(50);
+            }
+        } finally {
+            watched.shutdown();
+        }
+    }
+}
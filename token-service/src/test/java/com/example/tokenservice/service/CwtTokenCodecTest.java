@@ -0,0 +1,58 @@
+package com.example.tokenservice.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CwtTokenCodecTest {
+    
+    private static final String SECRET = "pleaseChangeThisSecretForASecretKeyForJWTTokenGeneration";
+    
+    private final CwtTokenCodec codec = new CwtTokenCodec(SECRET);
+    
+    @Test
+    @DisplayName("Should round-trip the compact claim set")
+    void testRoundTrip() {
+        String token = codec.encode("data-client-service", "read write", new byte[8], 1_700_000_000L, 1_700_003_600L);
+        
+        CwtTokenCodec.CwtClaims claims = codec.decode(token);
+        
+        assertTrue(CwtTokenCodec.isCwt(token));
+        assertNotNull(claims);
+        assertEquals("data-client-service", claims.getSubject());
+        assertEquals("read write", claims.getScope());
+        assertEquals(1_700_000_000L, claims.getIssuedAt());
+        assertEquals(1_700_003_600L, claims.getExpiresAt());
+    }
+    
+    @Test
+    @DisplayName("Should reject tampered tokens and tokens signed with another key")
+    void testRejectsTampering() {
+        String token = codec.encode("data-client-service", "read", new byte[8], 1_700_000_000L, 1_700_003_600L);
+        char[] chars = token.toCharArray();
+        chars[20] = chars[20] == 'A' ? 'B' : 'A';
+        
+        assertNull(codec.decode(new String(chars)));
+        assertNull(new CwtTokenCodec(SECRET + "-other").decode(token));
+        assertNull(codec.decode("not-a-token"));
+        assertFalse(CwtTokenCodec.isCwt("header.payload.signature"));
+    }
+    
+    @Test
+    @DisplayName("Should reject a payload length beyond the input even if it would narrow to a valid int")
+    void testRejectsOversizedLength() {
+        ByteArrayOutputStream token = new ByteArrayOutputStream();
+        token.writeBytes(new byte[]{(byte) 0xD1, (byte) 0x84, 0x43, (byte) 0xA1, 0x01, 0x05, (byte) 0xA0});
+        // bstr with an 8-byte length of 2^32 + 5, which an int cast turns into 5
+        token.writeBytes(new byte[]{0x5B, 0x00, 0x00, 0x00, 0x01, 0x00, 0x00, 0x00, 0x05});
+        token.writeBytes(new byte[5]);
+        token.writeBytes(new byte[]{0x58, 0x20});
+        token.writeBytes(new byte[32]);
+        
+        assertNull(codec.decode(Base64.getUrlEncoder().withoutPadding().encodeToString(token.toByteArray())));
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.tokenservice.service;
+
+import com.example.tokenservice.config.TokenConfiguration;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jws;
+import io.jsonwebtoken.Jwts;
+import io.micronaut.json.JsonMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.math.BigInteger;
+import java.security.AlgorithmParameters;
+import java.security.KeyFactory;
+import java.security.PublicKey;
+import java.security.spec.ECGenParameterSpec;
+import java.security.spec.ECParameterSpec;
+import java.security.spec.ECPoint;
+import java.security.spec.ECPublicKeySpec;
+import java.util.Base64;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtSigningEngineTest {
+
+    private static final String SECRET = "pleaseChangeThisSecretForASecretKeyForJWTTokenGeneration";
+
+    private KeyPairService keyPairService;
+    private JwtSigningEngine signingEngine;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        TokenConfiguration configuration = new TokenConfiguration();
+        configuration.setAlgorithm("ES256");
+        keyPairService = new KeyPairService(configuration, 2048, 0);
+        signingEngine = new JwtSigningEngine(keyPairService, SECRET);
+    }
+
+    @AfterEach
+    void tearDown() {
+        keyPairService.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should sign ES256 tokens that verify with the engine and with the published JWK")
+    void testEs256RoundTrip() throws Exception {
+        String token = signingEngine.sign(Jwts.builder()
+                .setSubject("test-client")
+                .setExpiration(new Date(System.currentTimeMillis() + 60_000)));
+
+        assertEquals("test-client", signingEngine.verify(token).getSubject());
+
+        // a resource server only has the JWKS: rebuild the key from x/y and pick it by kid
+        Map<String, Object> jwk = currentJwk();
+        Jws<Claims> jws = Jwts.parserBuilder()
+                .setSigningKey(ecPublicKey(jwk))
+                .build()
+                .parseClaimsJws(token);
+        assertEquals("ES256", jws.getHeader().getAlgorithm());
+        assertEquals(jwk.get("kid"), jws.getHeader().getKeyId());
+        assertEquals("test-client", jws.getBody().getSubject());
+    }
+
+    @Test
+    @DisplayName("Should reject an ES256 token with a modified signature")
+    void testEs256RejectsTampering() {
+        String token = signingEngine.sign(Jwts.builder()
+                .setSubject("test-client")
+                .setExpiration(new Date(System.currentTimeMillis() + 60_000)));
+        int at = token.lastIndexOf('.') + 10;
+        String tampered = token.substring(0, at) + (token.charAt(at) == 'A' ? 'B' : 'A') + token.substring(at + 1);
+
+        assertThrows(JwtException.class, () -> signingEngine.verify(tampered));
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> currentJwk() throws Exception {
+        JsonMapper jsonMapper = JsonMapper.createDefault();
+        byte[] document = new JwksService(keyPairService, jsonMapper).getDocument().getBytes();
+        List<Map<String, Object>> keys = (List<Map<String, Object>>) jsonMapper.readValue(document, Map.class).get("keys");
+        for (Map<String, Object> key : keys) {
+            if (keyPairService.getKeyId().equals(key.get("kid"))) {
+                return key;
+            }
+        }
+        throw new AssertionError("Current key missing from JWKS");
+    }
+
+    private static PublicKey ecPublicKey(Map<String, Object> jwk) throws Exception {
+        assertEquals("P-256", jwk.get("crv"));
+        AlgorithmParameters parameters = AlgorithmParameters.getInstance("EC");
+        parameters.init(new ECGenParameterSpec("secp256r1"));
+        ECPoint point = new ECPoint(
+                new BigInteger(1, Base64.getUrlDecoder().decode((String) jwk.get("x"))),
+                new BigInteger(1, Base64.getUrlDecoder().decode((String) jwk.get("y"))));
+        return KeyFactory.getInstance("EC")
+                .generatePublic(new ECPublicKeySpec(point, parameters.getParameterSpec(ECParameterSpec.class)));
+    }
+}
@@ -65,6 +65,22 @@ class JwtTokenServiceTest {
         assertEquals("test-client", claims.getSubject());
     }
 
+    @Test
+    @DisplayName("Should keep validating tokens signed before a key rotation")
+    void testValidateTokenAfterKeyRotation() throws InterruptedException {
+        TokenResponse response = jwtTokenService.generateToken(validTokenRequest, "test-trace-id");
+        String previousKeyId = keyPairService.getKeyId();
+
+        // rotation is skipped until the next key has been generated in the background
+        for (int attempt = 0; attempt < 100 && previousKeyId.equals(keyPairService.getKeyId()); attempt++) {
+            keyPairService.rotate();
+            Thread.sleep(100);
+        }
+
+        assertNotEquals(previousKeyId, keyPairService.getKeyId());
+        assertEquals("test-client", jwtTokenService.validateToken(response.getAccessToken()).getSubject());
+    }
+
     @Test
     @DisplayName("Should throw exception when validating invalid token")
     void testValidateInvalidToken() {
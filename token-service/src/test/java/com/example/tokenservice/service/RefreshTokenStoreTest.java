@@ -0,0 +1,129 @@
+package com.example.tokenservice.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RefreshTokenStoreTest {
+
+    private static final long NOW = 1_000_000L;
+
+    @Test
+    @DisplayName("Should redeem an active token once")
+    void testRedeem() {
+        RefreshTokenStore store = new RefreshTokenStore(16);
+        store.put(1L, 11L, 100L, NOW + 5_000, "client", "read", NOW);
+
+        RefreshTokenStore.Redemption redemption = store.redeem(1L, 11L, "client", NOW);
+
+        assertEquals(RefreshTokenStore.Status.ROTATED, redemption.getStatus());
+        assertEquals("read", redemption.getScope());
+        assertEquals(100L, redemption.getFamilyId());
+        assertEquals(NOW + 5_000, redemption.getExpiresAt());
+    }
+
+    @Test
+    @DisplayName("Should reject wrong verifiers, other clients and expired tokens")
+    void testRejections() {
+        RefreshTokenStore store = new RefreshTokenStore(16);
+        store.put(1L, 11L, 100L, NOW + 5_000, "client", "read", NOW);
+
+        assertEquals(RefreshTokenStore.Status.UNKNOWN, store.redeem(1L, 12L, "client", NOW).getStatus());
+        assertEquals(RefreshTokenStore.Status.UNKNOWN, store.redeem(2L, 11L, "client", NOW).getStatus());
+        assertEquals(RefreshTokenStore.Status.CLIENT_MISMATCH, store.redeem(1L, 11L, "other", NOW).getStatus());
+        assertEquals(RefreshTokenStore.Status.EXPIRED, store.redeem(1L, 11L, "client", NOW + 5_000).getStatus());
+    }
+
+    @Test
+    @DisplayName("Should revoke the whole family when a rotated token is replayed")
+    void testReuseDetection() {
+        RefreshTokenStore store = new RefreshTokenStore(16);
+        store.put(1L, 11L, 100L, NOW + 5_000, "client", "read", NOW);
+        RefreshTokenStore.Redemption redemption = store.redeem(1L, 11L, "client", NOW);
+        store.put(2L, 22L, 100L, NOW + 5_000, "client", "read", NOW);
+        assertTrue(store.commit(redemption));
+
+        assertEquals(RefreshTokenStore.Status.REUSED, store.redeem(1L, 11L, "client", NOW).getStatus());
+        assertEquals(RefreshTokenStore.Status.REUSED, store.redeem(2L, 22L, "client", NOW).getStatus());
+        assertEquals(1, store.revokedFamilyCount());
+    }
+
+    @Test
+    @DisplayName("Should keep a redeemed token usable until its renewal is committed")
+    void testRetryBeforeCommit() {
+        RefreshTokenStore store = new RefreshTokenStore(16);
+        store.put(1L, 11L, 100L, NOW + 5_000, "client", "read", NOW);
+
+        // the first renewal failed before its replacement was handed out, so nothing was committed
+        store.redeem(1L, 11L, "client", NOW);
+        RefreshTokenStore.Redemption retry = store.redeem(1L, 11L, "client", NOW);
+        assertEquals(RefreshTokenStore.Status.ROTATED, retry.getStatus());
+        store.put(2L, 22L, 100L, NOW + 5_000, "client", "read", NOW);
+        assertTrue(store.commit(retry));
+
+        assertEquals(RefreshTokenStore.Status.ROTATED, store.redeem(2L, 22L, "client", NOW).getStatus());
+        assertEquals(0, store.revokedFamilyCount());
+    }
+
+    @Test
+    @DisplayName("Should revoke the family when two renewals race to spend the same token")
+    void testConcurrentCommitRevokes() {
+        RefreshTokenStore store = new RefreshTokenStore(16);
+        store.put(1L, 11L, 100L, NOW + 5_000, "client", "read", NOW);
+
+        RefreshTokenStore.Redemption first = store.redeem(1L, 11L, "client", NOW);
+        RefreshTokenStore.Redemption second = store.redeem(1L, 11L, "client", NOW);
+
+        assertTrue(store.commit(first));
+        assertFalse(store.commit(second));
+        assertEquals(RefreshTokenStore.Status.REUSED, store.redeem(1L, 11L, "client", NOW).getStatus());
+        assertEquals(1, store.revokedFamilyCount());
+    }
+
+    @Test
+    @DisplayName("Should drop expired entries instead of growing when the table fills up")
+    void testRebuildPurgesExpired() {
+        RefreshTokenStore store = new RefreshTokenStore(16);
+        int capacity = store.capacity();
+
+        for (long id = 1; id <= 10_000; id++) {
+            long now = NOW + id * 10;
+            store.put(id, id, id, now + 50, "client", "read", now);
+        }
+
+        assertEquals(capacity, store.capacity());
+        long now = NOW + 10_000 * 10;
+        assertEquals(RefreshTokenStore.Status.ROTATED, store.redeem(10_000L, 10_000L, "client", now).getStatus());
+        assertEquals(RefreshTokenStore.Status.UNKNOWN, store.redeem(1L, 1L, "client", now).getStatus());
+    }
+
+    @Test
+    @DisplayName("Should retire the previous family when a client starts a new one")
+    void testNewFamilySupersedesOld() {
+        RefreshTokenStore store = new RefreshTokenStore(16);
+        store.put(1L, 11L, 100L, NOW + 5_000, "client", "read", NOW);
+        store.put(2L, 22L, 200L, NOW + 5_000, "client", "read", NOW);
+        store.put(3L, 33L, 300L, NOW + 5_000, "other", "read", NOW);
+
+        assertEquals(RefreshTokenStore.Status.SUPERSEDED, store.redeem(1L, 11L, "client", NOW).getStatus());
+        assertEquals(RefreshTokenStore.Status.ROTATED, store.redeem(2L, 22L, "client", NOW).getStatus());
+        assertEquals(RefreshTokenStore.Status.ROTATED, store.redeem(3L, 33L, "other", NOW).getStatus());
+        assertEquals(2, store.liveFamilyCount());
+    }
+
+    @Test
+    @DisplayName("Should stay bounded by the number of clients under sustained issuance")
+    void testBoundedByClients() {
+        RefreshTokenStore store = new RefreshTokenStore(16);
+        int capacity = store.capacity();
+
+        for (long id = 1; id <= 100_000; id++) {
+            store.put(id, id, id, NOW + 86_400_000L, "client-" + (id % 4), "read", NOW);
+        }
+
+        assertEquals(capacity, store.capacity());
+        assertEquals(4, store.liveFamilyCount());
+        assertTrue(store.size() <= capacity);
+    }
+}
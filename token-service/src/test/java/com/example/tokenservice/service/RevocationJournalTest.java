@@ -0,0 +1,60 @@
+package com.example.tokenservice.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RevocationJournalTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("Should replay appended records after reopening")
+    void testReplay() throws Exception {
+        Path path = tempDir.resolve("revocations.journal");
+        try (RevocationJournal journal = RevocationJournal.open(path, (key, entry) -> fail("empty journal"))) {
+            for (long key = 1; key <= 10_000; key++) {
+                journal.append(key, key * 3);
+            }
+            journal.force();
+        }
+
+        RevocationTable replayed = new RevocationTable(16);
+        try (RevocationJournal journal = RevocationJournal.open(path, replayed::put)) {
+            assertEquals(10_000, journal.recordCount());
+        }
+
+        assertEquals(10_000, replayed.size());
+        assertEquals(30_000L, replayed.get(10_000L, 0L));
+    }
+
+    @Test
+    @DisplayName("Should keep only live records after compaction")
+    void testCompact() throws Exception {
+        Path path = tempDir.resolve("revocations.journal");
+        RevocationTable live = new RevocationTable(16);
+        try (RevocationJournal journal = RevocationJournal.open(path, (key, entry) -> { })) {
+            for (long key = 1; key <= 100; key++) {
+                journal.append(key, key);
+            }
+            live.put(7L, 7L);
+            live.put(42L, 42L);
+            journal.compact(handler -> live.forEachEntry(handler::record));
+            journal.append(99L, 99L);
+        }
+
+        RevocationTable replayed = new RevocationTable(16);
+        try (RevocationJournal journal = RevocationJournal.open(path, replayed::put)) {
+            assertEquals(3, journal.recordCount());
+        }
+
+        assertEquals(3, replayed.size());
+        assertTrue(replayed.containsKey(42L));
+        assertFalse(replayed.containsKey(8L));
+    }
+}
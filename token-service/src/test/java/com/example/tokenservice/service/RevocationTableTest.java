@@ -0,0 +1,113 @@
+package com.example.tokenservice.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RevocationTableTest {
+
+    @Test
+    @DisplayName("Should store and look up entries without boxing")
+    void testPutAndGet() {
+        RevocationTable table = new RevocationTable(16);
+
+        table.put(42L, 1000L);
+        table.put(-7L, 2000L);
+
+        assertTrue(table.containsKey(42L));
+        assertEquals(2000L, table.get(-7L, 0L));
+        assertEquals(0L, table.get(99L, 0L));
+        assertEquals(2, table.size());
+    }
+
+    @Test
+    @DisplayName("Should grow past the expected size and keep every entry")
+    void testResize() {
+        RevocationTable table = new RevocationTable(4);
+
+        for (long key = 1; key <= 10_000; key++) {
+            table.put(key, key * 10);
+        }
+
+        assertEquals(10_000, table.size());
+        for (long key = 1; key <= 10_000; key++) {
+            assertEquals(key * 10, table.get(key, 0L));
+        }
+    }
+
+    @Test
+    @DisplayName("Should keep probe chains intact after removals")
+    void testRemove() {
+        RevocationTable table = new RevocationTable(16);
+        for (long key = 1; key <= 1_000; key++) {
+            table.put(key, key);
+        }
+
+        for (long key = 1; key <= 1_000; key += 2) {
+            assertTrue(table.remove(key));
+        }
+
+        assertEquals(500, table.size());
+        for (long key = 1; key <= 1_000; key++) {
+            assertEquals(key % 2 == 0, table.containsKey(key));
+        }
+    }
+
+    @Test
+    @DisplayName("Should answer lookups correctly while a writer keeps resizing the table")
+    void testConcurrentReadsDuringResize() throws Exception {
+        RevocationTable table = new RevocationTable(4);
+        AtomicLong published = new AtomicLong();
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+
+        List<Thread> readers = new ArrayList<>();
+        for (int r = 0; r < 4; r++) {
+            Thread reader = new Thread(() -> {
+                try {
+                    while (published.get() < 200_000) {
+                        long upTo = published.get();
+                        for (long key = Math.max(1, upTo - 64); key <= upTo; key++) {
+                            assertEquals(key * 10, table.get(key, 0L));
+                        }
+                        assertEquals(0L, table.get(-(upTo + 1), 0L));
+                    }
+                } catch (Throwable t) {
+                    failure.compareAndSet(null, t);
+                }
+            });
+            reader.start();
+            readers.add(reader);
+        }
+
+        for (long key = 1; key <= 200_000; key++) {
+            table.put(key, key * 10);
+            published.set(key);
+        }
+        for (Thread reader : readers) {
+            reader.join();
+        }
+
+        assertNull(failure.get());
+        assertEquals(200_000, table.size());
+    }
+
+    @Test
+    @DisplayName("Bloom filter should never report a false negative")
+    void testBloomFilterHasNoFalseNegatives() {
+        RevocationBloomFilter filter = new RevocationBloomFilter(10_000);
+
+        for (long key = 1; key <= 10_000; key++) {
+            filter.add(key * 0x9E3779B97F4A7C15L);
+        }
+
+        for (long key = 1; key <= 10_000; key++) {
+            assertTrue(filter.mightContain(key * 0x9E3779B97F4A7C15L));
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.tokenservice.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RevocationTimingWheelTest {
+
+    private static final long START = 1_700_000_000_000L;
+
+    @Test
+    @DisplayName("Should expire entries at their own expiry, not before")
+    void testExpiresAtDeadline() {
+        RevocationTimingWheel wheel = new RevocationTimingWheel(1000, START);
+        List<Long> expired = new ArrayList<>();
+
+        wheel.schedule(1L, START + 5_000);
+        wheel.schedule(2L, START + 3_600_000);
+
+        assertEquals(0, wheel.advanceTo(START + 4_000, (key, expiresAt) -> expired.add(key)));
+        assertEquals(1, wheel.advanceTo(START + 5_000, (key, expiresAt) -> expired.add(key)));
+        assertEquals(List.of(1L), expired);
+
+        assertEquals(0, wheel.advanceTo(START + 3_599_000, (key, expiresAt) -> expired.add(key)));
+        assertEquals(1, wheel.advanceTo(START + 3_600_000, (key, expiresAt) -> expired.add(key)));
+        assertEquals(List.of(1L, 2L), expired);
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    @DisplayName("Should expire already-expired entries on the next tick")
+    void testPastExpiry() {
+        RevocationTimingWheel wheel = new RevocationTimingWheel(1000, START);
+
+        wheel.schedule(1L, START - 60_000);
+
+        assertEquals(1, wheel.advanceTo(START + 1_000, (key, expiresAt) -> assertEquals(1L, key)));
+    }
+
+    @Test
+    @DisplayName("Should cascade long-lived entries down through the levels")
+    void testCascade() {
+        RevocationTimingWheel wheel = new RevocationTimingWheel(1000, START);
+        long[] firedAt = new long[1];
+        long expiresAt = START + 30L * 24 * 3600 * 1000;
+
+        wheel.schedule(7L, expiresAt);
+
+        for (long now = START; now <= expiresAt + 1000; now += 60_000) {
+            long current = now;
+            wheel.advanceTo(now, (key, expiry) -> firedAt[0] = current);
+        }
+
+        assertTrue(firedAt[0] >= expiresAt);
+        assertTrue(firedAt[0] < expiresAt + 60_000);
+    }
+}
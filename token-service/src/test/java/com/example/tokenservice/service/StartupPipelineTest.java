@@ -0,0 +1,114 @@
+package com.example.tokenservice.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micronaut.runtime.server.event.ServerStartupEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class StartupPipelineTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final StartupPipeline pipeline = new StartupPipeline(meterRegistry);
+
+    @AfterEach
+    void tearDown() {
+        pipeline.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should report ready only once every critical phase has finished and the server is bound")
+    void testReadyAfterCriticalPhasesAndBind() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Void> fast = pipeline.critical("fast", () -> { });
+        CompletableFuture<Void> slow = pipeline.critical("slow", () -> await(release));
+        fast.get(5, TimeUnit.SECONDS);
+
+        assertFalse(pipeline.isReady());
+        assertEquals(List.of("slow", StartupPipeline.PHASE_SERVER_BIND), pipeline.getPendingPhases());
+
+        pipeline.onApplicationEvent(mock(ServerStartupEvent.class));
+        assertFalse(pipeline.isReady());
+        assertEquals(List.of("slow"), pipeline.getPendingPhases());
+
+        release.countDown();
+        slow.get(5, TimeUnit.SECONDS);
+        awaitReady();
+        assertTrue(pipeline.getPendingPhases().isEmpty());
+        assertTrue(pipeline.getPhaseDurationsMs().containsKey(StartupPipeline.PHASE_READY));
+        assertEquals(1.0, meterRegistry.get("token.startup.ready").gauge().value());
+    }
+
+    @Test
+    @DisplayName("Should stay unready after the critical phases until the server is bound")
+    void testNotReadyBeforeBind() throws Exception {
+        pipeline.critical("signing.key", () -> { }).get(5, TimeUnit.SECONDS);
+
+        assertFalse(pipeline.isReady());
+        assertEquals(List.of(StartupPipeline.PHASE_SERVER_BIND), pipeline.getPendingPhases());
+
+        pipeline.onApplicationEvent(mock(ServerStartupEvent.class));
+        assertTrue(pipeline.isReady());
+    }
+
+    @Test
+    @DisplayName("Should stay live while phases are pending and fail liveness only when a critical phase fails")
+    void testLivenessFailsOnlyOnFailedCriticalPhase() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        pipeline.critical("pending", () -> await(release));
+        assertTrue(pipeline.isLive());
+
+        CompletableFuture<Void> failed = pipeline.critical("revocation.journal", () -> {
+            throw new IllegalStateException("journal unreadable");
+        });
+        assertThrows(Exception.class, () -> failed.get(5, TimeUnit.SECONDS));
+        release.countDown();
+        pipeline.onApplicationEvent(mock(ServerStartupEvent.class));
+
+        assertFalse(pipeline.isLive());
+        assertFalse(pipeline.isReady());
+        assertTrue(pipeline.getPendingPhases().contains("revocation.journal"));
+    }
+
+    @Test
+    @DisplayName("Should hold deferred phases back until the server is bound")
+    void testDeferredPhasesWaitForBind() throws Exception {
+        CountDownLatch ran = new CountDownLatch(1);
+        pipeline.deferred("callback.outbox.replay", ran::countDown);
+
+        assertFalse(ran.await(200, TimeUnit.MILLISECONDS));
+
+        pipeline.onApplicationEvent(mock(ServerStartupEvent.class));
+        assertTrue(ran.await(5, TimeUnit.SECONDS));
+
+        // scheduled after the bind, it runs straight away
+        CountDownLatch late = new CountDownLatch(1);
+        pipeline.deferred("late", late::countDown);
+        assertTrue(late.await(5, TimeUnit.SECONDS));
+    }
+
+    private void awaitReady() throws InterruptedException {
+        // readiness is re-checked on the completing phase's thread, just after its future completes
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (!pipeline.isReady()) {
+            assertTrue(System.currentTimeMillis() < deadline, "not ready within 5s");
+            Thread.sleep(10);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
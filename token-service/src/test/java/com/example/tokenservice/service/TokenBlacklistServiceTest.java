@@ -0,0 +1,84 @@
+package com.example.tokenservice.service;
+
+import com.example.tokenservice.dto.RevocationEntry;
+import com.example.tokenservice.dto.RevocationFeedResponse;
+import com.example.tokenservice.metrics.TokenMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenBlacklistServiceTest {
+
+    private AuditLog auditLog;
+    private TokenBlacklistService blacklistService;
+
+    @BeforeEach
+    void setUp() {
+        auditLog = new AuditLog("", 1024, 64, 1024 * 1024, 1, 10);
+        blacklistService = new TokenBlacklistService(auditLog, new TokenMetrics(new SimpleMeterRegistry()), 1000, 1024, 3600, "", 600, 1024);
+    }
+
+    @AfterEach
+    void tearDown() {
+        blacklistService.shutdown();
+        auditLog.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should page a snapshot with a cursor and resume the feed at its sequence")
+    void testPagedSnapshot() {
+        for (int i = 0; i < 5; i++) {
+            blacklistService.revokeToken("token-" + i, "test");
+        }
+
+        Set<Long> keys = new HashSet<>();
+        RevocationFeedResponse page = blacklistService.readRevocations("", 0, "", 2);
+        assertTrue(page.isSnapshot());
+        assertEquals(0, page.getOffset());
+        String epoch = page.getEpoch();
+        long sequence = page.getSequence();
+        int pages = 1;
+        page.getEntries().forEach(entry -> keys.add(entry.getKey()));
+        while (page.isHasMore()) {
+            // revocations during paging reach the consumer through the feed, not the snapshot in progress
+            blacklistService.revokeToken("late-" + pages, "test");
+            page = blacklistService.readRevocations(epoch, sequence, page.getCursor(), 2);
+            assertTrue(page.isSnapshot());
+            assertEquals(sequence, page.getSequence());
+            page.getEntries().forEach(entry -> keys.add(entry.getKey()));
+            pages++;
+        }
+        assertEquals(3, pages);
+        assertEquals(5, keys.size());
+        assertNull(page.getCursor());
+
+        RevocationFeedResponse delta = blacklistService.readRevocations(epoch, sequence, "", 10);
+        assertFalse(delta.isSnapshot());
+        assertEquals(2, delta.getEntries().size());
+        for (RevocationEntry entry : delta.getEntries()) {
+            assertFalse(keys.contains(entry.getKey()));
+        }
+    }
+
+    @Test
+    @DisplayName("Should restart the snapshot when the cursor is unknown")
+    void testUnknownCursorRestartsSnapshot() {
+        for (int i = 0; i < 3; i++) {
+            blacklistService.revokeToken("token-" + i, "test");
+        }
+
+        RevocationFeedResponse page = blacklistService.readRevocations("", 0, "stale:2", 2);
+
+        assertTrue(page.isSnapshot());
+        assertEquals(0, page.getOffset());
+        assertEquals(2, page.getEntries().size());
+        assertTrue(page.isHasMore());
+    }
+}
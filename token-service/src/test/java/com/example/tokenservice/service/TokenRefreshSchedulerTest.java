@@ -0,0 +1,134 @@
+package com.example.tokenservice.service;
+
+import com.example.tokenservice.dto.TokenRequest;
+import com.example.tokenservice.dto.TokenResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class TokenRefreshSchedulerTest {
+
+    private static final String CLIENT_ID = "client-a";
+    private static final String CALLBACK_URL = "http://client-a/callback";
+
+    private final Map<String, ClientService.IssuedToken> issuedTokens = new ConcurrentHashMap<>();
+    private final AtomicLong pushedAt = new AtomicLong();
+    private ClientService clientService;
+    private JwtTokenService jwtTokenService;
+    private CallbackOutbox callbackOutbox;
+    private TokenRefreshScheduler scheduler;
+    // expiry given to every pushed token, relative to the push
+    private long pushedTokenLifetimeMs = 3_600_000L;
+
+    @BeforeEach
+    void setUp() {
+        clientService = mock(ClientService.class);
+        jwtTokenService = mock(JwtTokenService.class);
+        callbackOutbox = mock(CallbackOutbox.class);
+        when(clientService.getIssuedTokens()).thenReturn(issuedTokens);
+        when(clientService.getCallbackUrl(CLIENT_ID)).thenReturn(CALLBACK_URL);
+        // like the real service, a signed token becomes the client's latest issuance
+        when(jwtTokenService.generateToken(any(TokenRequest.class), anyString())).thenAnswer(invocation -> {
+            TokenRequest request = invocation.getArgument(0);
+            long now = System.currentTimeMillis();
+            pushedAt.set(now);
+            issuedTokens.put(request.getClientId(),
+                    new ClientService.IssuedToken(request.getScope(), now + pushedTokenLifetimeMs));
+            return new TokenResponse("token", pushedTokenLifetimeMs / 1000, request.getScope(), String.valueOf(now));
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (scheduler != null) {
+            scheduler.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Should push a replacement only once the token is inside the lead time, within the jitter window")
+    void testPushInsideLeadAndJitterWindow() {
+        // the periodic check is pushed out of the way, the test drives it
+        scheduler = new TokenRefreshScheduler(clientService, jwtTokenService, callbackOutbox, 60, 1, 3600, 3);
+
+        long now = System.currentTimeMillis();
+        issuedTokens.put(CLIENT_ID, new ClientService.IssuedToken("read", now + 120_000L));
+        scheduler.scheduleDueRefreshes();
+        verify(callbackOutbox, after(1_500).never()).deliver(anyString(), any(TokenResponse.class), anyString());
+
+        long expiresAt = System.currentTimeMillis() + 30_000L;
+        issuedTokens.put(CLIENT_ID, new ClientService.IssuedToken("read", expiresAt));
+        long checkedAt = System.currentTimeMillis();
+        scheduler.scheduleDueRefreshes();
+
+        verify(callbackOutbox, timeout(5_000)).deliver(eq(CALLBACK_URL), any(TokenResponse.class), anyString());
+        assertTrue(pushedAt.get() >= expiresAt - 60_000L);
+        // 1s of jitter plus scheduling slack, well before the old token runs out
+        assertTrue(pushedAt.get() - checkedAt < 1_500L, "pushed " + (pushedAt.get() - checkedAt) + "ms after the check");
+
+        // the pushed token is outside the lead time again, so nothing more is scheduled
+        scheduler.scheduleDueRefreshes();
+        verify(callbackOutbox, after(1_500).times(1)).deliver(anyString(), any(TokenResponse.class), anyString());
+    }
+
+    @Test
+    @DisplayName("Should never spread a push past half of the time the token has left")
+    void testJitterWindowShrinksNearExpiry() {
+        scheduler = new TokenRefreshScheduler(clientService, jwtTokenService, callbackOutbox, 60, 60, 3600, 3);
+
+        long expiresAt = System.currentTimeMillis() + 1_000L;
+        issuedTokens.put(CLIENT_ID, new ClientService.IssuedToken("read", expiresAt));
+        scheduler.scheduleDueRefreshes();
+
+        verify(callbackOutbox, timeout(2_000)).deliver(eq(CALLBACK_URL), any(TokenResponse.class), anyString());
+        assertTrue(pushedAt.get() < expiresAt, "pushed after the token expired");
+    }
+
+    @Test
+    @DisplayName("Should skip the push when the client already fetched a newer token")
+    void testSkipWhenClientFetchedNewerToken() {
+        scheduler = new TokenRefreshScheduler(clientService, jwtTokenService, callbackOutbox, 60, 1, 3600, 3);
+
+        long expiringAt = System.currentTimeMillis() + 30_000L;
+        // the client asked for a token of its own between the scheduling and the push
+        issuedTokens.put(CLIENT_ID, new ClientService.IssuedToken("read", expiringAt + 3_600_000L));
+        scheduler.pushReplacement(CLIENT_ID, expiringAt);
+
+        verify(jwtTokenService, never()).generateToken(any(TokenRequest.class), anyString());
+        verify(callbackOutbox, never()).deliver(anyString(), any(TokenResponse.class), anyString());
+    }
+
+    @Test
+    @DisplayName("Should stop pushing after max consecutive pushes and resume once the client asks for a token")
+    void testStopsAfterMaxConsecutivePushes() {
+        scheduler = new TokenRefreshScheduler(clientService, jwtTokenService, callbackOutbox, 60, 1, 3600, 3);
+        // every pushed token lands inside the lead time straight away, as for a client that never calls back
+        pushedTokenLifetimeMs = 30_000L;
+
+        issuedTokens.put(CLIENT_ID, new ClientService.IssuedToken("read", System.currentTimeMillis() + 30_000L));
+        for (int i = 0; i < 3; i++) {
+            scheduler.pushReplacement(CLIENT_ID, issuedTokens.get(CLIENT_ID).getExpiresAt());
+        }
+        verify(callbackOutbox, times(3)).deliver(eq(CALLBACK_URL), any(TokenResponse.class), anyString());
+
+        scheduler.scheduleDueRefreshes();
+        assertFalse(issuedTokens.containsKey(CLIENT_ID));
+        verify(callbackOutbox, after(1_500).times(3)).deliver(anyString(), any(TokenResponse.class), anyString());
+
+        // a token request of its own re-arms refresh-ahead
+        issuedTokens.put(CLIENT_ID, new ClientService.IssuedToken("read", System.currentTimeMillis() + 30_000L));
+        scheduler.scheduleDueRefreshes();
+        verify(callbackOutbox, timeout(5_000).times(4)).deliver(eq(CALLBACK_URL), any(TokenResponse.class), anyString());
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.tokenservice.service;
+
+import com.example.tokenservice.dto.TokenRequest;
+import com.example.tokenservice.dto.TokenValidationResult;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micronaut.test.extensions.junit5.annotation.MicronautTest;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@MicronautTest
+class TokenValidationServiceTest {
+
+    @Inject
+    private TokenValidationService tokenValidationService;
+
+    @Inject
+    private JwtTokenService jwtTokenService;
+
+    @Inject
+    private TokenBlacklistService tokenBlacklistService;
+
+    @Inject
+    private VerifiedClaimsCache verifiedClaimsCache;
+
+    @Inject
+    private MeterRegistry meterRegistry;
+
+    private TokenRequest validTokenRequest;
+
+    @BeforeEach
+    void setUp() {
+        validTokenRequest = new TokenRequest();
+        validTokenRequest.setClientId("test-client");
+        validTokenRequest.setClientSecret("test-secret");
+        validTokenRequest.setScope("read write");
+    }
+
+    @Test
+    @DisplayName("Should validate token and return its claims")
+    void testValidateToken() {
+        String token = jwtTokenService.generateToken(validTokenRequest, "test-trace-id").getAccessToken();
+
+        TokenValidationResult result = tokenValidationService.validate(token);
+
+        assertTrue(result.isValid());
+        assertEquals("test-client", result.getSubject());
+        assertEquals("read write", result.getScope());
+        assertNotNull(result.getExpiresAt());
+    }
+
+    @Test
+    @DisplayName("Should serve repeated validations from the claims cache")
+    void testRepeatedValidationIsCached() {
+        String token = jwtTokenService.generateToken(validTokenRequest, "test-trace-id").getAccessToken();
+
+        TokenValidationResult first = tokenValidationService.validate(token);
+        TokenValidationResult second = tokenValidationService.validate(token);
+
+        assertSame(first, second);
+        assertNotNull(verifiedClaimsCache.get(TokenDigest.of(token)));
+    }
+
+    @Test
+    @DisplayName("Should report revoked token even when its claims are cached")
+    void testRevokedTokenAfterCaching() {
+        String token = jwtTokenService.generateToken(validTokenRequest, "test-trace-id").getAccessToken();
+        assertTrue(tokenValidationService.validate(token).isValid());
+
+        tokenBlacklistService.revokeToken(token, "test");
+
+        assertEquals(TokenValidationResult.Status.REVOKED, tokenValidationService.validate(token).getStatus());
+    }
+
+    @Test
+    @DisplayName("Should report malformed token as invalid")
+    void testValidateInvalidToken() {
+        TokenValidationResult result = tokenValidationService.validate("invalid.token.here");
+
+        assertEquals(TokenValidationResult.Status.INVALID, result.getStatus());
+        assertFalse(result.isValid());
+    }
+
+    @Test
+    @DisplayName("Should validate a batch and keep results in request order")
+    void testValidateAll() {
+        List<String> tokens = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            tokens.add(jwtTokenService.generateToken(validTokenRequest, "trace-" + i).getAccessToken());
+        }
+        tokenBlacklistService.revokeToken(tokens.get(3), "test");
+        tokens.set(7, "invalid.token.here");
+
+        List<TokenValidationResult> results = tokenValidationService.validateAll(tokens);
+
+        assertEquals(20, results.size());
+        assertEquals(TokenValidationResult.Status.REVOKED, results.get(3).getStatus());
+        assertEquals(TokenValidationResult.Status.INVALID, results.get(7).getStatus());
+        assertTrue(results.get(0).isValid());
+        assertEquals("test-client", results.get(19).getSubject());
+    }
+
+    @Test
+    @DisplayName("Should verify claims for revocation without counting a validation")
+    void testVerifyClaimsRecordsNothing() {
+        String token = jwtTokenService.generateToken(validTokenRequest, "test-trace-id").getAccessToken();
+        double validBefore = validationCount("valid");
+        double invalidBefore = validationCount("invalid");
+
+        TokenValidationResult claims = tokenValidationService.verifyClaims(token);
+
+        assertTrue(claims.isValid());
+        assertNotNull(claims.getExpiresAt());
+        assertEquals(TokenValidationResult.Status.INVALID, tokenValidationService.verifyClaims("invalid.token.here").getStatus());
+        assertEquals(validBefore, validationCount("valid"));
+        assertEquals(invalidBefore, validationCount("invalid"));
+    }
+
+    private double validationCount(String status) {
+        return meterRegistry.get("token.validation.results").tag("status", status).counter().count();
+    }
+}